@@ -0,0 +1,54 @@
+package com.switchfully.order.api;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in (the virtual-threads profile): Tomcat serves every request (of all controllers) on a virtual thread of
+ * its own, instead of on its pool of platform threads. A request blocking on the database then no longer occupies
+ * a platform thread, so the amount of concurrent requests is no longer bounded by server.tomcat.max-threads
+ * (the requests wait for a connection of the connection pool instead). The OrderItemCreatedEvent listeners run
+ * on the thread of the request that publishes the event, so they run on its virtual thread as well.
+ * <p>
+ * Virtual threads need Java 21 or later. Since the build still targets Java 12, the executor is created
+ * reflectively, and the application refuses to start with this profile on an older JVM.
+ */
+@Configuration
+@Profile(VirtualThreadsConfiguration.PROFILE)
+public class VirtualThreadsConfiguration implements DisposableBean {
+
+    public static final String PROFILE = "virtual-threads";
+
+    private final ExecutorService virtualThreadPerRequestExecutor = newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadPerRequestExecutor);
+    }
+
+    @Override
+    public void destroy() {
+        virtualThreadPerRequestExecutor.shutdown();
+    }
+
+    /**
+     * @throws IllegalStateException when the JVM doesn't support virtual threads
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException exception) {
+            throw new IllegalStateException("The " + PROFILE + " profile needs Java 21 or later, but runs on Java "
+                    + Runtime.version(), exception);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Creating the executor of virtual threads failed", exception);
+        }
+    }
+}
@@ -1,12 +1,28 @@
 package com.switchfully.order.api;
 
+import com.switchfully.order.api.interceptors.QueryStatisticsInterceptor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import javax.inject.Inject;
+
 @Configuration
 public class WebConfiguration implements WebMvcConfigurer {
 
+    private final QueryStatisticsInterceptor queryStatisticsInterceptor;
+
+    @Inject
+    public WebConfiguration(QueryStatisticsInterceptor queryStatisticsInterceptor) {
+        this.queryStatisticsInterceptor = queryStatisticsInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryStatisticsInterceptor);
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("http://localhost:4200")
@@ -6,6 +6,7 @@ import com.switchfully.order.infrastructure.exceptions.NotAuthorizedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -61,6 +62,14 @@ public class ControllerExceptionHandler extends ResponseEntityExceptionHandler {
         return new Error(exception, FORBIDDEN, request);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(CONFLICT)
+    @ResponseBody
+    @Order(value = 10)
+    public Error conflictHandler(OptimisticLockingFailureException exception, HttpServletRequest request) {
+        return new Error(exception, CONFLICT, request);
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(INTERNAL_SERVER_ERROR)
     @ResponseBody
@@ -0,0 +1,162 @@
+package com.switchfully.order.api.interceptors;
+
+import com.switchfully.order.domain.statistics.QueryStatistics;
+import com.switchfully.order.infrastructure.exceptions.QueryBudgetExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements (and the time spent executing them) per request, to expose N+1 queries:
+ * <ul>
+ * <li>as the X-Query-Count and X-Query-Time-Ms response headers, counted up to the moment the response body
+ * is written (or, for responses without a body, the moment the handler returned)</li>
+ * <li>as the order.requests.queries and order.requests.jdbc-time metrics (per uri), counted until the request
+ * completed</li>
+ * </ul>
+ * When a request exceeds order.queries.budget-per-request statements (0 means no budget), a warning is logged and
+ * the order.requests.over-budget counter (per uri) is incremented. When order.queries.fail-over-budget is true
+ * (as in the integration tests), the request fails as well, unless its response was already committed (such as a
+ * streamed response): then only the counter tells.
+ */
+@ControllerAdvice(basePackages = "com.switchfully.order.api")
+public class QueryStatisticsInterceptor extends HandlerInterceptorAdapter implements ResponseBodyAdvice<Object> {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+
+    private static final String CHECKED_ATTRIBUTE = QueryStatisticsInterceptor.class.getName() + ".CHECKED";
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryStatisticsInterceptor.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int budgetPerRequest;
+    private final boolean failOverBudget;
+
+    @Inject
+    public QueryStatisticsInterceptor(MeterRegistry meterRegistry,
+                                      @Value("${order.queries.budget-per-request:0}") int budgetPerRequest,
+                                      @Value("${order.queries.fail-over-budget:false}") boolean failOverBudget) {
+        this.meterRegistry = meterRegistry;
+        this.budgetPerRequest = budgetPerRequest;
+        this.failOverBudget = failOverBudget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryStatistics.start();
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        QueryStatistics queryStatistics = QueryStatistics.current();
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        if (queryStatistics == null || servletRequest.getAttribute(CHECKED_ATTRIBUTE) != null) {
+            return body;
+        }
+        servletRequest.setAttribute(CHECKED_ATTRIBUTE, Boolean.TRUE);
+        response.getHeaders().add(QUERY_COUNT_HEADER, String.valueOf(queryStatistics.getAmountOfStatements()));
+        response.getHeaders().add(QUERY_TIME_HEADER, jdbcTimeInMillisOf(queryStatistics));
+        failWhenOverBudget(queryStatistics, request.getMethodValue() + " " + request.getURI().getPath());
+        return body;
+    }
+
+    /**
+     * Reports (and checks) the statements of responses without a body, for which beforeBodyWrite isn't called.
+     */
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        QueryStatistics queryStatistics = QueryStatistics.current();
+        if (queryStatistics == null || request.getAttribute(CHECKED_ATTRIBUTE) != null || response.isCommitted()) {
+            return;
+        }
+        request.setAttribute(CHECKED_ATTRIBUTE, Boolean.TRUE);
+        response.addHeader(QUERY_COUNT_HEADER, String.valueOf(queryStatistics.getAmountOfStatements()));
+        response.addHeader(QUERY_TIME_HEADER, jdbcTimeInMillisOf(queryStatistics));
+        failWhenOverBudget(queryStatistics, request.getMethod() + " " + request.getRequestURI());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception exception) {
+        QueryStatistics queryStatistics = QueryStatistics.current();
+        QueryStatistics.stop();
+        if (queryStatistics == null) {
+            return;
+        }
+        String uri = uriPatternOf(request);
+        DistributionSummary.builder("order.requests.queries")
+                .description("The amount of SQL statements executed per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(queryStatistics.getAmountOfStatements());
+        Timer.builder("order.requests.jdbc-time")
+                .description("The time spent executing SQL statements per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(queryStatistics.getJdbcTimeInNanos(), TimeUnit.NANOSECONDS);
+        if (isOverBudget(queryStatistics)) {
+            LOGGER.warn("{} {} executed {} SQL statements, which exceeds the budget of {} statements per request",
+                    request.getMethod(), uri, queryStatistics.getAmountOfStatements(), budgetPerRequest);
+            Counter.builder("order.requests.over-budget")
+                    .description("The amount of requests that executed more SQL statements than the budget")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private void failWhenOverBudget(QueryStatistics queryStatistics, String request) {
+        if (failOverBudget && isOverBudget(queryStatistics)) {
+            throw new QueryBudgetExceededException(request, queryStatistics.getAmountOfStatements(),
+                    budgetPerRequest);
+        }
+    }
+
+    private boolean isOverBudget(QueryStatistics queryStatistics) {
+        return budgetPerRequest > 0 && queryStatistics.getAmountOfStatements() > budgetPerRequest;
+    }
+
+    private static String jdbcTimeInMillisOf(QueryStatistics queryStatistics) {
+        return String.valueOf(TimeUnit.NANOSECONDS.toMillis(queryStatistics.getJdbcTimeInNanos()));
+    }
+
+    /**
+     * @return the pattern of the uri (e.g. /items/{itemId}), so the metrics aren't tagged with every single id
+     */
+    private static String uriPatternOf(HttpServletRequest request) {
+        Object uriPattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return uriPattern == null ? "UNKNOWN" : uriPattern.toString();
+    }
+}
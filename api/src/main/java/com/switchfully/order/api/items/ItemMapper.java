@@ -5,7 +5,6 @@ import com.switchfully.order.domain.items.prices.Price;
 import com.switchfully.order.infrastructure.dto.Mapper;
 
 import javax.inject.Named;
-import java.math.BigDecimal;
 import java.util.UUID;
 
 import static com.switchfully.order.domain.items.Item.ItemBuilder.item;
@@ -31,7 +30,7 @@ public class ItemMapper extends Mapper<ItemDto, Item> {
                 .withName(itemDto.getName())
                 .withDescription(itemDto.getDescription())
                 .withAmountOfStock(itemDto.getAmountOfStock())
-                .withPrice(Price.create(BigDecimal.valueOf(itemDto.getPrice())))
+                .withPrice(Price.createFromFloat(itemDto.getPrice()))
                 .build();
     }
 
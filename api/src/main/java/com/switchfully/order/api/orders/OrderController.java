@@ -1,10 +1,16 @@
 package com.switchfully.order.api.orders;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.switchfully.order.api.orders.dtos.OrderAfterCreationDto;
 import com.switchfully.order.api.orders.dtos.OrderCreationDto;
+import com.switchfully.order.api.orders.dtos.OrderCreationResultDto;
 import com.switchfully.order.api.orders.dtos.OrderDto;
+import com.switchfully.order.api.orders.dtos.OrderPageDto;
 import com.switchfully.order.api.orders.dtos.reports.OrdersReportDto;
+import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.service.items.ItemLookup;
 import com.switchfully.order.service.orders.OrderService;
+import com.switchfully.order.service.orders.reports.CustomerOrderReportService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -16,8 +22,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -26,28 +39,89 @@ import java.util.stream.Collectors;
 public class OrderController {
 
     public static final String RESOURCE_NAME = "orders";
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
 
     private final OrderService orderService;
     private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
+    private final CustomerOrderReportService customerOrderReportService;
 
     @Autowired
-    public OrderController(OrderService orderService, OrderMapper orderMapper) {
+    public OrderController(OrderService orderService, OrderMapper orderMapper, ObjectMapper objectMapper,
+                           CustomerOrderReportService customerOrderReportService) {
         this.orderService = orderService;
         this.orderMapper = orderMapper;
+        this.objectMapper = objectMapper;
+        this.customerOrderReportService = customerOrderReportService;
     }
 
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     public List<OrderDto> getAllOrders(@RequestParam(name = "shippableToday", required = false) boolean onlyIncludeShippableToday) {
-        return orderService.getAllOrders(onlyIncludeShippableToday).stream()
+        if (onlyIncludeShippableToday) {
+            return orderMapper.toDtosOfShippableOrderItems(orderService.getOrderItemsShippingToday());
+        }
+        return orderService.getAllOrders().stream()
                 .map(orderMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    @GetMapping(params = "totalPriceOver", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<OrderDto> getOrdersWithTotalPriceOver(@RequestParam(name = "totalPriceOver") BigDecimal amount) {
+        return orderService.getOrdersWithTotalPriceOver(amount).stream()
+                .map(orderMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Keyset paginated variant of getAllOrders: returns the (at most) limit orders following the provided cursor.
+     * The returned next cursor can be passed as the after parameter to request the next page.
+     */
+    @GetMapping(params = "limit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public OrderPageDto getOrdersPage(@RequestParam(name = "limit") int limit,
+                                      @RequestParam(name = "after", required = false) String afterOrderId) {
+        List<Order> orders = orderService.getOrdersPage(
+                afterOrderId == null ? null : UUID.fromString(afterOrderId), limit);
+        return new OrderPageDto()
+                .withOrders(orders.stream()
+                        .map(orderMapper::toDto)
+                        .collect(Collectors.toList()))
+                .withNextCursor(orders.size() < limit ? null : orders.get(orders.size() - 1).getId().toString());
+    }
+
+    /**
+     * Streams all orders as newline delimited JSON, writing every order to the response as soon as it's read
+     * from the database (instead of collecting all of them in memory first).
+     */
+    @GetMapping(path = "/stream", produces = APPLICATION_NDJSON_VALUE)
+    public void streamAllOrders(HttpServletResponse response) throws IOException {
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream responseBody = response.getOutputStream();
+        orderService.streamAllOrders(order -> writeAsJsonLine(orderMapper.toDto(order), responseBody));
+        responseBody.flush();
+    }
+
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     public OrderAfterCreationDto createOrder(@RequestBody OrderCreationDto orderDto) {
+        ItemLookup orderedItems = orderMapper.lookupOrderedItems(orderDto);
         return orderMapper.toOrderAfterCreationDto(
                 orderService.createOrder(
-                        orderMapper.toDomain(orderDto)));
+                        orderMapper.toDomain(orderDto, orderedItems), orderedItems));
+    }
+
+    /**
+     * Creates all provided orders, each succeeding or failing on its own (a failing order doesn't abort the others).
+     * Returns one result per provided order, in the same order.
+     */
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<OrderCreationResultDto> createOrders(@RequestBody List<OrderCreationDto> orderDtos) {
+        ItemLookup orderedItems = orderMapper.lookupOrderedItems(orderDtos);
+        List<Supplier<Order>> orderAssemblers = orderDtos.stream()
+                .map(orderDto -> (Supplier<Order>) () -> orderMapper.toDomain(orderDto, orderedItems))
+                .collect(Collectors.toList());
+        return orderService.createOrders(orderAssemblers, orderedItems).stream()
+                .map(orderMapper::toOrderCreationResultDto)
+                .collect(Collectors.toList());
     }
 
     @PostMapping(path = "/{id}/reorder", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -59,7 +133,16 @@ public class OrderController {
     @GetMapping(path = "/customers/{customerId}", produces = MediaType.APPLICATION_JSON_VALUE)
     public OrdersReportDto getOrdersForCustomerReport(@PathVariable String customerId) {
         return orderMapper.toOrdersReportDto(
-                orderService.getOrdersForCustomer(UUID.fromString(customerId)));
+                customerOrderReportService.getReport(UUID.fromString(customerId)));
+    }
+
+    private void writeAsJsonLine(OrderDto orderDto, OutputStream outputStream) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(orderDto));
+            outputStream.write('\n');
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
     }
 
 }
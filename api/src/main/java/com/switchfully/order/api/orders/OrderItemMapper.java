@@ -3,15 +3,20 @@ package com.switchfully.order.api.orders;
 import com.switchfully.order.api.orders.dtos.ItemGroupDto;
 import com.switchfully.order.api.orders.dtos.reports.ItemGroupReportDto;
 import com.switchfully.order.domain.items.Item;
-import com.switchfully.order.domain.items.prices.Price;
 import com.switchfully.order.domain.orders.orderitems.OrderItem;
+import com.switchfully.order.domain.orders.orderitems.ShippableOrderItem;
+import com.switchfully.order.domain.orders.reports.OrderReportLine;
 import com.switchfully.order.infrastructure.dto.Mapper;
 import com.switchfully.order.infrastructure.exceptions.EntityNotFoundException;
+import com.switchfully.order.service.items.ItemLookup;
 import com.switchfully.order.service.items.ItemService;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static com.switchfully.order.domain.orders.orderitems.OrderItem.OrderItemBuilder.orderItem;
 
@@ -27,14 +32,28 @@ public class OrderItemMapper extends Mapper<ItemGroupDto, OrderItem> {
 
     @Override
     public OrderItem toDomain(ItemGroupDto itemGroupDto) {
+        return toDomain(itemGroupDto, lookupItems(Collections.singletonList(itemGroupDto)));
+    }
+
+    public OrderItem toDomain(ItemGroupDto itemGroupDto, ItemLookup orderedItems) {
+        Item orderedItem = getItemForId(itemGroupDto.getItemId(), orderedItems);
         return orderItem()
                 .withItemId(UUID.fromString(itemGroupDto.getItemId()))
                 .withOrderedAmount(itemGroupDto.getOrderedAmount())
-                .withItemPrice(enrichWithItemPrice(itemGroupDto))
-                .withShippingDateBasedOnAvailableItemStock(enrichWithItemAmountOfStock(itemGroupDto))
+                .withItemPrice(orderedItem.getPrice())
+                .withShippingDateBasedOnAvailableItemStock(orderedItems.getAvailableStock(orderedItem.getId()))
                 .build();
     }
 
+    /**
+     * Resolves all the items referenced by the provided item groups in one go.
+     */
+    public ItemLookup lookupItems(List<ItemGroupDto> itemGroupDtos) {
+        return itemService.getItems(itemGroupDtos.stream()
+                .map(itemGroupDto -> UUID.fromString(itemGroupDto.getItemId()))
+                .collect(Collectors.toSet()));
+    }
+
     @Override
     public ItemGroupDto toDto(OrderItem orderItem) {
         return new ItemGroupDto()
@@ -42,28 +61,22 @@ public class OrderItemMapper extends Mapper<ItemGroupDto, OrderItem> {
                 .withOrderedAmount(orderItem.getOrderedAmount());
     }
 
-    public ItemGroupReportDto toItemGroupReportDto(OrderItem orderItem) {
-        return new ItemGroupReportDto()
-                .withItemId(orderItem.getItemId().toString())
-                .withOrderedAmount(orderItem.getOrderedAmount())
-                .withName(enrichWithItemName(orderItem))
-                .withTotalPrice(orderItem.getTotalPrice().getAmountAsFloat());
-    }
-
-    private Price enrichWithItemPrice(ItemGroupDto itemGroupDto) {
-        return getItemForId(itemGroupDto.getItemId()).getPrice();
-    }
-
-    private int enrichWithItemAmountOfStock(ItemGroupDto itemGroupDto) {
-        return getItemForId(itemGroupDto.getItemId()).getAmountOfStock();
+    public ItemGroupDto toItemGroupDto(ShippableOrderItem shippableOrderItem) {
+        return new ItemGroupDto()
+                .withItemId(shippableOrderItem.getItemId().toString())
+                .withOrderedAmount(shippableOrderItem.getOrderedAmount());
     }
 
-    private String enrichWithItemName(OrderItem orderItem) {
-        return getItemForId(orderItem.getItemId().toString()).getName();
+    public ItemGroupReportDto toItemGroupReportDto(OrderReportLine orderReportLine) {
+        return new ItemGroupReportDto()
+                .withItemId(orderReportLine.getItemId().toString())
+                .withOrderedAmount(orderReportLine.getOrderedAmount())
+                .withName(orderReportLine.getItemName())
+                .withTotalPrice(orderReportLine.getTotalPrice().floatValue());
     }
 
-    private Item getItemForId(String itemIdAsString) {
-        Item item = itemService.getItem(UUID.fromString(itemIdAsString));
+    private Item getItemForId(String itemIdAsString, ItemLookup orderedItems) {
+        Item item = orderedItems.get(UUID.fromString(itemIdAsString));
         if (item == null) {
             throw new EntityNotFoundException("mapping to an order of an item group (for creating a new order)",
                     Item.class, UUID.fromString(itemIdAsString));
@@ -4,16 +4,25 @@ import com.switchfully.order.api.customers.addresses.AddressMapper;
 import com.switchfully.order.api.orders.dtos.ItemGroupDto;
 import com.switchfully.order.api.orders.dtos.OrderAfterCreationDto;
 import com.switchfully.order.api.orders.dtos.OrderCreationDto;
+import com.switchfully.order.api.orders.dtos.OrderCreationResultDto;
 import com.switchfully.order.api.orders.dtos.OrderDto;
 import com.switchfully.order.api.orders.dtos.reports.OrdersReportDto;
 import com.switchfully.order.api.orders.dtos.reports.SingleOrderReportDto;
 import com.switchfully.order.domain.customers.Customer;
-import com.switchfully.order.domain.customers.addresses.Address;
 import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.domain.orders.orderitems.ShippableOrderItem;
+import com.switchfully.order.domain.orders.reports.OrderReportLine;
 import com.switchfully.order.service.customers.CustomerService;
+import com.switchfully.order.service.items.ItemLookup;
+import com.switchfully.order.service.orders.OrderAssemblyExecutor;
+import com.switchfully.order.service.orders.OrderCreationResult;
+import com.switchfully.order.service.orders.reports.OrdersReport;
 
 import javax.inject.Named;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -25,11 +34,14 @@ public class OrderMapper {
     private final OrderItemMapper orderItemMapper;
     private final AddressMapper addressMapper;
     private final CustomerService customerService;
+    private final OrderAssemblyExecutor orderAssemblyExecutor;
 
-    public OrderMapper(OrderItemMapper orderItemMapper, AddressMapper addressMapper, CustomerService customerService) {
+    public OrderMapper(OrderItemMapper orderItemMapper, AddressMapper addressMapper, CustomerService customerService,
+                       OrderAssemblyExecutor orderAssemblyExecutor) {
         this.orderItemMapper = orderItemMapper;
         this.addressMapper = addressMapper;
         this.customerService = customerService;
+        this.orderAssemblyExecutor = orderAssemblyExecutor;
     }
 
     public OrderDto toDto(Order order) {
@@ -38,21 +50,63 @@ public class OrderMapper {
                 .withItemGroups(order.getOrderItems().stream()
                         .map(orderItemMapper::toDto)
                         .toArray(ItemGroupDto[]::new))
-                .withAddress(addressMapper.toDto(getAddressForCustomer(order.getCustomer().getId())));
+                .withAddress(addressMapper.toDto(order.getCustomer().getAddress()));
     }
 
-    private Address getAddressForCustomer(UUID customerId) {
-        return customerService.getCustomer(customerId).getAddress();
+    /**
+     * Groups the shippable order items per order (keeping the order in which they were provided),
+     * resulting in one OrderDto per order that contains only the shippable item groups.
+     */
+    public List<OrderDto> toDtosOfShippableOrderItems(List<ShippableOrderItem> shippableOrderItems) {
+        return shippableOrderItems.stream()
+                .collect(Collectors.groupingBy(ShippableOrderItem::getOrderId, LinkedHashMap::new, Collectors.toList()))
+                .values().stream()
+                .map(this::toDtoOfShippableOrderItemsOfOneOrder)
+                .collect(Collectors.toList());
+    }
+
+    private OrderDto toDtoOfShippableOrderItemsOfOneOrder(List<ShippableOrderItem> shippableOrderItemsOfOneOrder) {
+        ShippableOrderItem anyShippableOrderItem = shippableOrderItemsOfOneOrder.get(0);
+        return new OrderDto()
+                .withOrderId(anyShippableOrderItem.getOrderId().toString())
+                .withItemGroups(shippableOrderItemsOfOneOrder.stream()
+                        .map(orderItemMapper::toItemGroupDto)
+                        .toArray(ItemGroupDto[]::new))
+                .withAddress(addressMapper.toDto(anyShippableOrderItem.getAddress()));
+    }
+
+    public ItemLookup lookupOrderedItems(OrderCreationDto orderCreationDto) {
+        return orderItemMapper.lookupItems(orderCreationDto.getItemGroups());
+    }
+
+    /**
+     * Resolves all the items referenced by the provided orders in one go. Item groups that can't be resolved
+     * (e.g. because of an invalid item id) are skipped here, they make their own order fail when it's assembled.
+     */
+    public ItemLookup lookupOrderedItems(List<OrderCreationDto> orderCreationDtos) {
+        return orderItemMapper.lookupItems(orderCreationDtos.stream()
+                .filter(Objects::nonNull)
+                .map(OrderCreationDto::getItemGroups)
+                .filter(Objects::nonNull)
+                .flatMap(Collection::stream)
+                .filter(itemGroupDto -> itemGroupDto != null && isUuid(itemGroupDto.getItemId()))
+                .collect(Collectors.toList()));
     }
 
     public Order toDomain(OrderCreationDto orderCreationDto) {
-        System.out.println("here");
-        Customer customer = customerService.getCustomer(UUID.fromString(orderCreationDto.getCustomerId()));
+        return toDomain(orderCreationDto, lookupOrderedItems(orderCreationDto));
+    }
+
+    /**
+     * The item groups of large orders are mapped in parallel (see {@link OrderAssemblyExecutor}), which is safe since
+     * they're mapped from the already resolved items only.
+     */
+    public Order toDomain(OrderCreationDto orderCreationDto, ItemLookup orderedItems) {
+        Customer customer = customerService.getCustomerReference(UUID.fromString(orderCreationDto.getCustomerId()));
         return order()
                 .withCustomer(customer)
-                .withOrderItems(orderCreationDto.getItemGroups().stream()
-                        .map(orderItemMapper::toDomain)
-                        .collect(Collectors.toList()))
+                .withOrderItems(orderAssemblyExecutor.map(orderCreationDto.getItemGroups(),
+                        itemGroupDto -> orderItemMapper.toDomain(itemGroupDto, orderedItems)))
                 .build();
     }
 
@@ -62,21 +116,48 @@ public class OrderMapper {
                 .withTotalPrice(order.getTotalPrice().getAmountAsFloat());
     }
 
-    public OrdersReportDto toOrdersReportDto(List<Order> orders) {
+    public OrderCreationResultDto toOrderCreationResultDto(OrderCreationResult orderCreationResult) {
+        if (!orderCreationResult.isCreated()) {
+            return new OrderCreationResultDto()
+                    .withCreated(false)
+                    .withFailureReason(orderCreationResult.getFailureReason());
+        }
+        OrderAfterCreationDto orderAfterCreationDto = toOrderAfterCreationDto(orderCreationResult.getCreatedOrder());
+        return new OrderCreationResultDto()
+                .withCreated(true)
+                .withOrderId(orderAfterCreationDto.getOrderId())
+                .withTotalPrice(orderAfterCreationDto.getTotalPrice());
+    }
+
+    /**
+     * Maps the report read model, grouping its lines per order (keeping the order in which they were provided).
+     */
+    public OrdersReportDto toOrdersReportDto(OrdersReport ordersReport) {
         return new OrdersReportDto()
-                .withOrders(orders.stream()
+                .withOrders(ordersReport.getLines().stream()
+                        .collect(Collectors.groupingBy(OrderReportLine::getOrderId, LinkedHashMap::new, Collectors.toList()))
+                        .values().stream()
                         .map(this::toSingleOrderReportDto)
                         .collect(Collectors.toList()))
-                .withTotalPriceOfAllOrders(orders.stream()
-                        .map(order -> order.getTotalPrice().getAmountAsFloat())
-                        .reduce(0f, Float::sum));
+                .withTotalPriceOfAllOrders(ordersReport.getTotalPriceOfAllOrders().floatValue());
     }
 
-    private SingleOrderReportDto toSingleOrderReportDto(Order order) {
+    private SingleOrderReportDto toSingleOrderReportDto(List<OrderReportLine> reportLinesOfOneOrder) {
+        OrderReportLine anyReportLine = reportLinesOfOneOrder.get(0);
         return new SingleOrderReportDto()
-                .withOrderId(order.getId().toString())
-                .withItemGroups(order.getOrderItems().stream()
+                .withOrderId(anyReportLine.getOrderId().toString())
+                .withTotalPrice(anyReportLine.getOrderTotalPrice().floatValue())
+                .withItemGroups(reportLinesOfOneOrder.stream()
                         .map(orderItemMapper::toItemGroupReportDto)
                         .collect(Collectors.toList()));
     }
+
+    private boolean isUuid(String id) {
+        try {
+            UUID.fromString(id);
+            return true;
+        } catch (IllegalArgumentException | NullPointerException exception) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,48 @@
+package com.switchfully.order.api.orders.dtos;
+
+public class OrderCreationResultDto {
+
+    private boolean created;
+    private String orderId;
+    private Float totalPrice;
+    private String failureReason;
+
+    public OrderCreationResultDto() {
+    }
+
+    public OrderCreationResultDto withCreated(boolean created) {
+        this.created = created;
+        return this;
+    }
+
+    public OrderCreationResultDto withOrderId(String orderId) {
+        this.orderId = orderId;
+        return this;
+    }
+
+    public OrderCreationResultDto withTotalPrice(Float totalPrice) {
+        this.totalPrice = totalPrice;
+        return this;
+    }
+
+    public OrderCreationResultDto withFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+        return this;
+    }
+
+    public boolean isCreated() {
+        return created;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public Float getTotalPrice() {
+        return totalPrice;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+}
@@ -0,0 +1,33 @@
+package com.switchfully.order.api.orders.dtos;
+
+import java.util.List;
+
+public class OrderPageDto {
+
+    private List<OrderDto> orders;
+    private String nextCursor;
+
+    public OrderPageDto() {
+    }
+
+    public OrderPageDto withOrders(List<OrderDto> orders) {
+        this.orders = orders;
+        return this;
+    }
+
+    /**
+     * The cursor to request the next page with, or null when there are no more orders.
+     */
+    public OrderPageDto withNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+        return this;
+    }
+
+    public List<OrderDto> getOrders() {
+        return orders;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
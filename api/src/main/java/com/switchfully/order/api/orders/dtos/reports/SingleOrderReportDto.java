@@ -6,6 +6,7 @@ public class SingleOrderReportDto {
 
     private List<ItemGroupReportDto> itemGroups;
     private String orderId;
+    private float totalPrice;
 
     public SingleOrderReportDto() {
     }
@@ -20,6 +21,11 @@ public class SingleOrderReportDto {
         return this;
     }
 
+    public SingleOrderReportDto withTotalPrice(float totalPrice) {
+        this.totalPrice = totalPrice;
+        return this;
+    }
+
     public List<ItemGroupReportDto> getItemGroups() {
         return itemGroups;
     }
@@ -27,4 +33,8 @@ public class SingleOrderReportDto {
     public String getOrderId() {
         return orderId;
     }
+
+    public float getTotalPrice() {
+        return totalPrice;
+    }
 }
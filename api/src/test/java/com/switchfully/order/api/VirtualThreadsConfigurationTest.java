@@ -0,0 +1,37 @@
+package com.switchfully.order.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsConfigurationTest {
+
+    private static final int FIRST_JAVA_VERSION_WITH_VIRTUAL_THREADS = 21;
+
+    @Test
+    void newVirtualThreadPerTaskExecutor_givenAJvmWithVirtualThreads_thenRunEveryTaskOnAVirtualThread()
+            throws Exception {
+        assumeTrue(Runtime.version().feature() >= FIRST_JAVA_VERSION_WITH_VIRTUAL_THREADS);
+        ExecutorService executor = VirtualThreadsConfiguration.newVirtualThreadPerTaskExecutor();
+
+        Boolean runOnVirtualThread = executor.submit(() ->
+                (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())).get();
+
+        assertThat(runOnVirtualThread).isTrue();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void newVirtualThreadPerTaskExecutor_givenAJvmWithoutVirtualThreads_thenRefuseToStart() {
+        assumeTrue(Runtime.version().feature() < FIRST_JAVA_VERSION_WITH_VIRTUAL_THREADS);
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(VirtualThreadsConfiguration::newVirtualThreadPerTaskExecutor);
+    }
+}
@@ -5,6 +5,7 @@ import com.switchfully.order.api.customers.addresses.AddressDto;
 import com.switchfully.order.api.customers.emails.EmailDto;
 import com.switchfully.order.api.customers.phonenumbers.PhoneNumberDto;
 import com.switchfully.order.api.interceptors.ControllerExceptionHandler;
+import com.switchfully.order.api.interceptors.QueryStatisticsInterceptor;
 import com.switchfully.order.domain.customers.Customer;
 import com.switchfully.order.domain.customers.CustomerRepository;
 import com.switchfully.order.domain.customers.CustomerTestBuilder;
@@ -14,9 +15,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 
 import javax.inject.Inject;
+import java.util.UUID;
 
 import static java.lang.String.format;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -48,10 +51,11 @@ class CustomerControllerIntegrationTest extends ControllerIntegrationTest {
                         .withPostalCode("1238")
                         .withCountry("GothamCountry"));
 
-        CustomerDto createdCustomer = new TestRestTemplate()
-                .postForObject(format("http://localhost:%s/%s", getPort(), CustomerController.RESOURCE_NAME), customerToCreate, CustomerDto.class);
+        ResponseEntity<CustomerDto> response = new TestRestTemplate()
+                .postForEntity(format("http://localhost:%s/%s", getPort(), CustomerController.RESOURCE_NAME), customerToCreate, CustomerDto.class);
 
-        assertCustomerIsEqualIgnoringId(customerToCreate, createdCustomer);
+        assertThat(response.getHeaders().getFirst(QueryStatisticsInterceptor.QUERY_COUNT_HEADER)).isEqualTo("1");
+        assertCustomerIsEqualIgnoringId(customerToCreate, response.getBody());
     }
 
     @Test
@@ -121,6 +125,27 @@ class CustomerControllerIntegrationTest extends ControllerIntegrationTest {
                     .isEqualTo(customerMapper.toDto(customerToFind));
     }
 
+    @Test
+    void getCustomer_thenSelectOnlyTheCustomer() {
+        Customer customerToFind = customerRepository.save(CustomerTestBuilder.aCustomer().build());
+
+        ResponseEntity<CustomerDto> response = new TestRestTemplate()
+                .getForEntity(format("http://localhost:%s/%s/%s", getPort(), CustomerController.RESOURCE_NAME, customerToFind.getId().toString()), CustomerDto.class);
+
+        assertThat(response.getHeaders().getFirst(QueryStatisticsInterceptor.QUERY_COUNT_HEADER)).isEqualTo("1");
+    }
+
+    @Test
+    void getCustomer_givenAnUnknownId_thenReportTheCustomerWasNotFound() {
+        UUID unknownId = UUID.randomUUID();
+
+        ControllerExceptionHandler.Error error = new TestRestTemplate()
+                .getForObject(format("http://localhost:%s/%s/%s", getPort(), CustomerController.RESOURCE_NAME, unknownId.toString()), ControllerExceptionHandler.Error.class);
+
+        assertThat(error.getHttpStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(error.getMessage()).contains("Customer with id = " + unknownId);
+    }
+
     private void assertCustomerIsEqualIgnoringId(CustomerDto customerToCreate, CustomerDto createdCustomer) {
         assertThat(createdCustomer.getId()).isNotNull().isNotEmpty();
         assertThat(createdCustomer.getAddress()).isEqualToComparingFieldByField(customerToCreate.getAddress());
@@ -1,6 +1,7 @@
 package com.switchfully.order.api.items;
 
 import com.switchfully.order.ControllerIntegrationTest;
+import com.switchfully.order.api.interceptors.QueryStatisticsInterceptor;
 import com.switchfully.order.domain.items.Item;
 import com.switchfully.order.domain.items.ItemRepository;
 import com.switchfully.order.domain.items.prices.Price;
@@ -35,9 +36,11 @@ class ItemControllerIntegrationTest extends ControllerIntegrationTest {
                 .withPrice(45.50f)
                 .withAmountOfStock(50510);
 
-        ItemDto itemDto = new TestRestTemplate()
-                .postForObject(format("http://localhost:%s/%s", getPort(), ItemController.RESOURCE_NAME), itemToCreate, ItemDto.class);
+        ResponseEntity<ItemDto> response = new TestRestTemplate()
+                .postForEntity(format("http://localhost:%s/%s", getPort(), ItemController.RESOURCE_NAME), itemToCreate, ItemDto.class);
 
+        ItemDto itemDto = response.getBody();
+        assertThat(response.getHeaders().getFirst(QueryStatisticsInterceptor.QUERY_COUNT_HEADER)).isEqualTo("1");
         assertThat(itemDto.getId()).isNotNull().isNotEmpty();
         assertThat(itemDto).isEqualToIgnoringGivenFields(itemToCreate, "id", "stockUrgency");
     }
@@ -61,6 +64,18 @@ class ItemControllerIntegrationTest extends ControllerIntegrationTest {
         assertThat(items[4]).isEqualToComparingFieldByFieldRecursively(itemMapper.toDto(item3));
     }
 
+    @Test
+    void getAllItems_thenReportTheAmountOfQueriesInTheResponseHeaders() {
+        itemRepository.save(anItem().build());
+        itemRepository.save(anItem().build());
+
+        ResponseEntity<ItemDto[]> response = new TestRestTemplate()
+                .getForEntity(format("http://localhost:%s/%s", getPort(), ItemController.RESOURCE_NAME), ItemDto[].class);
+
+        assertThat(response.getHeaders().getFirst(QueryStatisticsInterceptor.QUERY_COUNT_HEADER)).isEqualTo("1");
+        assertThat(response.getHeaders().getFirst(QueryStatisticsInterceptor.QUERY_TIME_HEADER)).isNotNull();
+    }
+
     @Test
     void getAllItems_givenAStockUrgencyFilter_thenOnlyReturnItemsWithThatUrgency() {
         Item item1 = itemRepository.save(anItem().withAmountOfStock(12).build());
@@ -102,6 +117,7 @@ class ItemControllerIntegrationTest extends ControllerIntegrationTest {
                         ItemDto.class);
 
         assertThat(result.getBody()).isEqualToIgnoringGivenFields(itemToUpdate, "stockUrgency");
+        assertThat(result.getHeaders().getFirst(QueryStatisticsInterceptor.QUERY_COUNT_HEADER)).isEqualTo("2");
     }
 
 }
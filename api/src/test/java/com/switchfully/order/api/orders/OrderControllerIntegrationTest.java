@@ -1,10 +1,14 @@
 package com.switchfully.order.api.orders;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.switchfully.order.ControllerIntegrationTest;
+import com.switchfully.order.api.interceptors.QueryStatisticsInterceptor;
 import com.switchfully.order.api.orders.dtos.ItemGroupDto;
 import com.switchfully.order.api.orders.dtos.OrderAfterCreationDto;
 import com.switchfully.order.api.orders.dtos.OrderCreationDto;
+import com.switchfully.order.api.orders.dtos.OrderCreationResultDto;
 import com.switchfully.order.api.orders.dtos.OrderDto;
+import com.switchfully.order.api.orders.dtos.OrderPageDto;
 import com.switchfully.order.api.orders.dtos.reports.OrdersReportDto;
 import com.switchfully.order.domain.customers.Customer;
 import com.switchfully.order.domain.customers.CustomerRepository;
@@ -16,10 +20,22 @@ import com.switchfully.order.domain.orders.OrderRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 
 import javax.inject.Inject;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.switchfully.order.domain.customers.CustomerTestBuilder.aCustomer;
 import static com.switchfully.order.domain.items.ItemTestBuilder.anItem;
@@ -63,35 +79,132 @@ class OrderControllerIntegrationTest extends ControllerIntegrationTest {
                                 .withOrderedAmount(5)
                 );
 
-        OrderAfterCreationDto orderAfterCreationDto = new TestRestTemplate()
-                .postForObject(format("http://localhost:%s/%s", getPort(), OrderController.RESOURCE_NAME), orderDto,
+        ResponseEntity<OrderAfterCreationDto> response = new TestRestTemplate()
+                .postForEntity(format("http://localhost:%s/%s", getPort(), OrderController.RESOURCE_NAME), orderDto,
                         OrderAfterCreationDto.class);
 
+        OrderAfterCreationDto orderAfterCreationDto = response.getBody();
+        assertThat(queryCountOf(response)).isLessThanOrEqualTo(15);
         assertThat(orderAfterCreationDto).isNotNull();
         assertThat(orderAfterCreationDto.getOrderId()).isNotNull().isNotEmpty();
         assertThat(orderAfterCreationDto.getTotalPrice()).isEqualTo(92.5f);
     }
 
+    @Test
+    void createOrders_createsTheValidOrdersAndReportsTheInvalidOnesPerOrder() {
+        Customer customer = customerRepository.save(aCustomer().build());
+        Item item = itemRepository.save(anItem()
+                .withAmountOfStock(10)
+                .withPrice(Price.create(BigDecimal.valueOf(10)))
+                .build());
+        OrderCreationDto validOrderDto = new OrderCreationDto()
+                .withCustomerId(customer.getId().toString())
+                .withItemGroups(new ItemGroupDto().withItemId(item.getId().toString()).withOrderedAmount(2));
+        OrderCreationDto orderOfUnknownItemDto = new OrderCreationDto()
+                .withCustomerId(customer.getId().toString())
+                .withItemGroups(new ItemGroupDto().withItemId(UUID.randomUUID().toString()).withOrderedAmount(1));
+        OrderCreationDto orderOfUnknownCustomerDto = new OrderCreationDto()
+                .withCustomerId(UUID.randomUUID().toString())
+                .withItemGroups(new ItemGroupDto().withItemId(item.getId().toString()).withOrderedAmount(1));
+
+        ResponseEntity<OrderCreationResultDto[]> response = new TestRestTemplate()
+                .postForEntity(format("http://localhost:%s/%s/batch", getPort(), OrderController.RESOURCE_NAME),
+                        List.of(validOrderDto, orderOfUnknownItemDto, orderOfUnknownCustomerDto),
+                        OrderCreationResultDto[].class);
+
+        OrderCreationResultDto[] results = response.getBody();
+        assertThat(queryCountOf(response)).isLessThanOrEqualTo(12);
+        assertThat(results).hasSize(3);
+        assertThat(results[0].isCreated()).isTrue();
+        assertThat(results[0].getTotalPrice()).isEqualTo(20f);
+        assertThat(orderRepository.findById(UUID.fromString(results[0].getOrderId()))).isPresent();
+        assertThat(results[1].isCreated()).isFalse();
+        assertThat(results[1].getFailureReason()).isNotEmpty();
+        assertThat(results[2].isCreated()).isFalse();
+        assertThat(results[2].getFailureReason()).contains(orderOfUnknownCustomerDto.getCustomerId());
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getAmountOfStock()).isEqualTo(8);
+    }
+
     @Test
     void getAllOrders_includeOnlyShippableToday() {
         Customer existingCustomer1 = customerRepository.save(aCustomer().build());
         Item existingItem1 = itemRepository.save(anItem().build());
         Item existingItem2 = itemRepository.save(anItem().build());
-        orderRepository.save(anOrder()
-                .withOrderItems(anOrderItem().withItemId(existingItem1.getId()).build(),
+        Clock yesterday = Clock.offset(Clock.systemDefaultZone(), Duration.ofDays(-1));
+        Order orderShippingToday = orderRepository.save(anOrder()
+                .withOrderItems(anOrderItem().withItemId(existingItem1.getId())
+                                .withOrderedAmount(1).withShippingDateBasedOnAvailableItemStock(10).build(yesterday),
                         anOrderItem().withItemId(existingItem2.getId()).build())
                 .withCustomer(existingCustomer1).build());
         orderRepository.save(anOrder()
                 .withOrderItems(anOrderItem().withItemId(existingItem2.getId()).build())
                 .withCustomer(existingCustomer1).build());
 
-        OrderDto[] orders = new TestRestTemplate()
-                .getForObject(format("http://localhost:%s/%s?shippableToday=true", getPort(),
+        ResponseEntity<OrderDto[]> response = new TestRestTemplate()
+                .getForEntity(format("http://localhost:%s/%s?shippableToday=true", getPort(),
                         OrderController.RESOURCE_NAME), OrderDto[].class);
 
-        assertThat(orders).hasSize(2);
-        assertThat(orders[0].getItemGroups()).isEmpty();
-        assertThat(orders[1].getItemGroups()).isEmpty();
+        OrderDto[] orders = response.getBody();
+        assertThat(queryCountOf(response)).isLessThanOrEqualTo(2);
+        assertThat(orders).hasSize(1);
+        assertThat(orders[0].getOrderId()).isEqualTo(orderShippingToday.getId().toString());
+        assertThat(orders[0].getItemGroups()).hasSize(1);
+        assertThat(orders[0].getItemGroups().get(0).getItemId()).isEqualTo(existingItem1.getId().toString());
+        assertThat(orders[0].getAddress().getStreetName()).isEqualTo(existingCustomer1.getAddress().getStreetName());
+    }
+
+    @Test
+    void getOrdersPage_pagesThroughAllOrdersUsingTheNextCursor() {
+        Customer customer = customerRepository.save(aCustomer().build());
+        Item item = itemRepository.save(anItem().build());
+        List<String> savedOrderIds = IntStream.range(0, 3)
+                .mapToObj(index -> orderRepository.save(anOrder()
+                        .withOrderItems(anOrderItem().withItemId(item.getId()).build())
+                        .withCustomer(customer).build()))
+                .map(order -> order.getId().toString())
+                .collect(Collectors.toList());
+
+        List<String> pagedOrderIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            ResponseEntity<OrderPageDto> response = new TestRestTemplate()
+                    .getForEntity(format("http://localhost:%s/%s?limit=2%s", getPort(), OrderController.RESOURCE_NAME,
+                            cursor == null ? "" : "&after=" + cursor), OrderPageDto.class);
+            OrderPageDto page = response.getBody();
+            assertThat(queryCountOf(response)).isLessThanOrEqualTo(2);
+            assertThat(page.getOrders()).hasSizeLessThanOrEqualTo(2);
+            page.getOrders().forEach(orderDto -> pagedOrderIds.add(orderDto.getOrderId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(pagedOrderIds).doesNotHaveDuplicates().containsAll(savedOrderIds);
+    }
+
+    @Test
+    void streamAllOrders_writesEveryOrderAsOneJsonLine() throws IOException {
+        Customer customer = customerRepository.save(aCustomer().build());
+        Item item = itemRepository.save(anItem().build());
+        Order order1 = orderRepository.save(anOrder()
+                .withOrderItems(anOrderItem().withItemId(item.getId()).build())
+                .withCustomer(customer).build());
+        Order order2 = orderRepository.save(anOrder()
+                .withOrderItems(anOrderItem().withItemId(item.getId()).build())
+                .withCustomer(customer).build());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.valueOf(OrderController.APPLICATION_NDJSON_VALUE)));
+
+        ResponseEntity<String> response = new TestRestTemplate()
+                .exchange(format("http://localhost:%s/%s/stream", getPort(), OrderController.RESOURCE_NAME),
+                        HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<String> streamedOrderIds = new ArrayList<>();
+        for (String line : response.getBody().split("\n")) {
+            streamedOrderIds.add(objectMapper.readValue(line, OrderDto.class).getOrderId());
+        }
+        assertThat(streamedOrderIds)
+                .doesNotHaveDuplicates()
+                .contains(order1.getId().toString(), order2.getId().toString());
     }
 
     @Test
@@ -111,10 +224,12 @@ class OrderControllerIntegrationTest extends ControllerIntegrationTest {
                         .build())
                 .build());
 
-        OrderAfterCreationDto orderAfterCreationDto = new TestRestTemplate()
-                .postForObject(format("http://localhost:%s/%s/%s/%s", getPort(), OrderController.RESOURCE_NAME,
+        ResponseEntity<OrderAfterCreationDto> response = new TestRestTemplate()
+                .postForEntity(format("http://localhost:%s/%s/%s/%s", getPort(), OrderController.RESOURCE_NAME,
                         order.getId(), "reorder"), null, OrderAfterCreationDto.class);
 
+        OrderAfterCreationDto orderAfterCreationDto = response.getBody();
+        assertThat(queryCountOf(response)).isLessThanOrEqualTo(14);
         assertThat(orderAfterCreationDto).isNotNull();
         assertThat(orderAfterCreationDto.getOrderId()).isNotNull().isNotEmpty().isNotEqualTo(order.getId());
         assertThat(orderAfterCreationDto.getTotalPrice()).isEqualTo(60.0f);
@@ -135,10 +250,12 @@ class OrderControllerIntegrationTest extends ControllerIntegrationTest {
                 .withOrderItems(anOrderItem().withItemId(existingItem2.getId()).build())
                 .withCustomer(existingCustomer1).build());
 
-        OrdersReportDto ordersReportDto = new TestRestTemplate()
-                .getForObject(format("http://localhost:%s/%s/%s/%s", getPort(), OrderController.RESOURCE_NAME,
+        ResponseEntity<OrdersReportDto> response = new TestRestTemplate()
+                .getForEntity(format("http://localhost:%s/%s/%s/%s", getPort(), OrderController.RESOURCE_NAME,
                         "customers", existingCustomer1.getId()), OrdersReportDto.class);
 
+        OrdersReportDto ordersReportDto = response.getBody();
+        assertThat(queryCountOf(response)).isLessThanOrEqualTo(4);
         assertThat(ordersReportDto).isNotNull();
         assertThat(ordersReportDto.getTotalPriceOfAllOrders())
                 .isEqualTo(Price.add(order1.getTotalPrice(), order2.getTotalPrice()).getAmountAsFloat());
@@ -149,4 +266,7 @@ class OrderControllerIntegrationTest extends ControllerIntegrationTest {
                 });
     }
 
+    private static int queryCountOf(ResponseEntity<?> response) {
+        return Integer.parseInt(response.getHeaders().getFirst(QueryStatisticsInterceptor.QUERY_COUNT_HEADER));
+    }
 }
@@ -5,6 +5,7 @@ import com.switchfully.order.api.orders.dtos.reports.ItemGroupReportDto;
 import com.switchfully.order.domain.items.prices.Price;
 import com.switchfully.order.domain.orders.orderitems.OrderItem;
 import com.switchfully.order.infrastructure.exceptions.EntityNotFoundException;
+import com.switchfully.order.service.items.ItemLookup;
 import com.switchfully.order.service.items.ItemService;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,10 +14,14 @@ import org.mockito.Mockito;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
 import java.util.UUID;
 
 import static com.switchfully.order.domain.items.ItemTestBuilder.anItem;
 import static com.switchfully.order.domain.orders.orderitems.OrderItemTestBuilder.anOrderItem;
+import static com.switchfully.order.domain.orders.reports.OrderReportLine.OrderReportLineBuilder.orderReportLine;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
@@ -51,8 +56,8 @@ class OrderItemMapperTest {
     void toDomain() {
         UUID itemId = UUID.randomUUID();
         Price itemPrice = Price.create(BigDecimal.valueOf(45.95));
-        when(itemServiceMock.getItem(itemId))
-                .thenReturn(anItem().withPrice(itemPrice).build());
+        when(itemServiceMock.getItems(Set.of(itemId)))
+                .thenReturn(ItemLookup.of(Collections.singletonList(anItem().withId(itemId).withPrice(itemPrice).build())));
 
         OrderItem orderItem = orderItemMapper.toDomain(
                 new ItemGroupDto()
@@ -66,11 +71,45 @@ class OrderItemMapperTest {
         assertThat(orderItem.getShippingDate()).isNotNull().isOfAnyClassIn(LocalDate.class);
     }
 
+    @Test
+    void toDomain_givenAnItemLookup_thenUseTheLookupInsteadOfTheService() {
+        UUID itemId = UUID.randomUUID();
+        Price itemPrice = Price.create(BigDecimal.valueOf(45.95));
+        ItemLookup orderedItems = ItemLookup.of(Collections.singletonList(anItem()
+                .withId(itemId)
+                .withPrice(itemPrice)
+                .withAmountOfStock(1)
+                .build()));
+
+        OrderItem orderItem = orderItemMapper.toDomain(
+                new ItemGroupDto()
+                        .withItemId(itemId.toString())
+                        .withOrderedAmount(2),
+                orderedItems);
+
+        assertThat(orderItem.getItemPrice()).isEqualTo(itemPrice);
+        assertThat(orderItem.getShippingDate()).isEqualTo(LocalDate.now().plusDays(7));
+        Mockito.verifyNoInteractions(itemServiceMock);
+    }
+
+    @Test
+    void lookupItems_givenItemGroupsReferencingTheSameItem_thenResolveEachItemOnlyOnce() {
+        UUID itemId = UUID.randomUUID();
+        UUID otherItemId = UUID.randomUUID();
+
+        orderItemMapper.lookupItems(Arrays.asList(
+                new ItemGroupDto().withItemId(itemId.toString()).withOrderedAmount(1),
+                new ItemGroupDto().withItemId(otherItemId.toString()).withOrderedAmount(1),
+                new ItemGroupDto().withItemId(itemId.toString()).withOrderedAmount(3)));
+
+        Mockito.verify(itemServiceMock).getItems(Set.of(itemId, otherItemId));
+    }
+
     @Test
     void toDomain_givenItemIdThatDoesNotExist_thenThrowException() {
         UUID itemId = UUID.randomUUID();
-        when(itemServiceMock.getItem(itemId))
-                .thenReturn(null);
+        when(itemServiceMock.getItems(Set.of(itemId)))
+                .thenReturn(ItemLookup.of(Collections.emptyList()));
 
         Assertions.assertThatExceptionOfType(EntityNotFoundException.class)
                 .isThrownBy(() -> orderItemMapper.toDomain(
@@ -84,15 +123,13 @@ class OrderItemMapperTest {
     @Test
     void toItemGroupReportDto() {
         UUID itemId = UUID.randomUUID();
-        when(itemServiceMock.getItem(itemId)).thenReturn(anItem()
-                .withName("iPot")
-                .build());
 
-        ItemGroupReportDto itemGroupReportDto = orderItemMapper.toItemGroupReportDto(anOrderItem()
-                .withOrderedAmount(10)
-                .withShippingDateBasedOnAvailableItemStock(20)
+        ItemGroupReportDto itemGroupReportDto = orderItemMapper.toItemGroupReportDto(orderReportLine()
+                .withOrderId(UUID.randomUUID())
                 .withItemId(itemId)
-                .withItemPrice(Price.create(BigDecimal.valueOf(45.50)))
+                .withItemName("iPot")
+                .withOrderedAmount(10)
+                .withTotalPrice(BigDecimal.valueOf(45.50).multiply(BigDecimal.valueOf(10)))
                 .build());
 
         assertThat(itemGroupReportDto).isNotNull();
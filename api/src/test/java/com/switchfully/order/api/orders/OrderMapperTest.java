@@ -13,18 +13,27 @@ import com.switchfully.order.domain.customers.addresses.Address;
 import com.switchfully.order.domain.items.prices.Price;
 import com.switchfully.order.domain.orders.Order;
 import com.switchfully.order.domain.orders.orderitems.OrderItem;
+import com.switchfully.order.domain.orders.orderitems.ShippableOrderItem;
+import com.switchfully.order.domain.orders.reports.OrderReportLine;
 import com.switchfully.order.service.customers.CustomerService;
+import com.switchfully.order.service.items.ItemLookup;
+import com.switchfully.order.service.orders.OrderAssemblyExecutor;
+import com.switchfully.order.service.orders.reports.OrdersReport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 import static com.switchfully.order.domain.customers.CustomerTestBuilder.aCustomer;
 import static com.switchfully.order.domain.customers.addresses.AddressTestBuilder.anAddress;
 import static com.switchfully.order.domain.orders.OrderTestBuilder.anOrder;
 import static com.switchfully.order.domain.orders.orderitems.OrderItemTestBuilder.anOrderItem;
+import static com.switchfully.order.domain.orders.reports.OrderReportLine.OrderReportLineBuilder.orderReportLine;
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -43,15 +52,20 @@ class OrderMapperTest {
         orderItemMapperMock = Mockito.mock(OrderItemMapper.class);
         addressMapper = Mockito.mock(AddressMapper.class);
         customerService = Mockito.mock(CustomerService.class);
-        orderMapper = new OrderMapper(orderItemMapperMock, addressMapper, customerService);
+        orderMapper = new OrderMapper(orderItemMapperMock, addressMapper, customerService,
+                new OrderAssemblyExecutor(256, 64, 1));
     }
 
     @Test
     void toDomain() {
         OrderItem orderItem = anOrderItem().build();
-        when(orderItemMapperMock.toDomain(any(ItemGroupDto.class))).thenReturn(orderItem);
+        ItemLookup orderedItems = ItemLookup.of(Collections.emptyList());
+        when(orderItemMapperMock.lookupItems(any())).thenReturn(orderedItems);
+        when(orderItemMapperMock.toDomain(any(ItemGroupDto.class), eq(orderedItems))).thenReturn(orderItem);
 
         String customerId = UUID.randomUUID().toString();
+        when(customerService.getCustomerReference(UUID.fromString(customerId)))
+                .thenReturn(aCustomer().withId(UUID.fromString(customerId)).build());
         Order order = orderMapper.toDomain(new OrderCreationDto()
                 .withCustomerId(customerId)
                 .withItemGroups(new ItemGroupDto()
@@ -68,14 +82,10 @@ class OrderMapperTest {
 
     @Test
     void toDto() {
-        Customer customer = aCustomer().withId(UUID.randomUUID()).build();
+        Address address = anAddress().build();
+        Customer customer = aCustomer().withId(UUID.randomUUID()).withAddress(address).build();
         UUID orderId = UUID.randomUUID();
         Order order = anOrder().withCustomer(customer).withId(orderId).build();
-        Address address = anAddress().build();
-        when(customerService.getCustomer(customer.getId()))
-                .thenReturn(aCustomer()
-                        .withAddress(address)
-                        .build());
         AddressDto addressDto = new AddressDto().withStreetName("Hellostreet");
         when(addressMapper.toDto(address)).thenReturn(addressDto);
 
@@ -85,9 +95,32 @@ class OrderMapperTest {
         assertThat(orderDto.getOrderId()).isEqualTo(orderId.toString());
         assertThat(orderDto.getAddress()).isEqualToComparingFieldByField(addressDto);
         assertThat(orderDto.getItemGroups()).isNotEmpty();
+        Mockito.verifyNoInteractions(customerService);
 
     }
 
+    @Test
+    void toDtosOfShippableOrderItems_givenMultipleItemsOfTheSameOrder_thenGroupThemInOneOrderDto() {
+        UUID orderId1 = UUID.randomUUID();
+        UUID orderId2 = UUID.randomUUID();
+        Address address = anAddress().build();
+        AddressDto addressDto = new AddressDto().withStreetName("Hellostreet");
+        when(addressMapper.toDto(any(Address.class))).thenReturn(addressDto);
+        when(orderItemMapperMock.toItemGroupDto(any(ShippableOrderItem.class))).thenReturn(new ItemGroupDto());
+
+        List<OrderDto> orderDtos = orderMapper.toDtosOfShippableOrderItems(asList(
+                aShippableOrderItem(orderId1, address),
+                aShippableOrderItem(orderId1, address),
+                aShippableOrderItem(orderId2, address)));
+
+        assertThat(orderDtos).hasSize(2);
+        assertThat(orderDtos.get(0).getOrderId()).isEqualTo(orderId1.toString());
+        assertThat(orderDtos.get(0).getItemGroups()).hasSize(2);
+        assertThat(orderDtos.get(0).getAddress()).isEqualTo(addressDto);
+        assertThat(orderDtos.get(1).getOrderId()).isEqualTo(orderId2.toString());
+        assertThat(orderDtos.get(1).getItemGroups()).hasSize(1);
+    }
+
     @Test
     void toOrderAfterCreationDto() {
         Order order = anOrder().withId(UUID.randomUUID()).build();
@@ -103,11 +136,13 @@ class OrderMapperTest {
     void toOrdersReportDto() {
         OrderItem orderItem1 = anOrderItem().build();
         Order order1 = anOrder().withId(UUID.randomUUID()).withOrderItems(orderItem1).build();
+        OrderReportLine reportLine1 = orderReportLine(order1, orderItem1).build();
         ItemGroupReportDto itemGroupReportDto = new ItemGroupReportDto();
-        when(orderItemMapperMock.toItemGroupReportDto(orderItem1))
+        when(orderItemMapperMock.toItemGroupReportDto(reportLine1))
                 .thenReturn(itemGroupReportDto);
 
-        OrdersReportDto ordersReportDto = orderMapper.toOrdersReportDto(asList(order1));
+        OrdersReportDto ordersReportDto = orderMapper.toOrdersReportDto(
+                new OrdersReport(order1.getTotalPrice().getAmount(), asList(reportLine1)));
 
         assertThat(ordersReportDto).isNotNull();
         assertThat(ordersReportDto.getTotalPriceOfAllOrders())
@@ -126,9 +161,13 @@ class OrderMapperTest {
         Order order1 = anOrder().withId(UUID.randomUUID()).withOrderItems(orderItem1, orderItem2).build();
         Order order2 = anOrder().withId(UUID.randomUUID()).withOrderItems(orderItem3).build();
         ItemGroupReportDto itemGroupReportDto = new ItemGroupReportDto();
-        when(orderItemMapperMock.toItemGroupReportDto(any(OrderItem.class))).thenReturn(eq(itemGroupReportDto));
+        when(orderItemMapperMock.toItemGroupReportDto(any(OrderReportLine.class))).thenReturn(itemGroupReportDto);
 
-        OrdersReportDto ordersReportDto = orderMapper.toOrdersReportDto(asList(order1, order2));
+        OrdersReportDto ordersReportDto = orderMapper.toOrdersReportDto(new OrdersReport(
+                Order.sumTotalPrices(asList(order1, order2)).getAmount(),
+                asList(orderReportLine(order1, orderItem1).build(),
+                        orderReportLine(order1, orderItem2).build(),
+                        orderReportLine(order2, orderItem3).build())));
 
         assertThat(ordersReportDto).isNotNull();
         assertThat(ordersReportDto.getTotalPriceOfAllOrders())
@@ -136,6 +175,46 @@ class OrderMapperTest {
                         Price.add(orderItem1.getTotalPrice(), orderItem2.getTotalPrice()))
                         .getAmountAsFloat());
         assertThat(ordersReportDto.getOrders()).hasSize(2);
+        assertThat(ordersReportDto.getOrders().get(0).getItemGroups()).hasSize(2);
+        assertThat(ordersReportDto.getOrders().get(1).getTotalPrice())
+                .isEqualTo(orderItem3.getTotalPrice().getAmountAsFloat());
+    }
+
+    @Test
+    void toOrdersReportDto_givenTheReportReadModel_thenGroupTheLinesPerOrder() {
+        UUID orderId1 = UUID.randomUUID();
+        UUID orderId2 = UUID.randomUUID();
+        OrderReportLine line1 = aReportLine(orderId1, 30);
+        OrderReportLine line2 = aReportLine(orderId2, 12.5);
+        OrderReportLine line3 = aReportLine(orderId1, 30);
+        ItemGroupReportDto itemGroupReportDto = new ItemGroupReportDto();
+        when(orderItemMapperMock.toItemGroupReportDto(any(OrderReportLine.class))).thenReturn(itemGroupReportDto);
+
+        OrdersReportDto ordersReportDto = orderMapper.toOrdersReportDto(
+                new OrdersReport(BigDecimal.valueOf(42.5), asList(line1, line2, line3)));
+
+        assertThat(ordersReportDto.getTotalPriceOfAllOrders()).isEqualTo(42.5f);
+        assertThat(ordersReportDto.getOrders()).hasSize(2);
+        assertThat(ordersReportDto.getOrders().get(0).getOrderId()).isEqualTo(orderId1.toString());
+        assertThat(ordersReportDto.getOrders().get(0).getTotalPrice()).isEqualTo(30f);
+        assertThat(ordersReportDto.getOrders().get(0).getItemGroups()).hasSize(2);
+        assertThat(ordersReportDto.getOrders().get(1).getOrderId()).isEqualTo(orderId2.toString());
+        assertThat(ordersReportDto.getOrders().get(1).getTotalPrice()).isEqualTo(12.5f);
+    }
+
+    private OrderReportLine aReportLine(UUID orderId, double orderTotalPrice) {
+        return orderReportLine()
+                .withOrderId(orderId)
+                .withOrderTotalPrice(BigDecimal.valueOf(orderTotalPrice))
+                .withItemId(UUID.randomUUID())
+                .withOrderedAmount(1)
+                .withTotalPrice(BigDecimal.TEN)
+                .build();
+    }
+
+    private ShippableOrderItem aShippableOrderItem(UUID orderId, Address address) {
+        return new ShippableOrderItem(orderId, UUID.randomUUID(), 1, LocalDate.now(),
+                address.getStreetName(), address.getHouseNumber(), address.getPostalCode(), address.getCountry());
     }
 
 }
@@ -0,0 +1,56 @@
+package com.switchfully.order.benchmarks;
+
+import com.switchfully.order.api.customers.CustomerDto;
+import com.switchfully.order.api.customers.CustomerMapper;
+import com.switchfully.order.domain.customers.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a customer (with its address, email and phone number) to its DTO, back to the domain, and both ways.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomerMapperBenchmark {
+
+    private CustomerMapper customerMapper;
+    private Customer customer;
+    private CustomerDto customerDto;
+
+    @Setup
+    public void setUp() {
+        InMemoryOrderApplication application = new InMemoryOrderApplication();
+        customerMapper = application.getCustomerMapper();
+        customer = application.addCustomer();
+        customerDto = customerMapper.toDto(customer);
+    }
+
+    @Benchmark
+    public CustomerDto toDto() {
+        return customerMapper.toDto(customer);
+    }
+
+    @Benchmark
+    public Customer toDomain() {
+        return customerMapper.toDomain(customerDto);
+    }
+
+    @Benchmark
+    public CustomerDto roundTrip() {
+        return customerMapper.toDto(customerMapper.toDomain(customerDto));
+    }
+}
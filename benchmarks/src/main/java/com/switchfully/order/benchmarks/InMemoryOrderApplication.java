@@ -0,0 +1,88 @@
+package com.switchfully.order.benchmarks;
+
+import com.switchfully.order.api.customers.CustomerMapper;
+import com.switchfully.order.api.customers.addresses.AddressMapper;
+import com.switchfully.order.api.customers.emails.EmailMapper;
+import com.switchfully.order.api.customers.phonenumbers.PhoneNumberMapper;
+import com.switchfully.order.api.items.ItemController;
+import com.switchfully.order.api.items.ItemMapper;
+import com.switchfully.order.api.orders.OrderItemMapper;
+import com.switchfully.order.api.orders.OrderMapper;
+import com.switchfully.order.domain.customers.Customer;
+import com.switchfully.order.domain.customers.CustomerRepository;
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.domain.items.ItemRepository;
+import com.switchfully.order.service.customers.CustomerService;
+import com.switchfully.order.service.customers.CustomerValidator;
+import com.switchfully.order.service.items.ItemCache;
+import com.switchfully.order.service.items.ItemService;
+import com.switchfully.order.service.items.ItemValidator;
+import com.switchfully.order.service.orders.OrderAssemblyExecutor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.switchfully.order.benchmarks.InMemoryRepository.inMemory;
+import static com.switchfully.order.domain.customers.CustomerTestBuilder.aCustomer;
+import static com.switchfully.order.domain.items.ItemTestBuilder.anItem;
+
+/**
+ * Wires the services, mappers and controllers the way Spring does, but on top of {@link InMemoryRepository}
+ * stand-ins, so the benchmarks don't need a database (nor an application context).
+ */
+public final class InMemoryOrderApplication {
+
+    private final CustomerRepository customerRepository = inMemory(CustomerRepository.class);
+    private final ItemRepository itemRepository = inMemory(ItemRepository.class);
+
+    private final CustomerService customerService;
+    private final ItemService itemService;
+    private final CustomerMapper customerMapper;
+    private final OrderMapper orderMapper;
+    private final ItemController itemController;
+
+    public InMemoryOrderApplication() {
+        AddressMapper addressMapper = new AddressMapper();
+        customerService = new CustomerService(customerRepository, new CustomerValidator());
+        // the benchmarked code never changes the stock of an item, so no stock engine is needed
+        itemService = new ItemService(itemRepository, new ItemValidator(), null,
+                new ItemCache(true, 10000, 60000, true, ""));
+        customerMapper = new CustomerMapper(addressMapper, new EmailMapper(), new PhoneNumberMapper());
+        orderMapper = new OrderMapper(new OrderItemMapper(itemService), addressMapper, customerService,
+                new OrderAssemblyExecutor(256, 64, 4));
+        itemController = new ItemController(itemService, new ItemMapper());
+    }
+
+    public Customer addCustomer() {
+        return customerService.createCustomer(aCustomer().build());
+    }
+
+    /**
+     * Adds items with a varying amount of stock (and thus a varying stock urgency).
+     */
+    public List<Item> addItems(int amountOfItems) {
+        return IntStream.range(0, amountOfItems)
+                .mapToObj(index -> itemService.createItem(anItem()
+                        .withName("Item " + index)
+                        .withAmountOfStock((index * 7) % 20)
+                        .build()))
+                .collect(Collectors.toList());
+    }
+
+    public ItemService getItemService() {
+        return itemService;
+    }
+
+    public CustomerMapper getCustomerMapper() {
+        return customerMapper;
+    }
+
+    public OrderMapper getOrderMapper() {
+        return orderMapper;
+    }
+
+    public ItemController getItemController() {
+        return itemController;
+    }
+}
@@ -0,0 +1,118 @@
+package com.switchfully.order.benchmarks;
+
+import com.switchfully.order.domain.Entity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import javax.persistence.EntityNotFoundException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A stand-in for a Spring Data repository that keeps the entities in a map, so the benchmarks measure our own code
+ * instead of a database. Only the basic CRUD methods of {@link JpaRepository} are supported (which is all the
+ * benchmarked code uses), any other method throws an {@link UnsupportedOperationException}.
+ */
+public final class InMemoryRepository implements InvocationHandler {
+
+    private static final Field ID_FIELD = idField();
+
+    private final Map<UUID, Entity> entitiesById = new LinkedHashMap<>();
+
+    private InMemoryRepository() {
+    }
+
+    public static <R extends JpaRepository<?, UUID>> R inMemory(Class<R> repositoryType) {
+        return repositoryType.cast(Proxy.newProxyInstance(repositoryType.getClassLoader(),
+                new Class<?>[]{repositoryType}, new InMemoryRepository()));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] arguments) {
+        int amountOfArguments = arguments == null ? 0 : arguments.length;
+        switch (method.getName() + "/" + amountOfArguments) {
+            case "save/1":
+            case "saveAndFlush/1":
+                return save((Entity) arguments[0]);
+            case "saveAll/1":
+                List<Entity> savedEntities = new ArrayList<>();
+                ((Iterable<?>) arguments[0]).forEach(entity -> savedEntities.add(save((Entity) entity)));
+                return savedEntities;
+            case "findById/1":
+                return Optional.ofNullable(entitiesById.get(arguments[0]));
+            case "getOne/1":
+                return getOne((UUID) arguments[0]);
+            case "existsById/1":
+                return entitiesById.containsKey(arguments[0]);
+            case "findAll/0":
+                return new ArrayList<>(entitiesById.values());
+            case "findAllById/1":
+                List<Entity> foundEntities = new ArrayList<>();
+                ((Iterable<?>) arguments[0]).forEach(id -> {
+                    if (entitiesById.containsKey(id)) {
+                        foundEntities.add(entitiesById.get(id));
+                    }
+                });
+                return foundEntities;
+            case "count/0":
+                return (long) entitiesById.size();
+            case "deleteById/1":
+                entitiesById.remove(arguments[0]);
+                return null;
+            case "deleteAll/0":
+                entitiesById.clear();
+                return null;
+            case "flush/0":
+                return null;
+            case "toString/0":
+                return "InMemoryRepository" + entitiesById.keySet();
+            case "hashCode/0":
+                return System.identityHashCode(proxy);
+            case "equals/1":
+                return proxy == arguments[0];
+            default:
+                throw new UnsupportedOperationException("The in-memory repository doesn't support " + method);
+        }
+    }
+
+    private Entity save(Entity entity) {
+        if (entity.getId() == null) {
+            setId(entity, UUID.randomUUID());
+        }
+        entitiesById.put(entity.getId(), entity);
+        return entity;
+    }
+
+    private Entity getOne(UUID id) {
+        Entity entity = entitiesById.get(id);
+        if (entity == null) {
+            throw new EntityNotFoundException("Unable to find an entity with id " + id);
+        }
+        return entity;
+    }
+
+    private static void setId(Entity entity, UUID id) {
+        try {
+            ID_FIELD.set(entity, id);
+        } catch (IllegalAccessException exception) {
+            throw new IllegalStateException("Couldn't generate an id for " + entity, exception);
+        }
+    }
+
+    private static Field idField() {
+        try {
+            Field idField = Entity.class.getDeclaredField("id");
+            idField.setAccessible(true);
+            return idField;
+        } catch (NoSuchFieldException exception) {
+            throw new IllegalStateException("Entities are expected to have an id field", exception);
+        }
+    }
+}
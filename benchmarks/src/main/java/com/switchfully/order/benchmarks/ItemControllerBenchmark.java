@@ -0,0 +1,54 @@
+package com.switchfully.order.benchmarks;
+
+import com.switchfully.order.api.items.ItemController;
+import com.switchfully.order.api.items.ItemDto;
+import com.switchfully.order.domain.items.Item.StockUrgency;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gets all {@link #amountOfItems} items, which maps them to DTOs, sorts them on their stock and optionally
+ * filters them on their stock urgency.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemControllerBenchmark {
+
+    @Param({"100", "10000"})
+    public int amountOfItems;
+
+    private ItemController itemController;
+
+    @Setup
+    public void setUp() {
+        InMemoryOrderApplication application = new InMemoryOrderApplication();
+        application.addItems(amountOfItems);
+        itemController = application.getItemController();
+    }
+
+    @Benchmark
+    public List<ItemDto> getAllItems() {
+        return itemController.getAllItems(null);
+    }
+
+    @Benchmark
+    public List<ItemDto> getAllItems_filteredOnStockUrgency() {
+        return itemController.getAllItems(StockUrgency.STOCK_LOW.name());
+    }
+}
@@ -0,0 +1,59 @@
+package com.switchfully.order.benchmarks;
+
+import com.switchfully.order.domain.items.prices.Price;
+import com.switchfully.order.domain.orders.orderitems.OrderItem;
+import com.switchfully.order.domain.orders.orderitems.OrderItem.OrderItemBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.ZoneId;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.switchfully.order.domain.orders.orderitems.OrderItem.OrderItemBuilder.orderItem;
+
+/**
+ * Builds an order item, which calculates its shipping date: once with the clock the builder looks up itself
+ * (the system clock in the default time zone), and once with a clock that was looked up in advance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderItemBenchmark {
+
+    private OrderItemBuilder orderItemBuilder;
+    private Clock clock;
+
+    @Setup
+    public void setUp() {
+        orderItemBuilder = orderItem()
+                .withItemId(UUID.randomUUID())
+                .withItemPrice(Price.create(BigDecimal.valueOf(49.95)))
+                .withOrderedAmount(10)
+                .withShippingDateBasedOnAvailableItemStock(15);
+        clock = Clock.system(ZoneId.systemDefault());
+    }
+
+    @Benchmark
+    public OrderItem build_givenTheClockOfTheBuilder() {
+        return orderItemBuilder.build();
+    }
+
+    @Benchmark
+    public OrderItem build_givenAClockLookedUpInAdvance() {
+        return new OrderItem(orderItemBuilder, clock);
+    }
+}
@@ -0,0 +1,83 @@
+package com.switchfully.order.benchmarks;
+
+import com.switchfully.order.api.orders.OrderMapper;
+import com.switchfully.order.api.orders.dtos.ItemGroupDto;
+import com.switchfully.order.api.orders.dtos.OrderCreationDto;
+import com.switchfully.order.api.orders.dtos.OrderDto;
+import com.switchfully.order.domain.customers.Customer;
+import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.domain.orders.orderitems.OrderItem;
+import com.switchfully.order.service.items.ItemLookup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.switchfully.order.domain.orders.OrderTestBuilder.anOrder;
+
+/**
+ * Maps an order with {@link #amountOfItemGroups} item groups from its creation DTO to the domain (with and without
+ * resolving the ordered items) and from the domain to its DTO.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderMapperBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int amountOfItemGroups;
+
+    private OrderMapper orderMapper;
+    private OrderCreationDto orderCreationDto;
+    private ItemLookup orderedItems;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        InMemoryOrderApplication application = new InMemoryOrderApplication();
+        Customer customer = application.addCustomer();
+        orderMapper = application.getOrderMapper();
+        orderCreationDto = new OrderCreationDto()
+                .withCustomerId(customer.getId().toString())
+                .withItemGroups(application.addItems(amountOfItemGroups).stream()
+                        .map(item -> new ItemGroupDto()
+                                .withItemId(item.getId().toString())
+                                .withOrderedAmount(3))
+                        .toArray(ItemGroupDto[]::new));
+        orderedItems = orderMapper.lookupOrderedItems(orderCreationDto);
+        Order mappedOrder = orderMapper.toDomain(orderCreationDto, orderedItems);
+        order = anOrder()
+                .withId(UUID.randomUUID())
+                .withCustomer(customer)
+                .withOrderItems(mappedOrder.getOrderItems().toArray(new OrderItem[0]))
+                .build();
+    }
+
+    @Benchmark
+    public Order toDomain() {
+        return orderMapper.toDomain(orderCreationDto);
+    }
+
+    @Benchmark
+    public Order toDomain_givenResolvedItems() {
+        return orderMapper.toDomain(orderCreationDto, orderedItems);
+    }
+
+    @Benchmark
+    public OrderDto toDto() {
+        return orderMapper.toDto(order);
+    }
+}
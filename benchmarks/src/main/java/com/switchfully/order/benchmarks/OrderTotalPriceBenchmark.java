@@ -0,0 +1,83 @@
+package com.switchfully.order.benchmarks;
+
+import com.switchfully.order.domain.items.prices.Price;
+import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.domain.orders.orderitems.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.switchfully.order.domain.orders.OrderTestBuilder.anOrder;
+import static com.switchfully.order.domain.orders.orderitems.OrderItemTestBuilder.anOrderItem;
+
+/**
+ * Calculates the total price of an (unsaved) order with {@link #amountOfOrderItems} order items, as
+ * {@link Order#getTotalPrice()} does (summing minor units in a MoneyAccumulator), and as it was done before:
+ * with a running BigDecimal, and by adding up the Price of every order item.
+ * <p>
+ * Run with {@code -prof gc} to compare the allocation rate (gc.alloc.rate.norm) of the approaches as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderTotalPriceBenchmark {
+
+    private static final BigDecimal[] ITEM_PRICES = {
+            BigDecimal.valueOf(49.95), BigDecimal.valueOf(10.9), BigDecimal.valueOf(250), new BigDecimal("0.99")};
+
+    @Param({"1", "10", "100"})
+    public int amountOfOrderItems;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        order = anOrder()
+                .withId(UUID.randomUUID())
+                .withOrderItems(IntStream.range(0, amountOfOrderItems)
+                        .mapToObj(index -> anOrderItem()
+                                .withItemPrice(Price.create(ITEM_PRICES[index % ITEM_PRICES.length]))
+                                .withOrderedAmount(index + 1)
+                                .build())
+                        .toArray(OrderItem[]::new))
+                .build();
+    }
+
+    @Benchmark
+    public Price moneyAccumulator() {
+        return order.getTotalPrice();
+    }
+
+    @Benchmark
+    public Price runningBigDecimal() {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (OrderItem orderItem : order.getOrderItems()) {
+            totalAmount = totalAmount.add(orderItem.getItemPrice().getAmount()
+                    .multiply(BigDecimal.valueOf(orderItem.getOrderedAmount())));
+        }
+        return Price.create(totalAmount);
+    }
+
+    @Benchmark
+    public Price priceAddPerOrderItem() {
+        return order.getOrderItems().stream()
+                .map(OrderItem::getTotalPrice)
+                .reduce(Price.create(BigDecimal.ZERO), Price::add);
+    }
+}
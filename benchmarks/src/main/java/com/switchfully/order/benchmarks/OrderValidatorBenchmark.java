@@ -0,0 +1,61 @@
+package com.switchfully.order.benchmarks;
+
+import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.domain.orders.orderitems.OrderItem;
+import com.switchfully.order.service.orders.OrderAssemblyExecutor;
+import com.switchfully.order.service.orders.OrderValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.switchfully.order.domain.customers.CustomerTestBuilder.aCustomer;
+import static com.switchfully.order.domain.orders.OrderTestBuilder.anOrder;
+import static com.switchfully.order.domain.orders.orderitems.OrderItemTestBuilder.anOrderItem;
+
+/**
+ * Validates a (valid) order with {@link #amountOfOrderItems} order items for creation, which checks every one of
+ * its order items.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderValidatorBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int amountOfOrderItems;
+
+    private final OrderValidator orderValidator = new OrderValidator(new OrderAssemblyExecutor(256, 64, 4));
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        order = anOrder()
+                .withCustomer(aCustomer().build())
+                .withOrderItems(IntStream.range(0, amountOfOrderItems)
+                        .mapToObj(index -> anOrderItem().build())
+                        .toArray(OrderItem[]::new))
+                .build();
+        if (!orderValidator.isValidForCreation(order)) {
+            throw new IllegalStateException("The benchmarked order should be valid for creation: " + order);
+        }
+    }
+
+    @Benchmark
+    public boolean isValidForCreation() {
+        return orderValidator.isValidForCreation(order);
+    }
+}
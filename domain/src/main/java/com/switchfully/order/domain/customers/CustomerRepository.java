@@ -1,8 +1,18 @@
 package com.switchfully.order.domain.customers;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 
+import javax.persistence.LockModeType;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface CustomerRepository extends JpaRepository<Customer, UUID> {
+
+    /**
+     * Selects the customer for update: concurrent transactions that lock the same customer wait for each other
+     * (until the transaction holding the lock ends).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Customer> findWithLockById(UUID id);
 }
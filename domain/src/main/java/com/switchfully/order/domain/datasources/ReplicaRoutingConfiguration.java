@@ -0,0 +1,56 @@
+package com.switchfully.order.domain.datasources;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * When a read replica is configured (order.datasource.replica.jdbc-url), read-only transactions are sent to it,
+ * while all others keep using the primary database (spring.datasource.*).
+ * <p>
+ * The replica is expected to lag behind the primary, so a read-only transaction might not see the changes
+ * committed right before it. Reads that can't live with that should run in a read-write transaction.
+ * <p>
+ * The connection pools of the primary and the replica aren't beans themselves: Spring Boot initializes every
+ * DataSource bean with the (single) data source of the application, which is the routing data source that's still
+ * being created when its pools would be. They're closed together with the application context instead.
+ */
+@Configuration
+@ConditionalOnProperty("order.datasource.replica.jdbc-url")
+public class ReplicaRoutingConfiguration implements DisposableBean {
+
+    private HikariDataSource primaryDataSource;
+    private HikariDataSource replicaDataSource;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, Environment environment) {
+        Binder binder = Binder.get(environment);
+        primaryDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primaryDataSource));
+        replicaDataSource = new HikariDataSource();
+        binder.bind("order.datasource.replica", Bindable.ofInstance(replicaDataSource));
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource));
+    }
+
+    @Override
+    public void destroy() {
+        if (primaryDataSource != null) {
+            primaryDataSource.close();
+        }
+        if (replicaDataSource != null) {
+            replicaDataSource.close();
+        }
+    }
+
+}
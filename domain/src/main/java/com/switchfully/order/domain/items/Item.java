@@ -6,6 +6,7 @@ import com.switchfully.order.infrastructure.builder.Builder;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import java.util.UUID;
 
 @Entity
@@ -17,6 +18,12 @@ public class Item extends com.switchfully.order.domain.Entity {
     @Embedded
     private Price price;
     private int amountOfStock;
+    /**
+     * Incremented by every flush of a changed item and by every stock decrement (see the ItemRepository), so
+     * updating an item fails instead of overwriting a stock decrement that happened after the item was read.
+     */
+    @Version
+    private long version;
 
     public Item() {
     }
@@ -45,6 +52,10 @@ public class Item extends com.switchfully.order.domain.Entity {
         return amountOfStock;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public StockUrgency getStockUrgency() {
         if(amountOfStock < 5) { return StockUrgency.STOCK_LOW; }
         if (amountOfStock < 10) { return StockUrgency.STOCK_MEDIUM; }
@@ -62,6 +73,17 @@ public class Item extends com.switchfully.order.domain.Entity {
                 '}';
     }
 
+    /**
+     * Overwrites the details of this item with the ones of the provided item (which is the updated version of
+     * this item). The id and version of this item are kept, the version is incremented when the item is flushed.
+     */
+    public void updateWith(Item updatedItem) {
+        name = updatedItem.name;
+        description = updatedItem.description;
+        price = updatedItem.price;
+        amountOfStock = updatedItem.amountOfStock;
+    }
+
     public void decrementStock(int amountToDecrement) {
         if(amountToDecrement > amountOfStock) {
             throw new IllegalArgumentException("Decrementing the stock amount of an item " + getId().toString()
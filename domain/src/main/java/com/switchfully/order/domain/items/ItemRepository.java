@@ -1,9 +1,40 @@
 package com.switchfully.order.domain.items;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.UUID;
 
 public interface ItemRepository extends JpaRepository<Item, UUID> {
 
+    /**
+     * Decrements the stock of the item in one conditional update, which the database executes atomically:
+     * concurrent decrements of the same item can neither overwrite each other, nor drop the stock below 0.
+     * The version of the item is incremented as well, so optimistic writers of the same item notice the change.
+     * <p>
+     * The update bypasses the persistence context: an item it holds is outdated afterwards and should be detached.
+     *
+     * @return 1 when the stock was decremented, 0 when the item doesn't exist or doesn't have enough stock
+     */
+    @Modifying
+    @Query("update Item i set i.amountOfStock = i.amountOfStock - :amountToDecrement, i.version = i.version + 1 " +
+            "where i.id = :itemId and i.amountOfStock >= :amountToDecrement")
+    int decrementStockIfAvailable(@Param("itemId") UUID itemId, @Param("amountToDecrement") int amountToDecrement);
+
+    /**
+     * Overwrites the stock of the item, but only when its version still is the provided (previously read) version,
+     * and increments the version.
+     * <p>
+     * The update bypasses the persistence context: an item it holds is outdated afterwards and should be detached.
+     *
+     * @return 1 when the stock was updated, 0 when the item doesn't exist or was changed since it was read
+     */
+    @Modifying
+    @Query("update Item i set i.amountOfStock = :amountOfStock, i.version = i.version + 1 " +
+            "where i.id = :itemId and i.version = :version")
+    int updateStockIfVersionMatches(@Param("itemId") UUID itemId, @Param("amountOfStock") int amountOfStock,
+                                    @Param("version") long version);
+
 }
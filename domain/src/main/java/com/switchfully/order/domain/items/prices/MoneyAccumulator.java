@@ -0,0 +1,109 @@
+package com.switchfully.order.domain.items.prices;
+
+import java.math.BigDecimal;
+
+/**
+ * A mutable running sum of amounts of money, kept as a long number of minor units, so that summing doesn't create
+ * an intermediate {@link BigDecimal} (or {@link Price}) per added amount.
+ * <p>
+ * The sum is exact and has the same scale as when the amounts were summed with {@link BigDecimal#add(BigDecimal)}
+ * (the highest scale of the added amounts). When the sum no longer fits a long, the accumulator continues with
+ * {@link BigDecimal} arithmetic. Not thread-safe.
+ */
+public final class MoneyAccumulator {
+
+    private static final int MAX_SCALE = 18;
+    /**
+     * Every unscaled value of (at most) this many digits fits a long.
+     */
+    private static final int MAX_PRECISION = 18;
+    private static final long[] POWERS_OF_TEN = powersOfTen();
+
+    private long minorUnits;
+    private int scale;
+    private BigDecimal overflowedSum;
+
+    public MoneyAccumulator add(Price price) {
+        return add(price.getAmount());
+    }
+
+    public MoneyAccumulator add(BigDecimal amount) {
+        return add(amount, 1);
+    }
+
+    /**
+     * Adds the amount multiplied by the quantity (e.g. the price of an item times its ordered amount).
+     */
+    public MoneyAccumulator add(BigDecimal amount, int quantity) {
+        if (overflowedSum == null && amount.scale() >= 0 && amount.scale() <= MAX_SCALE
+                && amount.precision() <= MAX_PRECISION) {
+            try {
+                add(unscaledValueOf(amount), amount.scale(), quantity);
+                return this;
+            } catch (ArithmeticException exception) {
+                // continue with BigDecimal arithmetic below
+            }
+        }
+        overflowedSum = toBigDecimal().add(amount.multiply(BigDecimal.valueOf(quantity)));
+        return this;
+    }
+
+    public BigDecimal toBigDecimal() {
+        if (overflowedSum != null) {
+            return overflowedSum;
+        }
+        return BigDecimal.valueOf(minorUnits, scale);
+    }
+
+    public Price toPrice() {
+        return Price.create(toBigDecimal());
+    }
+
+    /**
+     * @return the float nearest to the sum
+     */
+    public float toFloat() {
+        return toBigDecimal().floatValue();
+    }
+
+    /**
+     * Only updates the running sum when none of the steps overflow, so that the sum is still intact afterwards.
+     */
+    private void add(long amountMinorUnits, int amountScale, int quantity) {
+        int commonScale = Math.max(scale, amountScale);
+        long rescaledSum = rescale(minorUnits, scale, commonScale);
+        long rescaledAmount = rescale(Math.multiplyExact(amountMinorUnits, (long) quantity), amountScale,
+                commonScale);
+        minorUnits = Math.addExact(rescaledSum, rescaledAmount);
+        scale = commonScale;
+    }
+
+    /**
+     * Unlike {@link BigDecimal#unscaledValue()}, doesn't create a {@link java.math.BigInteger}: moving the decimal
+     * point of an amount that fits a long keeps it compact (a long), which is what's returned.
+     */
+    private static long unscaledValueOf(BigDecimal amount) {
+        return amount.movePointRight(amount.scale()).longValueExact();
+    }
+
+    /**
+     * Converts the minor units from one scale to a higher one.
+     *
+     * @throws ArithmeticException when the result overflows
+     */
+    private static long rescale(long minorUnits, int scale, int higherScale) {
+        if (scale == higherScale) {
+            return minorUnits;
+        }
+        return Math.multiplyExact(minorUnits, POWERS_OF_TEN[higherScale - scale]);
+    }
+
+    private static long[] powersOfTen() {
+        long[] powersOfTen = new long[MAX_SCALE + 1];
+        powersOfTen[0] = 1;
+        for (int exponent = 1; exponent <= MAX_SCALE; exponent++) {
+            powersOfTen[exponent] = powersOfTen[exponent - 1] * 10;
+        }
+        return powersOfTen;
+    }
+}
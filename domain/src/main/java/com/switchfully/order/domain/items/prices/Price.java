@@ -19,6 +19,13 @@ public final class Price {
         return new Price(amount);
     }
 
+    /**
+     * Takes the decimal value that was written as a float (e.g. 10.9f becomes 10.9, not 10.8999996185302734375).
+     */
+    public static Price createFromFloat(float amountAsFloat) {
+        return new Price(toBigDecimal(amountAsFloat));
+    }
+
     public void setAmount(BigDecimal amount) {
         this.amount = amount;
     }
@@ -28,7 +35,7 @@ public final class Price {
     }
 
     public void setAmountAsFloat(float amountAsFloat) {
-        this.amount = new BigDecimal(amountAsFloat);
+        this.amount = toBigDecimal(amountAsFloat);
     }
 
     public float getAmountAsFloat() {
@@ -43,6 +50,10 @@ public final class Price {
         return amount.equals(otherPrice.getAmount());
     }
 
+    private static BigDecimal toBigDecimal(float amountAsFloat) {
+        return new BigDecimal(Float.toString(amountAsFloat));
+    }
+
     @Override
     public String toString() {
         return "Price{" + "amount=" + amount + '}';
@@ -1,33 +1,73 @@
 package com.switchfully.order.domain.orders;
 
 import com.switchfully.order.domain.customers.Customer;
+import com.switchfully.order.domain.items.prices.MoneyAccumulator;
 import com.switchfully.order.domain.items.prices.Price;
 import com.switchfully.order.domain.orders.orderitems.OrderItem;
 import com.switchfully.order.infrastructure.builder.Builder;
+import org.hibernate.annotations.BatchSize;
 
+import javax.persistence.AttributeOverride;
 import javax.persistence.CascadeType;
+import javax.persistence.Column;
+import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
+import javax.persistence.PrePersist;
 import javax.persistence.Table;
 import javax.persistence.Transient;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "orders_total_price_idx", columnList = "total_price"),
+        @Index(name = "orders_customer_idx", columnList = "customerId")})
+@NamedEntityGraph(name = Order.WITH_ORDER_ITEMS, attributeNodes = @NamedAttributeNode("orderItems"))
+@NamedEntityGraph(name = Order.WITH_CUSTOMER_AND_ORDER_ITEMS,
+        attributeNodes = {@NamedAttributeNode("customer"), @NamedAttributeNode("orderItems")})
 public class Order extends com.switchfully.order.domain.Entity {
 
-    @OneToMany(fetch = FetchType.EAGER, cascade = CascadeType.PERSIST)
-    @JoinColumn(name = "order_id")
+    /**
+     * Fetch plans for the queries that need the order items (and the customer) of every order they return.
+     */
+    public static final String WITH_ORDER_ITEMS = "Order.withOrderItems";
+    public static final String WITH_CUSTOMER_AND_ORDER_ITEMS = "Order.withCustomerAndOrderItems";
+
+    /**
+     * Since order items never move to another order, the join column is written together with the order item
+     * (not nullable) and never updated afterwards. That way, Hibernate inserts an order and its items with
+     * one (batched) insert per table, instead of inserting the items first and linking them to the order with
+     * an additional update per item.
+     * <p>
+     * Loaded on demand, unless a query fetches them (see the entity graphs above). When they're loaded on demand,
+     * the order items of (at most) 100 orders of the persistence context are loaded at once. This doesn't apply to
+     * orders read from a scrolled cursor (a Stream), which is why streaming fetches the orders per chunk of ids.
+     */
+    @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
+    @JoinColumn(name = "order_id", nullable = false, updatable = false)
+    @BatchSize(size = 100)
     private List<OrderItem> orderItems;
     @ManyToOne
     @JoinColumn(name = "customerId", referencedColumnName = "id")
     private Customer customer;
+    /**
+     * Stored when the order is persisted, so queries (and reports) don't need to sum the order items.
+     * Null for orders that are not persisted yet.
+     */
+    @Embedded
+    @AttributeOverride(name = "amount", column = @Column(name = "total_price"))
+    private Price totalPrice;
+    private int amountOfOrderItems;
 
     public Order() {
     }
@@ -46,11 +86,53 @@ public class Order extends com.switchfully.order.domain.Entity {
         return customer;
     }
 
+    /**
+     * @return the total price stored with the order, or (when the order is not persisted yet) the sum of the prices
+     * of its order items multiplied by their ordered amount
+     */
     public Price getTotalPrice() {
-        return orderItems.stream()
-                .map(OrderItem::getTotalPrice)
-                .reduce(Price.create(BigDecimal.ZERO),
-                        (price1, price2) -> Price.create(price1.getAmount().add(price2.getAmount())));
+        if (totalPrice != null && totalPrice.getAmount() != null) {
+            return totalPrice;
+        }
+        return Price.create(calculateTotalAmount());
+    }
+
+    /**
+     * @return the amount of order items stored with the order (so the order items aren't loaded), or (when the
+     * order is not persisted yet) the amount of its order items
+     */
+    public int getAmountOfOrderItems() {
+        if (totalPrice != null && totalPrice.getAmount() != null) {
+            return amountOfOrderItems;
+        }
+        return orderItems.size();
+    }
+
+    /**
+     * Sums the exact total prices of the provided orders (into a single running amount of minor units). Convert the
+     * sum to a float only afterwards, if need be: summing floats accumulates rounding errors.
+     */
+    public static Price sumTotalPrices(Collection<Order> orders) {
+        MoneyAccumulator totalPriceOfAllOrders = new MoneyAccumulator();
+        orders.forEach(order -> totalPriceOfAllOrders.add(order.getTotalPrice()));
+        return totalPriceOfAllOrders.toPrice();
+    }
+
+    @PrePersist
+    private void storeTotals() {
+        totalPrice = Price.create(calculateTotalAmount());
+        amountOfOrderItems = orderItems.size();
+    }
+
+    /**
+     * Sums into a single running amount of minor units, instead of creating an intermediate price per order item.
+     */
+    private BigDecimal calculateTotalAmount() {
+        MoneyAccumulator totalAmount = new MoneyAccumulator();
+        for (OrderItem orderItem : orderItems) {
+            totalAmount.add(orderItem.getItemPrice().getAmount(), orderItem.getOrderedAmount());
+        }
+        return totalAmount.toBigDecimal();
     }
 
     @Override
@@ -1,12 +1,125 @@
 package com.switchfully.order.domain.orders;
 
 import com.switchfully.order.domain.customers.Customer;
+import com.switchfully.order.domain.orders.orderitems.ShippableOrderItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface OrderRepository extends JpaRepository<Order, UUID> {
 
+    /**
+     * The amount of rows the JDBC driver fetches per round trip while streaming orders.
+     */
+    int STREAMING_FETCH_SIZE = 100;
+
     List<Order> findAllByCustomer(Customer customer);
+
+    /**
+     * Fetches the order together with its customer and order items in one query (to reorder it).
+     */
+    @EntityGraph(Order.WITH_CUSTOMER_AND_ORDER_ITEMS)
+    Optional<Order> findWithCustomerAndOrderItemsById(UUID id);
+
+    /**
+     * Fetches all orders of the customer together with that customer and the order items in one query.
+     */
+    @EntityGraph(Order.WITH_CUSTOMER_AND_ORDER_ITEMS)
+    @Query("select distinct o from Order o where o.customer.id = :customerId")
+    List<Order> findAllWithCustomerAndOrderItemsByCustomerId(@Param("customerId") UUID customerId);
+
+    /**
+     * Fetches all orders of the customer together with their order items in one query (to build its report).
+     */
+    @EntityGraph(Order.WITH_ORDER_ITEMS)
+    @Query("select distinct o from Order o where o.customer.id = :customerId")
+    List<Order> findAllWithOrderItemsByCustomerId(@Param("customerId") UUID customerId);
+
+    /**
+     * Fetches all orders together with their customer and order items in one query,
+     * so that mapping them (e.g. to read the customer's address) doesn't trigger any additional selects.
+     */
+    @EntityGraph(Order.WITH_CUSTOMER_AND_ORDER_ITEMS)
+    @Query("select distinct o from Order o")
+    List<Order> findAllWithCustomerAndOrderItems();
+
+    /**
+     * Selects only the order items (and the address of their order's customer) that ship on the provided date,
+     * using the index on order_item.shipping_date. Rows of the same order are returned next to each other.
+     */
+    @Query("select new com.switchfully.order.domain.orders.orderitems.ShippableOrderItem(" +
+            "o.id, oi.itemId, oi.orderedAmount, oi.shippingDate, " +
+            "c.address.streetName, c.address.houseNumber, c.address.postalCode, c.address.country) " +
+            "from Order o join o.orderItems oi join o.customer c " +
+            "where oi.shippingDate = :shippingDate " +
+            "order by o.id")
+    List<ShippableOrderItem> findAllOrderItemsShippingOn(@Param("shippingDate") LocalDate shippingDate);
+
+    /**
+     * Keyset pagination: selects the ids of the first page of orders, ordered by their id.
+     * Use {@link #findPageOfIdsAfter(UUID, Pageable)} (with the last id of this page) for the next page.
+     */
+    @Query("select o.id from Order o order by o.id")
+    List<UUID> findFirstPageOfIds(Pageable pageable);
+
+    /**
+     * Keyset pagination: selects the ids of the orders directly following the provided order id.
+     * Contrary to an offset, the cursor is resolved through the primary key index, so every page is equally cheap.
+     */
+    @Query("select o.id from Order o where o.id > :afterId order by o.id")
+    List<UUID> findPageOfIdsAfter(@Param("afterId") UUID afterId, Pageable pageable);
+
+    /**
+     * Fetches the orders with the provided ids (ordered by their id) together with their customer and order items.
+     * Paging is done on the ids first, since limiting a query that fetch joins a collection happens in memory.
+     */
+    @EntityGraph(Order.WITH_CUSTOMER_AND_ORDER_ITEMS)
+    @Query("select distinct o from Order o where o.id in :ids order by o.id")
+    List<Order> findAllWithCustomerAndOrderItemsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Streams the ids of all orders (ordered by id), reading them from the database cursor in chunks of
+     * {@link #STREAMING_FETCH_SIZE} rows. Has to be consumed (and closed) within a transaction.
+     * Fetch the orders themselves per chunk of ids with {@link #findAllWithCustomerAndOrderItemsByIdIn(Collection)}:
+     * orders read from a cursor can't have their order items batch fetched, so they'd be loaded one order at a time.
+     */
+    @Query("select o.id from Order o order by o.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAMING_FETCH_SIZE))
+    Stream<UUID> streamAllIdsOrderedById();
+
+    /**
+     * Fetches the orders of which the stored total price exceeds the provided amount (most expensive first),
+     * using the index on orders.total_price.
+     */
+    @EntityGraph(Order.WITH_CUSTOMER_AND_ORDER_ITEMS)
+    @Query("select distinct o from Order o where o.totalPrice.amount > :amount order by o.totalPrice.amount desc")
+    List<Order> findAllWithTotalPriceOver(@Param("amount") BigDecimal amount);
+
+    /**
+     * Stores the totals of the orders that were persisted before their totals were stored.
+     *
+     * @return the amount of orders that were updated
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "update orders set " +
+            "total_price = (select coalesce(sum(oi.amount * oi.ordered_amount), 0) from order_item oi " +
+            "where oi.order_id = orders.id), " +
+            "amount_of_order_items = (select count(*) from order_item oi where oi.order_id = orders.id) " +
+            "where total_price is null")
+    int storeMissingTotals();
 }
@@ -4,6 +4,7 @@ import com.switchfully.order.domain.items.prices.Price;
 import com.switchfully.order.infrastructure.builder.Builder;
 
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import java.math.BigDecimal;
 import java.time.Clock;
@@ -16,7 +17,9 @@ import java.util.UUID;
  * order-specific information (the ordered amount and the shipping date).
  */
 @Entity
-@Table(name = "order_item")
+@Table(name = "order_item", indexes = {
+        @Index(name = "order_item_shipping_date_idx", columnList = "shippingDate"),
+        @Index(name = "order_item_item_idx", columnList = "itemId")})
 public final class OrderItem extends com.switchfully.order.domain.Entity {
 
     private UUID itemId;
@@ -31,7 +34,9 @@ public final class OrderItem extends com.switchfully.order.domain.Entity {
         itemId = orderItemBuilder.itemId;
         itemPrice = orderItemBuilder.itemPrice;
         orderedAmount = orderItemBuilder.orderedAmount;
-        shippingDate = calculateShippingDate(orderItemBuilder.availableItemStock, clock);
+        shippingDate = orderItemBuilder.shippingDate != null
+                ? orderItemBuilder.shippingDate
+                : calculateShippingDate(orderItemBuilder.availableItemStock, clock);
     }
 
     private LocalDate calculateShippingDate(int availableItemStock, Clock clock) {
@@ -76,6 +81,7 @@ public final class OrderItem extends com.switchfully.order.domain.Entity {
         private Price itemPrice;
         private int orderedAmount;
         private int availableItemStock;
+        private LocalDate shippingDate;
 
         private OrderItemBuilder() {
         }
@@ -108,6 +114,15 @@ public final class OrderItem extends com.switchfully.order.domain.Entity {
             this.availableItemStock = availableItemStock;
             return this;
         }
+
+        /**
+         * Restores the shipping date of an order item that was stored already (instead of calculating it based on
+         * the available item stock).
+         */
+        public OrderItemBuilder withShippingDate(LocalDate shippingDate) {
+            this.shippingDate = shippingDate;
+            return this;
+        }
     }
 
 }
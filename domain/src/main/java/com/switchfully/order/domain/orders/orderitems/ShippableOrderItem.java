@@ -0,0 +1,66 @@
+package com.switchfully.order.domain.orders.orderitems;
+
+import com.switchfully.order.domain.customers.addresses.Address;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static com.switchfully.order.domain.customers.addresses.Address.AddressBuilder.address;
+
+/**
+ * A read-only projection of an OrderItem that has to be shipped, together with the id of its order and
+ * the address to ship it to. It's selected directly by the database, so no Order aggregates have to be loaded
+ * (or rebuilt) to know what has to be shipped on a given day.
+ */
+public final class ShippableOrderItem {
+
+    private final UUID orderId;
+    private final UUID itemId;
+    private final int orderedAmount;
+    private final LocalDate shippingDate;
+    private final Address address;
+
+    public ShippableOrderItem(UUID orderId, UUID itemId, int orderedAmount, LocalDate shippingDate,
+                              String streetName, String houseNumber, String postalCode, String country) {
+        this.orderId = orderId;
+        this.itemId = itemId;
+        this.orderedAmount = orderedAmount;
+        this.shippingDate = shippingDate;
+        this.address = address()
+                .withStreetName(streetName)
+                .withHouseNumber(houseNumber)
+                .withPostalCode(postalCode)
+                .withCountry(country)
+                .build();
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public UUID getItemId() {
+        return itemId;
+    }
+
+    public int getOrderedAmount() {
+        return orderedAmount;
+    }
+
+    public LocalDate getShippingDate() {
+        return shippingDate;
+    }
+
+    public Address getAddress() {
+        return address;
+    }
+
+    @Override
+    public String toString() {
+        return "ShippableOrderItem{" + "orderId=" + orderId +
+                ", itemId=" + itemId +
+                ", orderedAmount=" + orderedAmount +
+                ", shippingDate=" + shippingDate +
+                ", address=" + address +
+                '}';
+    }
+}
@@ -0,0 +1,96 @@
+package com.switchfully.order.domain.orders.reports;
+
+import com.switchfully.order.infrastructure.builder.Builder;
+
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The running totals of all orders of one customer, kept up to date whenever an order of that customer is created
+ * (together with the {@link OrderReportLine}s of that order), so that the report of a customer doesn't need to
+ * load and sum all of their orders.
+ */
+@Entity
+@Table(name = "customer_order_report",
+        indexes = @Index(name = "customer_order_report_customer_idx", columnList = "customerId", unique = true))
+public class CustomerOrderReport extends com.switchfully.order.domain.Entity {
+
+    private UUID customerId;
+    private int amountOfOrders;
+    private BigDecimal totalPriceOfAllOrders;
+
+    public CustomerOrderReport() {
+    }
+
+    private CustomerOrderReport(CustomerOrderReportBuilder customerOrderReportBuilder) {
+        super.setId(customerOrderReportBuilder.id);
+        customerId = customerOrderReportBuilder.customerId;
+        amountOfOrders = customerOrderReportBuilder.amountOfOrders;
+        totalPriceOfAllOrders = customerOrderReportBuilder.totalPriceOfAllOrders;
+    }
+
+    public UUID getCustomerId() {
+        return customerId;
+    }
+
+    public int getAmountOfOrders() {
+        return amountOfOrders;
+    }
+
+    public BigDecimal getTotalPriceOfAllOrders() {
+        return totalPriceOfAllOrders;
+    }
+
+    @Override
+    public String toString() {
+        return "CustomerOrderReport{" +
+                "id=" + getId() +
+                ", customerId=" + customerId +
+                ", amountOfOrders=" + amountOfOrders +
+                ", totalPriceOfAllOrders=" + totalPriceOfAllOrders +
+                '}';
+    }
+
+    public static class CustomerOrderReportBuilder extends Builder<CustomerOrderReport> {
+
+        private UUID id;
+        private UUID customerId;
+        private int amountOfOrders;
+        private BigDecimal totalPriceOfAllOrders = BigDecimal.ZERO;
+
+        private CustomerOrderReportBuilder() {
+        }
+
+        public static CustomerOrderReportBuilder customerOrderReport() {
+            return new CustomerOrderReportBuilder();
+        }
+
+        @Override
+        public CustomerOrderReport build() {
+            return new CustomerOrderReport(this);
+        }
+
+        public CustomerOrderReportBuilder withId(UUID id) {
+            this.id = id;
+            return this;
+        }
+
+        public CustomerOrderReportBuilder withCustomerId(UUID customerId) {
+            this.customerId = customerId;
+            return this;
+        }
+
+        public CustomerOrderReportBuilder withAmountOfOrders(int amountOfOrders) {
+            this.amountOfOrders = amountOfOrders;
+            return this;
+        }
+
+        public CustomerOrderReportBuilder withTotalPriceOfAllOrders(BigDecimal totalPriceOfAllOrders) {
+            this.totalPriceOfAllOrders = totalPriceOfAllOrders;
+            return this;
+        }
+    }
+}
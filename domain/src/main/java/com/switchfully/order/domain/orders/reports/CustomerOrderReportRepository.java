@@ -0,0 +1,33 @@
+package com.switchfully.order.domain.orders.reports;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CustomerOrderReportRepository extends JpaRepository<CustomerOrderReport, UUID> {
+
+    /**
+     * Selects only the running total (instead of the report entity), so it reflects the latest
+     * {@link #addOrderToTotals(UUID, BigDecimal)} even when the report is already loaded in the ongoing transaction.
+     */
+    @Query("select r.totalPriceOfAllOrders from CustomerOrderReport r where r.customerId = :customerId")
+    Optional<BigDecimal> findTotalPriceOfAllOrdersByCustomerId(@Param("customerId") UUID customerId);
+
+    /**
+     * Adds an order with the provided total price to the running totals of the report of the provided customer,
+     * in a single update statement (so concurrent orders of the same customer can't overwrite each other's totals).
+     *
+     * @return 1 when the report was updated, 0 when the customer has no report (yet)
+     */
+    @Modifying
+    @Query("update CustomerOrderReport r " +
+            "set r.amountOfOrders = r.amountOfOrders + 1, " +
+            "r.totalPriceOfAllOrders = r.totalPriceOfAllOrders + :orderTotalPrice " +
+            "where r.customerId = :customerId")
+    int addOrderToTotals(@Param("customerId") UUID customerId, @Param("orderTotalPrice") BigDecimal orderTotalPrice);
+}
@@ -0,0 +1,175 @@
+package com.switchfully.order.domain.orders.reports;
+
+import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.domain.orders.orderitems.OrderItem;
+import com.switchfully.order.infrastructure.builder.Builder;
+
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One item group of an order, as it's shown in the report of the ordering customer. The name of the item
+ * and the totals are denormalized at the time the order is created, so reading a report never needs the
+ * orders nor the items themselves.
+ */
+@Entity
+@Table(name = "order_report_line",
+        indexes = @Index(name = "order_report_line_customer_idx", columnList = "customerId, orderedAt"))
+public class OrderReportLine extends com.switchfully.order.domain.Entity {
+
+    private UUID customerId;
+    private UUID orderId;
+    private BigDecimal orderTotalPrice;
+    private Instant orderedAt;
+    private UUID itemId;
+    private String itemName;
+    private int orderedAmount;
+    private BigDecimal totalPrice;
+
+    public OrderReportLine() {
+    }
+
+    private OrderReportLine(OrderReportLineBuilder orderReportLineBuilder) {
+        super.setId(orderReportLineBuilder.id);
+        customerId = orderReportLineBuilder.customerId;
+        orderId = orderReportLineBuilder.orderId;
+        orderTotalPrice = orderReportLineBuilder.orderTotalPrice;
+        orderedAt = orderReportLineBuilder.orderedAt;
+        itemId = orderReportLineBuilder.itemId;
+        itemName = orderReportLineBuilder.itemName;
+        orderedAmount = orderReportLineBuilder.orderedAmount;
+        totalPrice = orderReportLineBuilder.totalPrice;
+    }
+
+    public UUID getCustomerId() {
+        return customerId;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public BigDecimal getOrderTotalPrice() {
+        return orderTotalPrice;
+    }
+
+    public Instant getOrderedAt() {
+        return orderedAt;
+    }
+
+    public UUID getItemId() {
+        return itemId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public int getOrderedAmount() {
+        return orderedAmount;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderReportLine{" +
+                "id=" + getId() +
+                ", customerId=" + customerId +
+                ", orderId=" + orderId +
+                ", itemId=" + itemId +
+                ", itemName='" + itemName + '\'' +
+                ", orderedAmount=" + orderedAmount +
+                ", totalPrice=" + totalPrice +
+                '}';
+    }
+
+    public static class OrderReportLineBuilder extends Builder<OrderReportLine> {
+
+        private UUID id;
+        private UUID customerId;
+        private UUID orderId;
+        private BigDecimal orderTotalPrice;
+        private Instant orderedAt;
+        private UUID itemId;
+        private String itemName;
+        private int orderedAmount;
+        private BigDecimal totalPrice;
+
+        private OrderReportLineBuilder() {
+        }
+
+        public static OrderReportLineBuilder orderReportLine() {
+            return new OrderReportLineBuilder();
+        }
+
+        /**
+         * Prefills the builder with the provided order item of the provided (already persisted) order.
+         */
+        public static OrderReportLineBuilder orderReportLine(Order order, OrderItem orderItem) {
+            return orderReportLine()
+                    .withCustomerId(order.getCustomer().getId())
+                    .withOrderId(order.getId())
+                    .withOrderTotalPrice(order.getTotalPrice().getAmount())
+                    .withItemId(orderItem.getItemId())
+                    .withOrderedAmount(orderItem.getOrderedAmount())
+                    .withTotalPrice(orderItem.getTotalPrice().getAmount());
+        }
+
+        @Override
+        public OrderReportLine build() {
+            return new OrderReportLine(this);
+        }
+
+        public OrderReportLineBuilder withId(UUID id) {
+            this.id = id;
+            return this;
+        }
+
+        public OrderReportLineBuilder withCustomerId(UUID customerId) {
+            this.customerId = customerId;
+            return this;
+        }
+
+        public OrderReportLineBuilder withOrderId(UUID orderId) {
+            this.orderId = orderId;
+            return this;
+        }
+
+        public OrderReportLineBuilder withOrderTotalPrice(BigDecimal orderTotalPrice) {
+            this.orderTotalPrice = orderTotalPrice;
+            return this;
+        }
+
+        public OrderReportLineBuilder withOrderedAt(Instant orderedAt) {
+            this.orderedAt = orderedAt;
+            return this;
+        }
+
+        public OrderReportLineBuilder withItemId(UUID itemId) {
+            this.itemId = itemId;
+            return this;
+        }
+
+        public OrderReportLineBuilder withItemName(String itemName) {
+            this.itemName = itemName;
+            return this;
+        }
+
+        public OrderReportLineBuilder withOrderedAmount(int orderedAmount) {
+            this.orderedAmount = orderedAmount;
+            return this;
+        }
+
+        public OrderReportLineBuilder withTotalPrice(BigDecimal totalPrice) {
+            this.totalPrice = totalPrice;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.switchfully.order.domain.orders.reports;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface OrderReportLineRepository extends JpaRepository<OrderReportLine, UUID> {
+
+    /**
+     * Reads the report lines of a customer using the index on (customer_id, ordered_at).
+     * Lines of the same order are returned next to each other.
+     */
+    List<OrderReportLine> findAllByCustomerIdOrderByOrderedAtAscOrderIdAsc(UUID customerId);
+}
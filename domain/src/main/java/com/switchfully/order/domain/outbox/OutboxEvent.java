@@ -0,0 +1,197 @@
+package com.switchfully.order.domain.outbox;
+
+import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.domain.orders.orderitems.OrderItem;
+import com.switchfully.order.infrastructure.builder.Builder;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An event that is stored (in the same transaction as the change that caused it) to be relayed afterwards,
+ * so the event doesn't get lost when the application stops before its handlers ran.
+ * An event is processed as soon as it was relayed successfully, or relaying it failed too many times: then it's
+ * dead-lettered as well, so it stays in the outbox (to be inspected and replayed by hand) without being retried.
+ */
+@Entity
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "outbox_event_unprocessed_idx", columnList = "processedAt, createdAt"),
+        @Index(name = "outbox_event_dead_lettered_idx", columnList = "deadLetteredAt")
+})
+public class OutboxEvent extends com.switchfully.order.domain.Entity {
+
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType type;
+    private UUID orderId;
+    private UUID orderItemId;
+    private UUID itemId;
+    private int orderedAmount;
+    private Instant createdAt;
+    private Instant processedAt;
+    private Instant deadLetteredAt;
+    private int failedAttempts;
+
+    public OutboxEvent() {
+    }
+
+    private OutboxEvent(OutboxEventBuilder outboxEventBuilder) {
+        super.setId(outboxEventBuilder.id);
+        type = outboxEventBuilder.type;
+        orderId = outboxEventBuilder.orderId;
+        orderItemId = outboxEventBuilder.orderItemId;
+        itemId = outboxEventBuilder.itemId;
+        orderedAmount = outboxEventBuilder.orderedAmount;
+        createdAt = outboxEventBuilder.createdAt;
+    }
+
+    public OutboxEventType getType() {
+        return type;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public UUID getOrderItemId() {
+        return orderItemId;
+    }
+
+    public UUID getItemId() {
+        return itemId;
+    }
+
+    public int getOrderedAmount() {
+        return orderedAmount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getProcessedAt() {
+        return processedAt;
+    }
+
+    public Instant getDeadLetteredAt() {
+        return deadLetteredAt;
+    }
+
+    public int getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    public boolean isProcessed() {
+        return processedAt != null;
+    }
+
+    public boolean isDeadLettered() {
+        return deadLetteredAt != null;
+    }
+
+    public void markProcessed(Instant processedAt) {
+        this.processedAt = processedAt;
+    }
+
+    /**
+     * Gives up on relaying this event: it's processed (so no longer retried), but remains marked as dead-lettered.
+     */
+    public void markDeadLettered(Instant deadLetteredAt) {
+        this.processedAt = deadLetteredAt;
+        this.deadLetteredAt = deadLetteredAt;
+    }
+
+    public void registerFailedAttempt() {
+        failedAttempts++;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "id=" + getId() +
+                ", type=" + type +
+                ", orderId=" + orderId +
+                ", orderItemId=" + orderItemId +
+                ", itemId=" + itemId +
+                ", orderedAmount=" + orderedAmount +
+                ", createdAt=" + createdAt +
+                ", processedAt=" + processedAt +
+                ", deadLetteredAt=" + deadLetteredAt +
+                ", failedAttempts=" + failedAttempts +
+                '}';
+    }
+
+    public static class OutboxEventBuilder extends Builder<OutboxEvent> {
+
+        private UUID id;
+        private OutboxEventType type;
+        private UUID orderId;
+        private UUID orderItemId;
+        private UUID itemId;
+        private int orderedAmount;
+        private Instant createdAt;
+
+        private OutboxEventBuilder() {
+        }
+
+        public static OutboxEventBuilder outboxEvent() {
+            return new OutboxEventBuilder();
+        }
+
+        /**
+         * Prefills the builder with the event of the creation of the provided (already persisted) order item.
+         */
+        public static OutboxEventBuilder orderItemCreated(Order order, OrderItem orderItem) {
+            return outboxEvent()
+                    .withType(OutboxEventType.ORDER_ITEM_CREATED)
+                    .withOrderId(order.getId())
+                    .withOrderItemId(orderItem.getId())
+                    .withItemId(orderItem.getItemId())
+                    .withOrderedAmount(orderItem.getOrderedAmount());
+        }
+
+        @Override
+        public OutboxEvent build() {
+            return new OutboxEvent(this);
+        }
+
+        public OutboxEventBuilder withId(UUID id) {
+            this.id = id;
+            return this;
+        }
+
+        public OutboxEventBuilder withType(OutboxEventType type) {
+            this.type = type;
+            return this;
+        }
+
+        public OutboxEventBuilder withOrderId(UUID orderId) {
+            this.orderId = orderId;
+            return this;
+        }
+
+        public OutboxEventBuilder withOrderItemId(UUID orderItemId) {
+            this.orderItemId = orderItemId;
+            return this;
+        }
+
+        public OutboxEventBuilder withItemId(UUID itemId) {
+            this.itemId = itemId;
+            return this;
+        }
+
+        public OutboxEventBuilder withOrderedAmount(int orderedAmount) {
+            this.orderedAmount = orderedAmount;
+            return this;
+        }
+
+        public OutboxEventBuilder withCreatedAt(Instant createdAt) {
+            this.createdAt = createdAt;
+            return this;
+        }
+    }
+}
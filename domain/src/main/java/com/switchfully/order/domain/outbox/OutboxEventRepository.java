@@ -0,0 +1,39 @@
+package com.switchfully.order.domain.outbox;
+
+import org.hibernate.LockOptions;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    /**
+     * Selects the oldest unprocessed events, without locking them: lock every event with
+     * {@link #findUnprocessedByIdSkippingLocked(UUID)} in the transaction that processes it.
+     */
+    @Query("select e from OutboxEvent e where e.processedAt is null order by e.createdAt")
+    List<OutboxEvent> findUnprocessed(Pageable pageable);
+
+    /**
+     * Selects (and locks) the event, unless it's processed already. When the event is locked by another transaction
+     * (e.g. a relay on another node), it's skipped instead of waited for, so multiple relays can process the outbox
+     * in parallel (on databases that support SKIP LOCKED, such as PostgreSQL).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "" + LockOptions.SKIP_LOCKED))
+    @Query("select e from OutboxEvent e where e.id = :id and e.processedAt is null")
+    Optional<OutboxEvent> findUnprocessedByIdSkippingLocked(@Param("id") UUID id);
+
+    long countByProcessedAtIsNull();
+
+    long countByDeadLetteredAtIsNotNull();
+}
@@ -0,0 +1,5 @@
+package com.switchfully.order.domain.outbox;
+
+public enum OutboxEventType {
+    ORDER_ITEM_CREATED
+}
@@ -0,0 +1,70 @@
+package com.switchfully.order.domain.statistics;
+
+/**
+ * Counts the SQL statements executed by the current thread (e.g. while handling an HTTP request), together with
+ * the time spent executing them on the JDBC connection. Counting happens between {@link #start()} and
+ * {@link #stop()}: statements executed outside of that window (or by other threads) aren't counted.
+ * <p>
+ * The statements are reported by the {@link QueryStatisticsSessionEventListener}, which Hibernate creates
+ * for every session.
+ */
+public final class QueryStatistics {
+
+    private static final ThreadLocal<QueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private int amountOfStatements;
+    private long jdbcTimeInNanos;
+
+    private QueryStatistics() {
+    }
+
+    /**
+     * Starts counting the statements of the current thread (from zero).
+     */
+    public static QueryStatistics start() {
+        QueryStatistics queryStatistics = new QueryStatistics();
+        CURRENT.set(queryStatistics);
+        return queryStatistics;
+    }
+
+    /**
+     * @return the statistics of the current thread, or null when they're not being counted
+     */
+    public static QueryStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops counting the statements of the current thread.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    static void statementExecuted(long jdbcTimeInNanos) {
+        QueryStatistics queryStatistics = CURRENT.get();
+        if (queryStatistics != null) {
+            queryStatistics.amountOfStatements++;
+            queryStatistics.jdbcTimeInNanos += jdbcTimeInNanos;
+        }
+    }
+
+    /**
+     * @return the amount of executed statements, where a JDBC batch counts as one statement
+     */
+    public int getAmountOfStatements() {
+        return amountOfStatements;
+    }
+
+    public long getJdbcTimeInNanos() {
+        return jdbcTimeInNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryStatistics{" +
+                "amountOfStatements=" + amountOfStatements +
+                ", jdbcTimeInNanos=" + jdbcTimeInNanos +
+                '}';
+    }
+}
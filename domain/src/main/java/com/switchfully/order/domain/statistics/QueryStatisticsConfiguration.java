@@ -0,0 +1,19 @@
+package com.switchfully.order.domain.statistics;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class QueryStatisticsConfiguration {
+
+    /**
+     * Lets every Hibernate session report its statements to the {@link QueryStatistics} of the current thread.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer queryStatisticsSessionEventListener() {
+        return hibernateProperties -> hibernateProperties.put("hibernate.session.events.auto",
+                QueryStatisticsSessionEventListener.class.getName());
+    }
+
+}
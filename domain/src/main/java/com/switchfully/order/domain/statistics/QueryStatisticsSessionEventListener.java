@@ -0,0 +1,33 @@
+package com.switchfully.order.domain.statistics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Reports every statement (and JDBC batch) a Hibernate session executes to the {@link QueryStatistics} of the
+ * current thread. Hibernate creates one listener per session (see {@link QueryStatisticsConfiguration}).
+ */
+public class QueryStatisticsSessionEventListener extends BaseSessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryStatistics.statementExecuted(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryStatistics.statementExecuted(System.nanoTime() - batchStart);
+    }
+}
@@ -0,0 +1,45 @@
+-- The schema as it was before it was managed by migrations (as Hibernate generated it from the entities).
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate), so it only runs on new ones.
+
+create table customer (
+    id                   uuid not null,
+    firstname            varchar(255),
+    lastname             varchar(255),
+    local_part           varchar(255),
+    domain               varchar(255),
+    complete             varchar(255),
+    street_name          varchar(255),
+    house_number         varchar(255),
+    postal_code          varchar(255),
+    country              varchar(255),
+    number               varchar(255),
+    country_calling_code varchar(255),
+    primary key (id)
+);
+
+create table item (
+    id              uuid not null,
+    name            varchar(255),
+    description     varchar(255),
+    amount          numeric(19, 2),
+    amount_of_stock int4 not null,
+    primary key (id)
+);
+
+create table orders (
+    id          uuid not null,
+    customer_id uuid,
+    primary key (id),
+    constraint orders_customer_fk foreign key (customer_id) references customer
+);
+
+create table order_item (
+    id             uuid not null,
+    order_id       uuid,
+    item_id        uuid,
+    amount         numeric(19, 2),
+    ordered_amount int4 not null,
+    shipping_date  date,
+    primary key (id),
+    constraint order_item_order_fk foreign key (order_id) references orders
+);
@@ -0,0 +1,2 @@
+-- The order items shipping on a date (OrderRepository.findAllOrderItemsShippingOn)
+create index order_item_shipping_date_idx on order_item (shipping_date);
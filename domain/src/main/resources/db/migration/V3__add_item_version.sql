@@ -0,0 +1,2 @@
+-- Incremented by every change of the stock of an item, to detect concurrent changes (StockEngine OPTIMISTIC)
+alter table item add column version int8 not null default 0;
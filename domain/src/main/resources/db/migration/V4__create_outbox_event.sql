@@ -0,0 +1,15 @@
+-- The events of the transactional outbox, relayed after the order that caused them is committed (OutboxRelay)
+create table outbox_event (
+    id              uuid not null,
+    type            varchar(255),
+    order_id        uuid,
+    order_item_id   uuid,
+    item_id         uuid,
+    ordered_amount  int4 not null,
+    created_at      timestamp,
+    processed_at    timestamp,
+    failed_attempts int4 not null,
+    primary key (id)
+);
+
+create index outbox_event_unprocessed_idx on outbox_event (processed_at, created_at);
@@ -0,0 +1,3 @@
+-- An order item is inserted together with its order (instead of being linked to it by a follow-up update),
+-- so it always has an order
+alter table order_item alter column order_id set not null;
@@ -0,0 +1,25 @@
+-- The read model of the customer order report (CustomerOrderReportService), updated with every new order
+create table order_report_line (
+    id                uuid not null,
+    customer_id       uuid,
+    order_id          uuid,
+    order_total_price numeric(19, 2),
+    ordered_at        timestamp,
+    item_id           uuid,
+    item_name         varchar(255),
+    ordered_amount    int4 not null,
+    total_price       numeric(19, 2),
+    primary key (id)
+);
+
+create index order_report_line_customer_idx on order_report_line (customer_id, ordered_at);
+
+create table customer_order_report (
+    id                        uuid not null,
+    customer_id               uuid,
+    amount_of_orders          int4 not null,
+    total_price_of_all_orders numeric(19, 2),
+    primary key (id)
+);
+
+create unique index customer_order_report_customer_idx on customer_order_report (customer_id);
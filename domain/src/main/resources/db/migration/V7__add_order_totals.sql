@@ -0,0 +1,6 @@
+-- The total price and amount of order items of an order, stored with the order. The totals of the existing orders
+-- are summed from their order items at startup (OrderRepository.storeMissingTotals, for every total_price that is null)
+alter table orders add column total_price numeric(19, 2);
+alter table orders add column amount_of_order_items int4 not null default 0;
+
+create index orders_total_price_idx on orders (total_price);
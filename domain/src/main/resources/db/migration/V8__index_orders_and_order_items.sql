@@ -0,0 +1,12 @@
+-- Postgres doesn't index foreign keys by itself: without these indexes, selecting the orders of a customer
+-- or the order items of an order scans the whole table.
+
+-- The orders of a customer (OrderRepository.findAllByCustomer, the orders and the report of a customer)
+create index orders_customer_idx on orders (customer_id);
+
+-- The order items of (a batch of) orders. Includes the price and the ordered amount of the order items,
+-- so the totals of an order (OrderRepository.storeMissingTotals) are summed from the index only.
+create index order_item_order_idx on order_item (order_id, amount, ordered_amount);
+
+-- The order items of an item
+create index order_item_item_idx on order_item (item_id);
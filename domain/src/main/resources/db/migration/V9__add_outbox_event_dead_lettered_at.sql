@@ -0,0 +1,4 @@
+-- The events the OutboxRelay gave up on, kept in the outbox to be inspected (and counted by a metric)
+alter table outbox_event add column dead_lettered_at timestamp;
+
+create index outbox_event_dead_lettered_idx on outbox_event (dead_lettered_at);
@@ -0,0 +1,49 @@
+package com.switchfully.order.domain;
+
+import com.switchfully.order.TestApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application on an empty embedded Postgres database, letting Flyway apply every migration and Hibernate
+ * validate the migrated schema against the entities (as in production, see spring.jpa.hibernate.ddl-auto).
+ */
+class SchemaMigrationIntegrationTest {
+
+    private EmbeddedPostgres embeddedPostgres;
+
+    @BeforeEach
+    void startDatabase() throws IOException {
+        embeddedPostgres = EmbeddedPostgres.start();
+    }
+
+    @AfterEach
+    void stopDatabase() throws IOException {
+        embeddedPostgres.close();
+    }
+
+    @Test
+    void givenAnEmptyDatabase_thenApplyEveryMigrationAndMatchTheEntities() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TestApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + embeddedPostgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.flyway.enabled=true",
+                        "--spring.jpa.hibernate.ddl-auto=validate")) {
+            List<String> appliedVersions = context.getBean(JdbcTemplate.class).queryForList(
+                    "select version from flyway_schema_history where success order by installed_rank", String.class);
+
+            assertThat(appliedVersions).containsExactly("1", "2", "3", "4", "5", "6", "7", "8", "9");
+        }
+    }
+}
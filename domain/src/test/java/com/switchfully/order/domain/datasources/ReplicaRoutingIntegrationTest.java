@@ -0,0 +1,81 @@
+package com.switchfully.order.domain.datasources;
+
+import com.switchfully.order.IntegrationTest;
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.domain.items.ItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.inject.Inject;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static com.switchfully.order.domain.items.ItemTestBuilder.anItem;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the JPA repositories on two separate in-memory databases, a primary and a replica, to check that the
+ * transactions of the JPA transaction manager are routed to the right one. Hibernate only creates the schema on
+ * the primary, so the item table of the replica is created by hand.
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "order.datasource.replica.jdbc-url=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ReplicaRoutingIntegrationTest extends IntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    @Inject
+    private ItemRepository itemRepository;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void createTheItemTableOnTheReplica() {
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL));
+        replica.execute("create table if not exists item (id binary(255) not null, name varchar(255), " +
+                "description varchar(255), amount decimal(19, 2), amount_of_stock integer not null, " +
+                "version bigint not null, primary key (id))");
+        replica.execute("delete from item");
+    }
+
+    @Test
+    void givenAReadWriteTransaction_thenWriteAndReadThePrimary() {
+        Item item = inTransaction(false, () -> itemRepository.save(anItem().withName("On the primary").build()));
+
+        Optional<Item> itemOnThePrimary = inTransaction(false, () -> itemRepository.findById(item.getId()));
+
+        assertThat(itemOnThePrimary).hasValueSatisfying(
+                foundItem -> assertThat(foundItem.getName()).isEqualTo("On the primary"));
+        assertThat(replica.queryForObject("select count(*) from item", Integer.class)).isEqualTo(0);
+    }
+
+    @Test
+    void givenAReadOnlyTransaction_thenReadTheReplica() {
+        Item item = inTransaction(false, () -> itemRepository.save(anItem().withName("On the primary").build()));
+        UUID itemOnlyOnTheReplica = UUID.randomUUID();
+        replica.update("insert into item (id, name, amount_of_stock, version) values (?, ?, 5, 0)",
+                itemOnlyOnTheReplica, "On the replica");
+
+        assertThat(inTransaction(true, () -> itemRepository.findById(item.getId()))).isEmpty();
+        assertThat(inTransaction(true, () -> itemRepository.findById(itemOnlyOnTheReplica))).hasValueSatisfying(
+                foundItem -> assertThat(foundItem.getName()).isEqualTo("On the replica"));
+    }
+
+    private <T> T inTransaction(boolean readOnly, Supplier<T> action) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> action.get());
+    }
+}
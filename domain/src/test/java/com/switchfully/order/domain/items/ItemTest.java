@@ -26,6 +26,18 @@ class ItemTest {
                 .withMessage("Decrementing the stock amount of an item " + itemId.toString() + " below 0 is not allowed");
     }
 
+    @Test
+    void updateWith_overwritesTheDetailsButKeepsTheIdentity() {
+        UUID itemId = UUID.randomUUID();
+        Item item = anItem().withId(itemId).withName("Headphone").withAmountOfStock(7).build();
+
+        item.updateWith(anItem().withId(UUID.randomUUID()).withName("Wireless headphone").withAmountOfStock(12).build());
+
+        assertThat(item.getId()).isEqualTo(itemId);
+        assertThat(item.getName()).isEqualTo("Wireless headphone");
+        assertThat(item.getAmountOfStock()).isEqualTo(12);
+    }
+
     @Test
     void getStockUrgency_givenAmountOfStockLowerThan5_thenLowStockUrgency() {
         Item item = anItem().withAmountOfStock(4).build();
@@ -0,0 +1,69 @@
+package com.switchfully.order.domain.items.prices;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MoneyAccumulatorTest {
+
+    @Test
+    void givenNothingAdded_thenZero() {
+        assertThat(new MoneyAccumulator().toBigDecimal()).isEqualTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void add_thenEqualToSummingBigDecimals() {
+        BigDecimal[] amounts = {new BigDecimal(40.50), BigDecimal.valueOf(10.90), BigDecimal.valueOf(25),
+                new BigDecimal("0.001")};
+        MoneyAccumulator moneyAccumulator = new MoneyAccumulator();
+        BigDecimal expectedSum = BigDecimal.ZERO;
+
+        for (BigDecimal amount : amounts) {
+            moneyAccumulator.add(amount, 3);
+            expectedSum = expectedSum.add(amount.multiply(BigDecimal.valueOf(3)));
+        }
+
+        assertThat(moneyAccumulator.toBigDecimal()).isEqualTo(expectedSum);
+    }
+
+    @Test
+    void add_givenASumThatNoLongerFitsALong_thenContinueWithBigDecimals() {
+        BigDecimal hugeAmount = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+
+        MoneyAccumulator moneyAccumulator = new MoneyAccumulator()
+                .add(hugeAmount)
+                .add(hugeAmount)
+                .add(new BigDecimal("0.005"));
+
+        assertThat(moneyAccumulator.toBigDecimal())
+                .isEqualTo(hugeAmount.add(hugeAmount).add(new BigDecimal("0.005")));
+    }
+
+    @Test
+    void add_givenAnAmountWithMoreDigitsThanFitALong_thenContinueWithBigDecimals() {
+        BigDecimal amountWithManyDigits = new BigDecimal("123456789012345678901.25");
+
+        MoneyAccumulator moneyAccumulator = new MoneyAccumulator()
+                .add(new BigDecimal("10.5"), 2)
+                .add(amountWithManyDigits, 3);
+
+        assertThat(moneyAccumulator.toBigDecimal())
+                .isEqualTo(new BigDecimal("21.0").add(amountWithManyDigits.multiply(BigDecimal.valueOf(3))));
+    }
+
+    @Test
+    void toFloat_thenOnlyRoundOnceAfterSumming() {
+        MoneyAccumulator moneyAccumulator = new MoneyAccumulator();
+        float floatSum = 0f;
+
+        for (int i = 0; i < 1000; i++) {
+            moneyAccumulator.add(Price.create(new BigDecimal("0.10")));
+            floatSum += 0.10f;
+        }
+
+        assertThat(moneyAccumulator.toFloat()).isEqualTo(100f);
+        assertThat(floatSum).isNotEqualTo(100f);
+    }
+}
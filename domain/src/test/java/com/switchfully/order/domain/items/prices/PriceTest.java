@@ -25,4 +25,11 @@ public class PriceTest {
         Assertions.assertThat(price1.sameAs(price2)).isTrue();
     }
 
+    @Test
+    void createFromFloat_thenTakeTheDecimalValueThatWasWritten() {
+        Price price = Price.createFromFloat(10.9f);
+
+        Assertions.assertThat(price.getAmount()).isEqualTo(new BigDecimal("10.9"));
+    }
+
 }
@@ -0,0 +1,117 @@
+package com.switchfully.order.domain.orders;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migrates an embedded Postgres database with the Flyway migrations, fills it with {@link #AMOUNT_OF_ORDERS} orders
+ * (of one order item each) and checks, using EXPLAIN, that the queries on the orders of a customer and on the
+ * order items of an order, an item or a shipping date are resolved through an index instead of a table scan.
+ */
+class OrderIndexesIntegrationTest {
+
+    private static final int AMOUNT_OF_CUSTOMERS = 10_000;
+    private static final int AMOUNT_OF_ITEMS = 1_000;
+    private static final int AMOUNT_OF_ORDERS = 1_000_000;
+    private static final int AMOUNT_OF_SHIPPING_DAYS = 365;
+
+    private static EmbeddedPostgres embeddedPostgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrateAndFillDatabase() throws IOException {
+        embeddedPostgres = EmbeddedPostgres.start();
+        DataSource dataSource = embeddedPostgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into customer (id, firstname, lastname) " +
+                "select md5('customer' || i)::uuid, 'Firstname ' || i, 'Lastname ' || i " +
+                "from generate_series(1, ?) i", AMOUNT_OF_CUSTOMERS);
+        jdbcTemplate.update("insert into item (id, name, amount, amount_of_stock, version) " +
+                "select md5('item' || i)::uuid, 'Item ' || i, 9.95, 100, 0 " +
+                "from generate_series(1, ?) i", AMOUNT_OF_ITEMS);
+        jdbcTemplate.update("insert into orders (id, customer_id, total_price, amount_of_order_items) " +
+                "select md5('order' || i)::uuid, md5('customer' || (i % ? + 1))::uuid, 19.90, 1 " +
+                "from generate_series(1, ?) i", AMOUNT_OF_CUSTOMERS, AMOUNT_OF_ORDERS);
+        jdbcTemplate.update("insert into order_item (id, order_id, item_id, amount, ordered_amount, shipping_date) " +
+                "select md5('order_item' || i)::uuid, md5('order' || i)::uuid, md5('item' || (i % ? + 1))::uuid, " +
+                "9.95, 2, current_date + (i % ?) " +
+                "from generate_series(1, ?) i", AMOUNT_OF_ITEMS, AMOUNT_OF_SHIPPING_DAYS, AMOUNT_OF_ORDERS);
+        jdbcTemplate.execute("vacuum analyze");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        embeddedPostgres.close();
+    }
+
+    @Test
+    void ordersOfACustomer_areSelectedThroughTheCustomerIndex() {
+        String plan = explain("select o.* from orders o where o.customer_id = ?", idOf("customer", 42));
+
+        assertThat(plan).contains("orders_customer_idx");
+    }
+
+    @Test
+    void orderItemsOfABatchOfOrders_areSelectedThroughTheOrderIndex() {
+        String plan = explain("select oi.* from order_item oi where oi.order_id in (?, ?, ?)",
+                idOf("order", 1), idOf("order", 2), idOf("order", 3));
+
+        assertThat(plan).contains("order_item_order_idx");
+    }
+
+    @Test
+    void ordersOfACustomerWithTheirOrderItems_areSelectedThroughBothIndexes() {
+        String plan = explain("select o.*, oi.* from orders o left join order_item oi on oi.order_id = o.id " +
+                "where o.customer_id = ?", idOf("customer", 42));
+
+        assertThat(plan)
+                .contains("orders_customer_idx")
+                .contains("order_item_order_idx");
+    }
+
+    @Test
+    void totalsOfAnOrder_areSummedFromTheOrderIndexOnly() {
+        String plan = explain("select coalesce(sum(oi.amount * oi.ordered_amount), 0), count(*) " +
+                "from order_item oi where oi.order_id = ?", idOf("order", 42));
+
+        assertThat(plan).contains("Index Only Scan using order_item_order_idx");
+    }
+
+    @Test
+    void orderItemsOfAnItem_areSelectedThroughTheItemIndex() {
+        String plan = explain("select oi.* from order_item oi where oi.item_id = ?", idOf("item", 42));
+
+        assertThat(plan).contains("order_item_item_idx");
+    }
+
+    @Test
+    void orderItemsShippingOnADate_areSelectedThroughTheShippingDateIndex() {
+        String plan = explain("select oi.* from order_item oi where oi.shipping_date = ?",
+                Date.valueOf(LocalDate.now().plusDays(7)));
+
+        assertThat(plan).contains("order_item_shipping_date_idx");
+    }
+
+    private static String explain(String query, Object... parameters) {
+        List<String> planLines = jdbcTemplate.queryForList("explain " + query, String.class, parameters);
+        return String.join("\n", planLines);
+    }
+
+    private static UUID idOf(String prefix, int index) {
+        return jdbcTemplate.queryForObject("select md5(? || ?)::uuid", UUID.class, prefix, String.valueOf(index));
+    }
+}
@@ -0,0 +1,111 @@
+package com.switchfully.order.domain.orders;
+
+import com.switchfully.order.domain.customers.Customer;
+import com.switchfully.order.domain.customers.CustomerRepository;
+import com.switchfully.order.domain.orders.orderitems.OrderItem;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.switchfully.order.domain.customers.CustomerTestBuilder.aCustomer;
+import static com.switchfully.order.domain.orders.OrderTestBuilder.anOrder;
+import static com.switchfully.order.domain.orders.orderitems.OrderItemTestBuilder.anOrderItem;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements Hibernate prepares to insert orders: with JDBC batching enabled, that should be one
+ * (batched) insert per table, no matter how many items the orders contain.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=100",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.switchfully.order.domain.orders.OrderInsertStatementsTest$RecordingStatementInspector"
+})
+class OrderInsertStatementsTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderInsertStatementsTest.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void save_givenAnOrderWithManyItems_thenInsertTheOrderAndItsItemsWithoutAdditionalUpdates() {
+        Customer customer = customerRepository.save(aCustomer().build());
+        entityManager.flush();
+
+        List<String> statementsForOneItem = statementsToSave(List.of(anOrderWithItems(customer, 1)));
+        List<String> statementsForTwentyItems = statementsToSave(List.of(anOrderWithItems(customer, 20)));
+
+        assertThat(statementsForTwentyItems).hasSameSizeAs(statementsForOneItem);
+        assertThat(statementsForTwentyItems)
+                .filteredOn(statement -> statement.startsWith("insert into order_item")).hasSize(1);
+        assertThat(statementsForTwentyItems)
+                .noneMatch(statement -> statement.startsWith("update order_item"));
+    }
+
+    @Test
+    void saveAll_givenManyOrders_thenInsertThemWithAConstantAmountOfStatements() {
+        Customer customer = customerRepository.save(aCustomer().build());
+        entityManager.flush();
+        List<Order> orders = IntStream.range(0, 10)
+                .mapToObj(index -> anOrderWithItems(customer, 5))
+                .collect(Collectors.toList());
+
+        List<String> statements = statementsToSave(orders);
+
+        LOGGER.info("Inserting {} orders of 5 items took {} statements: {}", orders.size(), statements.size(),
+                statements);
+        assertThat(statements)
+                .filteredOn(statement -> statement.startsWith("insert into orders")).hasSize(1);
+        assertThat(statements)
+                .filteredOn(statement -> statement.startsWith("insert into order_item")).hasSize(1);
+        assertThat(statements).hasSize(2);
+    }
+
+    private List<String> statementsToSave(List<Order> orders) {
+        RecordingStatementInspector.STATEMENTS.clear();
+        orderRepository.saveAll(orders);
+        entityManager.flush();
+        List<String> statements = List.copyOf(RecordingStatementInspector.STATEMENTS);
+        entityManager.clear();
+        return statements;
+    }
+
+    private Order anOrderWithItems(Customer customer, int amountOfItems) {
+        return anOrder()
+                .withCustomer(customer)
+                .withOrderItems(IntStream.range(0, amountOfItems)
+                        .mapToObj(index -> anOrderItem().build())
+                        .toArray(OrderItem[]::new))
+                .build();
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.trim().toLowerCase());
+            return sql;
+        }
+    }
+}
@@ -3,7 +3,12 @@ package com.switchfully.order.domain.orders;
 import com.switchfully.order.domain.customers.Customer;
 import com.switchfully.order.domain.customers.CustomerRepository;
 import com.switchfully.order.domain.customers.CustomerTestBuilder;
+import com.switchfully.order.domain.items.prices.Price;
+import com.switchfully.order.domain.orders.orderitems.OrderItem;
+import com.switchfully.order.domain.orders.orderitems.ShippableOrderItem;
+import com.switchfully.order.domain.statistics.QueryStatistics;
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -11,15 +16,28 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceUnitUtil;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.switchfully.order.domain.orders.OrderTestBuilder.anOrder;
+import static com.switchfully.order.domain.orders.orderitems.OrderItemTestBuilder.anOrderItem;
 import static org.mockito.Mockito.when;
 
 @DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session.events.auto=" +
+        "com.switchfully.order.domain.statistics.QueryStatisticsSessionEventListener")
 class OrderRepositoryTest {
 
     @Autowired
@@ -28,6 +46,14 @@ class OrderRepositoryTest {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @AfterEach
+    void stopCountingQueries() {
+        QueryStatistics.stop();
+    }
+
     @Test
     void getOrdersForCustomer()  {
         Customer customer = CustomerTestBuilder.aCustomer().withId(UUID.randomUUID()).build();
@@ -45,4 +71,201 @@ class OrderRepositoryTest {
 
     }
 
+    @Test
+    void findAllByCustomer_thenLoadTheOrderItemsOnDemandForAllOrdersAtOnce() {
+        Customer customer = customerRepository.save(CustomerTestBuilder.aCustomer().build());
+        orderRepository.save(anOrder().withCustomer(customer).build());
+        orderRepository.save(anOrder().withCustomer(customer).build());
+        orderRepository.save(anOrder().withCustomer(customer).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Order> ordersForCustomer = orderRepository.findAllByCustomer(customer);
+
+        Assertions.assertThat(ordersForCustomer).hasSize(3)
+                .noneMatch(order -> persistenceUnitUtil().isLoaded(order, "orderItems"));
+        QueryStatistics queryStatistics = QueryStatistics.start();
+        ordersForCustomer.forEach(order -> Assertions.assertThat(order.getOrderItems()).hasSize(2));
+        Assertions.assertThat(queryStatistics.getAmountOfStatements()).isEqualTo(1);
+    }
+
+    @Test
+    void findWithCustomerAndOrderItemsById_thenFetchTheCustomerAndOrderItemsInOneQuery() {
+        Customer customer = customerRepository.save(CustomerTestBuilder.aCustomer().build());
+        Order order = orderRepository.save(anOrder().withCustomer(customer).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        QueryStatistics queryStatistics = QueryStatistics.start();
+        Order foundOrder = orderRepository.findWithCustomerAndOrderItemsById(order.getId()).orElseThrow();
+
+        Assertions.assertThat(persistenceUnitUtil().isLoaded(foundOrder, "customer")).isTrue();
+        Assertions.assertThat(persistenceUnitUtil().isLoaded(foundOrder, "orderItems")).isTrue();
+        Assertions.assertThat(foundOrder.getOrderItems()).hasSize(2);
+        Assertions.assertThat(queryStatistics.getAmountOfStatements()).isEqualTo(1);
+    }
+
+    @Test
+    void findAllWithCustomerAndOrderItemsByCustomerId_thenFetchTheOrdersWithTheirCustomerAndOrderItemsInOneQuery() {
+        Customer customer = customerRepository.save(CustomerTestBuilder.aCustomer().build());
+        Customer otherCustomer = customerRepository.save(CustomerTestBuilder.aCustomer().build());
+        orderRepository.save(anOrder().withCustomer(customer).build());
+        orderRepository.save(anOrder().withCustomer(customer)
+                .withOrderItems(anOrderItem().build(), anOrderItem().build(), anOrderItem().build())
+                .build());
+        orderRepository.save(anOrder().withCustomer(otherCustomer).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        QueryStatistics queryStatistics = QueryStatistics.start();
+        List<Order> ordersForCustomer = orderRepository.findAllWithCustomerAndOrderItemsByCustomerId(customer.getId());
+        ordersForCustomer.forEach(order -> {
+            order.getCustomer().getAddress().getCountry();
+            order.getOrderItems().size();
+        });
+
+        Assertions.assertThat(ordersForCustomer).hasSize(2)
+                .allMatch(order -> order.getCustomer().getId().equals(customer.getId()));
+        Assertions.assertThat(ordersForCustomer).extracting(order -> order.getOrderItems().size())
+                .containsExactlyInAnyOrder(2, 3);
+        Assertions.assertThat(queryStatistics.getAmountOfStatements()).isEqualTo(1);
+    }
+
+    @Test
+    void findAllWithCustomerAndOrderItems() {
+        Customer customer = customerRepository.save(CustomerTestBuilder.aCustomer().build());
+        Order order1 = orderRepository.save(anOrder().withCustomer(customer).build());
+        Order order2 = orderRepository.save(anOrder().withCustomer(customer).build());
+
+        List<Order> orders = orderRepository.findAllWithCustomerAndOrderItems();
+
+        Assertions.assertThat(orders).containsExactlyInAnyOrder(order1, order2);
+        Assertions.assertThat(orders).allSatisfy(order -> {
+            Assertions.assertThat(order.getCustomer().getAddress()).isNotNull();
+            Assertions.assertThat(order.getOrderItems()).hasSize(2);
+        });
+    }
+
+    @Test
+    void findAllOrderItemsShippingOn_onlyIncludesTheOrderItemsShippingOnThatDate() {
+        Customer customer = customerRepository.save(CustomerTestBuilder.aCustomer().build());
+        Clock yesterday = Clock.offset(Clock.systemDefaultZone(), Duration.ofDays(-1));
+        OrderItem orderItemShippingToday = anOrderItem()
+                .withOrderedAmount(3).withShippingDateBasedOnAvailableItemStock(10).build(yesterday);
+        Order order = orderRepository.save(anOrder().withCustomer(customer)
+                .withOrderItems(orderItemShippingToday, anOrderItem().build())
+                .build());
+        orderRepository.save(anOrder().withCustomer(customer).build());
+
+        List<ShippableOrderItem> orderItemsShippingToday = orderRepository.findAllOrderItemsShippingOn(LocalDate.now());
+
+        Assertions.assertThat(orderItemsShippingToday).hasSize(1);
+        Assertions.assertThat(orderItemsShippingToday.get(0).getOrderId()).isEqualTo(order.getId());
+        Assertions.assertThat(orderItemsShippingToday.get(0).getItemId()).isEqualTo(orderItemShippingToday.getItemId());
+        Assertions.assertThat(orderItemsShippingToday.get(0).getOrderedAmount()).isEqualTo(3);
+        Assertions.assertThat(orderItemsShippingToday.get(0).getShippingDate()).isEqualTo(LocalDate.now());
+        Assertions.assertThat(orderItemsShippingToday.get(0).getAddress())
+                .isEqualToComparingFieldByField(customer.getAddress());
+    }
+
+    @Test
+    void findPageOfIdsAfter_continuesWhereThePreviousPageStopped() {
+        Customer customer = customerRepository.save(CustomerTestBuilder.aCustomer().build());
+        List<UUID> savedOrderIds = Stream.generate(() -> orderRepository.save(anOrder().withCustomer(customer).build()))
+                .limit(5)
+                .map(Order::getId)
+                .collect(Collectors.toList());
+
+        List<UUID> firstPage = orderRepository.findFirstPageOfIds(PageRequest.of(0, 3));
+        List<UUID> secondPage = orderRepository.findPageOfIdsAfter(firstPage.get(2), PageRequest.of(0, 3));
+
+        Assertions.assertThat(firstPage).hasSize(3);
+        Assertions.assertThat(secondPage).hasSize(2);
+        Assertions.assertThat(Stream.concat(firstPage.stream(), secondPage.stream()))
+                .containsExactlyInAnyOrderElementsOf(savedOrderIds);
+        Assertions.assertThat(orderRepository.findAllWithCustomerAndOrderItemsByIdIn(secondPage))
+                .extracting(Order::getId)
+                .containsExactlyElementsOf(secondPage);
+    }
+
+    @Test
+    void streamAllIdsOrderedById() {
+        Customer customer = customerRepository.save(CustomerTestBuilder.aCustomer().build());
+        Order order1 = orderRepository.save(anOrder().withCustomer(customer).build());
+        Order order2 = orderRepository.save(anOrder().withCustomer(customer).build());
+
+        try (Stream<UUID> orderIds = orderRepository.streamAllIdsOrderedById()) {
+            Assertions.assertThat(orderIds.collect(Collectors.toList()))
+                    .containsExactlyInAnyOrder(order1.getId(), order2.getId());
+        }
+    }
+
+    @Test
+    void save_thenStoreTheTotalPriceAndAmountOfOrderItems() {
+        Customer customer = customerRepository.save(CustomerTestBuilder.aCustomer().build());
+        Order order = orderRepository.save(anOrder().withCustomer(customer)
+                .withOrderItems(anOrderItemPricedAt(10, 2), anOrderItemPricedAt(2.5, 4))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Object[] storedTotals = (Object[]) entityManager
+                .createNativeQuery("select total_price, amount_of_order_items from orders where id = :id")
+                .setParameter("id", order.getId())
+                .getSingleResult();
+
+        Assertions.assertThat((BigDecimal) storedTotals[0]).isEqualByComparingTo(BigDecimal.valueOf(30));
+        Assertions.assertThat(((Number) storedTotals[1]).intValue()).isEqualTo(2);
+    }
+
+    @Test
+    void findAllWithTotalPriceOver() {
+        Customer customer = customerRepository.save(CustomerTestBuilder.aCustomer().build());
+        Order cheapOrder = orderRepository.save(anOrder().withCustomer(customer)
+                .withOrderItems(anOrderItemPricedAt(5, 1)).build());
+        Order expensiveOrder = orderRepository.save(anOrder().withCustomer(customer)
+                .withOrderItems(anOrderItemPricedAt(100, 2)).build());
+        Order mostExpensiveOrder = orderRepository.save(anOrder().withCustomer(customer)
+                .withOrderItems(anOrderItemPricedAt(100, 3)).build());
+
+        List<Order> ordersOver50 = orderRepository.findAllWithTotalPriceOver(BigDecimal.valueOf(50));
+
+        Assertions.assertThat(ordersOver50)
+                .extracting(Order::getId)
+                .containsSubsequence(mostExpensiveOrder.getId(), expensiveOrder.getId())
+                .doesNotContain(cheapOrder.getId());
+    }
+
+    @Test
+    void storeMissingTotals_givenAnOrderWithoutStoredTotals_thenStoreItsTotals() {
+        Customer customer = customerRepository.save(CustomerTestBuilder.aCustomer().build());
+        Order order = orderRepository.save(anOrder().withCustomer(customer)
+                .withOrderItems(anOrderItemPricedAt(10, 2), anOrderItemPricedAt(1, 3)).build());
+        entityManager.flush();
+        entityManager.createNativeQuery("update orders set total_price = null, amount_of_order_items = 0 where id = :id")
+                .setParameter("id", order.getId())
+                .executeUpdate();
+
+        int updatedOrders = orderRepository.storeMissingTotals();
+        entityManager.clear();
+
+        Assertions.assertThat(updatedOrders).isGreaterThanOrEqualTo(1);
+        Object storedTotalPrice = entityManager
+                .createNativeQuery("select total_price from orders where id = :id")
+                .setParameter("id", order.getId())
+                .getSingleResult();
+        Assertions.assertThat((BigDecimal) storedTotalPrice).isEqualByComparingTo(BigDecimal.valueOf(23));
+    }
+
+    private PersistenceUnitUtil persistenceUnitUtil() {
+        return entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+    }
+
+    private OrderItem anOrderItemPricedAt(double itemPrice, int orderedAmount) {
+        return anOrderItem()
+                .withItemPrice(Price.create(BigDecimal.valueOf(itemPrice)))
+                .withOrderedAmount(orderedAmount)
+                .build();
+    }
+
 }
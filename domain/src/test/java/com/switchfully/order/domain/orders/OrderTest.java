@@ -4,6 +4,7 @@ import com.switchfully.order.domain.items.prices.Price;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static com.switchfully.order.domain.orders.orderitems.OrderItemTestBuilder.anOrderItem;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,4 +29,27 @@ class OrderTest {
                 .isTrue();
     }
 
+    @Test
+    void getAmountOfOrderItems() {
+        Order order = OrderTestBuilder.anOrder()
+                .withOrderItems(anOrderItem().build(), anOrderItem().build(), anOrderItem().build())
+                .build();
+
+        assertThat(order.getAmountOfOrderItems()).isEqualTo(3);
+    }
+
+    @Test
+    void sumTotalPrices_thenTotalPriceIsTheExactSumOfTheTotalPricesOfTheOrders() {
+        Order order1 = OrderTestBuilder.anOrder()
+                .withOrderItems(anOrderItem().withOrderedAmount(3).withItemPrice(Price.create(new BigDecimal("0.10"))).build())
+                .build();
+        Order order2 = OrderTestBuilder.anOrder()
+                .withOrderItems(anOrderItem().withOrderedAmount(1).withItemPrice(Price.create(new BigDecimal("10.9"))).build())
+                .build();
+
+        Price totalPrice = Order.sumTotalPrices(List.of(order1, order2));
+
+        assertThat(totalPrice.getAmount()).isEqualTo(new BigDecimal("11.20"));
+    }
+
 }
@@ -36,6 +36,18 @@ class OrderItemTest {
         assertThat(orderItem.getShippingDate()).isEqualTo(LocalDate.now(fixedClock).plusDays(7));
     }
 
+    @Test
+    void getShippingDate_givenAStoredShippingDate_thenReturnTheStoredShippingDate() {
+        LocalDate storedShippingDate = LocalDate.of(2019, 10, 1);
+        OrderItem orderItem = orderItem()
+                .withOrderedAmount(5)
+                .withShippingDateBasedOnAvailableItemStock(10)
+                .withShippingDate(storedShippingDate)
+                .build();
+
+        assertThat(orderItem.getShippingDate()).isEqualTo(storedShippingDate);
+    }
+
     @Test
     void getTotalPrice() {
         OrderItem orderItem = orderItem()
@@ -5,6 +5,7 @@ import com.switchfully.order.domain.orders.orderitems.OrderItem.OrderItemBuilder
 import com.switchfully.order.infrastructure.builder.Builder;
 
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.util.UUID;
 
 public class OrderItemTestBuilder extends Builder<OrderItem>{
@@ -33,6 +34,14 @@ public class OrderItemTestBuilder extends Builder<OrderItem>{
         return orderItemBuilder.build();
     }
 
+    /**
+     * Builds the order item as if it was created at the moment of the provided clock
+     * (which determines its shipping date).
+     */
+    public OrderItem build(Clock clock) {
+        return new OrderItem(orderItemBuilder, clock);
+    }
+
     public OrderItemTestBuilder withItemId(UUID itemId) {
         orderItemBuilder.withItemId(itemId);
         return this;
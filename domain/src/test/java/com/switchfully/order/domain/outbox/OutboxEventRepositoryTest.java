@@ -0,0 +1,79 @@
+package com.switchfully.order.domain.outbox;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static com.switchfully.order.domain.outbox.OutboxEvent.OutboxEventBuilder.outboxEvent;
+
+@DataJpaTest
+class OutboxEventRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void findUnprocessed_returnsTheOldestUnprocessedEventsFirst() {
+        Instant now = Instant.now();
+        OutboxEvent newestEvent = outboxEventRepository.save(anOutboxEventCreatedAt(now));
+        OutboxEvent oldestEvent = outboxEventRepository.save(anOutboxEventCreatedAt(now.minusSeconds(20)));
+        OutboxEvent processedEvent = anOutboxEventCreatedAt(now.minusSeconds(30));
+        processedEvent.markProcessed(now);
+        outboxEventRepository.save(processedEvent);
+        outboxEventRepository.save(anOutboxEventCreatedAt(now.minusSeconds(10)));
+
+        List<OutboxEvent> unprocessedEvents = outboxEventRepository.findUnprocessed(PageRequest.of(0, 2));
+
+        Assertions.assertThat(unprocessedEvents).hasSize(2);
+        Assertions.assertThat(unprocessedEvents.get(0).getId()).isEqualTo(oldestEvent.getId());
+        Assertions.assertThat(unprocessedEvents).extracting(OutboxEvent::getId).doesNotContain(newestEvent.getId());
+        Assertions.assertThat(outboxEventRepository.countByProcessedAtIsNull()).isEqualTo(3);
+    }
+
+    @Test
+    void findUnprocessedByIdSkippingLocked_givenAProcessedEvent_thenReturnNothing() {
+        Instant now = Instant.now();
+        OutboxEvent unprocessedEvent = outboxEventRepository.save(anOutboxEventCreatedAt(now));
+        OutboxEvent processedEvent = anOutboxEventCreatedAt(now);
+        processedEvent.markProcessed(now);
+        outboxEventRepository.save(processedEvent);
+
+        Assertions.assertThat(outboxEventRepository.findUnprocessedByIdSkippingLocked(unprocessedEvent.getId()))
+                .contains(unprocessedEvent);
+        Assertions.assertThat(outboxEventRepository.findUnprocessedByIdSkippingLocked(processedEvent.getId()))
+                .isEmpty();
+    }
+
+    @Test
+    void countByDeadLetteredAtIsNotNull_countsTheDeadLetteredEventsOnly() {
+        Instant now = Instant.now();
+        OutboxEvent deadLetteredEvent = anOutboxEventCreatedAt(now);
+        deadLetteredEvent.markDeadLettered(now);
+        outboxEventRepository.save(deadLetteredEvent);
+        OutboxEvent processedEvent = anOutboxEventCreatedAt(now);
+        processedEvent.markProcessed(now);
+        outboxEventRepository.save(processedEvent);
+        outboxEventRepository.save(anOutboxEventCreatedAt(now));
+
+        Assertions.assertThat(outboxEventRepository.countByDeadLetteredAtIsNotNull()).isEqualTo(1);
+        Assertions.assertThat(outboxEventRepository.countByProcessedAtIsNull()).isEqualTo(1);
+    }
+
+    private OutboxEvent anOutboxEventCreatedAt(Instant createdAt) {
+        return outboxEvent()
+                .withType(OutboxEventType.ORDER_ITEM_CREATED)
+                .withOrderId(UUID.randomUUID())
+                .withOrderItemId(UUID.randomUUID())
+                .withItemId(UUID.randomUUID())
+                .withOrderedAmount(2)
+                .withCreatedAt(createdAt)
+                .build();
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.switchfully.order.domain.statistics;
+
+import com.switchfully.order.domain.customers.CustomerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.persistence.EntityManager;
+import java.util.UUID;
+
+import static com.switchfully.order.domain.customers.CustomerTestBuilder.aCustomer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session.events.auto=" +
+        "com.switchfully.order.domain.statistics.QueryStatisticsSessionEventListener")
+class QueryStatisticsSessionEventListenerTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @AfterEach
+    void stopCounting() {
+        QueryStatistics.stop();
+    }
+
+    @Test
+    void givenStatisticsStarted_thenCountEveryExecutedStatement() {
+        QueryStatistics queryStatistics = QueryStatistics.start();
+
+        customerRepository.findById(UUID.randomUUID());
+        customerRepository.findById(UUID.randomUUID());
+
+        assertThat(queryStatistics.getAmountOfStatements()).isEqualTo(2);
+        assertThat(queryStatistics.getJdbcTimeInNanos()).isPositive();
+
+        customerRepository.save(aCustomer().build());
+        entityManager.flush();
+
+        assertThat(queryStatistics.getAmountOfStatements()).isGreaterThan(2);
+    }
+
+    @Test
+    void givenStatisticsNotStarted_thenCountNothing() {
+        customerRepository.findById(UUID.randomUUID());
+
+        assertThat(QueryStatistics.current()).isNull();
+    }
+}
@@ -0,0 +1,9 @@
+package com.switchfully.order.infrastructure.exceptions;
+
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String request, int amountOfStatements, int budget) {
+        super("Handling " + request + " executed " + amountOfStatements
+                + " SQL statements, which exceeds the budget of " + budget + " statements per request");
+    }
+}
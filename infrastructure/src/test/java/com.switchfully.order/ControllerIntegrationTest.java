@@ -1,19 +1,63 @@
 package com.switchfully.order;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fails every request that executes more SQL statements than the query budget, to catch N+1 queries early.
+ * The budget is the one of the most expensive request (creating an order), the tests hold the other endpoints to
+ * their own (lower) budget using the X-Query-Count header.
+ * <p>
+ * A request of which the response was committed before its statements could be checked (such as a streamed
+ * response) can't fail anymore, so such a request over budget fails the test after it instead.
+ */
 @ExtendWith(SpringExtension.class)
 @SpringBootTest(classes = {TestApplication.class},
-        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "order.queries.budget-per-request=" + ControllerIntegrationTest.QUERY_BUDGET_PER_REQUEST,
+                "order.queries.fail-over-budget=true"
+        })
 public abstract class ControllerIntegrationTest {
 
+    public static final int QUERY_BUDGET_PER_REQUEST = 15;
+
     @LocalServerPort
     private int port;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private double requestsOverBudgetBeforeTest;
+
     public int getPort() {
         return port;
     }
+
+    @BeforeEach
+    void countRequestsOverBudget() {
+        requestsOverBudgetBeforeTest = requestsOverBudget();
+    }
+
+    @AfterEach
+    void assertNoRequestExceededTheQueryBudget() {
+        assertThat(requestsOverBudget())
+                .as("requests that executed more than %s SQL statements", QUERY_BUDGET_PER_REQUEST)
+                .isEqualTo(requestsOverBudgetBeforeTest);
+    }
+
+    private double requestsOverBudget() {
+        return meterRegistry.find("order.requests.over-budget").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
 }
@@ -0,0 +1,29 @@
+package com.switchfully.order.loadtests;
+
+/**
+ * The endpoints driven by the load test. The share of every endpoint in the workload is configured with
+ * loadtest.mix.{@link #getKey() key} (relative to the other endpoints).
+ */
+enum Endpoint {
+
+    CREATE_ORDER("POST /orders", "create-order"),
+    GET_ALL_ORDERS("GET /orders", "get-all-orders"),
+    GET_ORDERS_PAGE("GET /orders?limit=50", "get-orders-page"),
+    GET_CUSTOMER_REPORT("GET /orders/customers/{id}", "get-customer-report");
+
+    private final String label;
+    private final String key;
+
+    Endpoint(String label, String key) {
+        this.label = label;
+        this.key = key;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,54 @@
+package com.switchfully.order.loadtests;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency of every request to one endpoint, to report its percentiles afterwards.
+ * All latencies are kept (a load test of a few minutes fits in memory easily), so the percentiles are exact.
+ */
+final class LatencyRecorder {
+
+    private long[] latenciesInNanos = new long[1024];
+    private int amountOfRequests;
+    private int amountOfFailures;
+
+    synchronized void record(long latencyInNanos, boolean successful) {
+        if (amountOfRequests == latenciesInNanos.length) {
+            latenciesInNanos = Arrays.copyOf(latenciesInNanos, latenciesInNanos.length * 2);
+        }
+        latenciesInNanos[amountOfRequests++] = latencyInNanos;
+        if (!successful) {
+            amountOfFailures++;
+        }
+    }
+
+    synchronized int getAmountOfRequests() {
+        return amountOfRequests;
+    }
+
+    synchronized int getAmountOfFailures() {
+        return amountOfFailures;
+    }
+
+    /**
+     * @param percentile between 0 (exclusive) and 100 (inclusive), e.g. 99.9
+     * @return the latency (in milliseconds) that the given percentage of the requests didn't exceed
+     * (using the nearest-rank method), or 0 when nothing was recorded
+     */
+    synchronized double getPercentileInMillis(double percentile) {
+        if (amountOfRequests == 0) {
+            return 0;
+        }
+        long[] sortedLatencies = Arrays.copyOf(latenciesInNanos, amountOfRequests);
+        Arrays.sort(sortedLatencies);
+        // computed in decimal, since in binary floating point e.g. 99.9 / 100 * 1000 is slightly above 999
+        int rank = BigDecimal.valueOf(percentile)
+                .multiply(BigDecimal.valueOf(amountOfRequests))
+                .divide(BigDecimal.valueOf(100), 0, RoundingMode.CEILING)
+                .intValueExact();
+        return sortedLatencies[Math.max(rank, 1) - 1] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,100 @@
+package com.switchfully.order.loadtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.switchfully.order.Application;
+import com.switchfully.order.api.VirtualThreadsConfiguration;
+import com.switchfully.order.domain.customers.CustomerRepository;
+import com.switchfully.order.domain.items.ItemRepository;
+import com.switchfully.order.domain.orders.OrderRepository;
+import com.switchfully.order.loadtests.Seeder.SeededData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Profiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Boots the {@link Application} against an in-memory H2 database (the loadtest profile), seeds it, warms it up
+ * and then drives the configured workload against it, after which the latency percentiles and the throughput of
+ * every endpoint are reported, together with the live platform threads and the used heap during the measurement.
+ * <p>
+ * Run with {@code java -jar load-tests/target/load-tests-1.0-SNAPSHOT.jar}, optionally overriding the loadtest.*
+ * properties, e.g. {@code --loadtest.concurrency=64 --loadtest.duration-seconds=120}. Add
+ * {@code --spring.profiles.include=virtual-threads} (on Java 21 or later) to serve the requests on virtual threads.
+ */
+public final class LoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTest.class);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .profiles("loadtest")
+                .run(args);
+        try {
+            LoadTestSettings settings = LoadTestSettings.from(context.getEnvironment());
+            LOGGER.info("Seeding the database for {}", settings);
+            SeededData seededData = new Seeder(
+                    context.getBean(CustomerRepository.class),
+                    context.getBean(ItemRepository.class),
+                    context.getBean(OrderRepository.class),
+                    new TransactionTemplate(context.getBean(PlatformTransactionManager.class)))
+                    .seed(settings);
+            Workload workload = new Workload(
+                    URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")),
+                    context.getBean(ObjectMapper.class), seededData, settings);
+
+            LOGGER.info("Warming up for {}", settings.getWarmup());
+            workload.run(settings.getWarmup());
+            LOGGER.info("Measuring for {}", settings.getDuration());
+            ResourceSampler resourceSampler = new ResourceSampler();
+            resourceSampler.start();
+            long start = System.nanoTime();
+            Map<Endpoint, LatencyRecorder> latencyRecorders = workload.run(settings.getDuration());
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            resourceSampler.stop();
+
+            System.out.println(report(latencyRecorders, elapsed, settings));
+            System.out.println(report(resourceSampler, context.getEnvironment().acceptsProfiles(
+                    Profiles.of(VirtualThreadsConfiguration.PROFILE))));
+        } finally {
+            context.close();
+        }
+    }
+
+    static String report(Map<Endpoint, LatencyRecorder> latencyRecorders, Duration elapsed,
+                         LoadTestSettings settings) {
+        double elapsedSeconds = elapsed.toNanos() / 1e9;
+        StringBuilder report = new StringBuilder()
+                .append(String.format("%nLoad test with %d concurrent clients during %.1f s%n",
+                        settings.getConcurrency(), elapsedSeconds))
+                .append(String.format("%-28s %10s %10s %10s %10s %10s %10s%n",
+                        "Endpoint", "Requests", "Failures", "Req/s", "p50 (ms)", "p99 (ms)", "p999 (ms)"));
+        latencyRecorders.forEach((endpoint, latencyRecorder) -> report
+                .append(String.format("%-28s %10d %10d %10.1f %10.2f %10.2f %10.2f%n",
+                        endpoint.getLabel(),
+                        latencyRecorder.getAmountOfRequests(),
+                        latencyRecorder.getAmountOfFailures(),
+                        latencyRecorder.getAmountOfRequests() / elapsedSeconds,
+                        latencyRecorder.getPercentileInMillis(50),
+                        latencyRecorder.getPercentileInMillis(99),
+                        latencyRecorder.getPercentileInMillis(99.9))));
+        return report.toString();
+    }
+
+    static String report(ResourceSampler resourceSampler, boolean virtualThreads) {
+        return String.format("Requests served on %s threads: %d live platform threads at peak (%.0f on average), "
+                        + "%d MB heap used at peak (%d MB on average)%n",
+                virtualThreads ? "virtual" : "platform",
+                resourceSampler.getPeakThreadCount(), resourceSampler.getAverageThreadCount(),
+                resourceSampler.getPeakHeapUsedInMegabytes(), resourceSampler.getAverageHeapUsedInMegabytes());
+    }
+}
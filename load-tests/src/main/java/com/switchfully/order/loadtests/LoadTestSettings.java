@@ -0,0 +1,109 @@
+package com.switchfully.order.loadtests;
+
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The volumes to seed and the workload to drive, read from the loadtest.* properties (see
+ * application-loadtest.properties for their defaults), which can be overridden on the command line,
+ * e.g. {@code --loadtest.concurrency=64}.
+ */
+final class LoadTestSettings {
+
+    private final int amountOfCustomers;
+    private final int amountOfItems;
+    private final int amountOfOrders;
+    private final int itemGroupsPerOrder;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Map<Endpoint, Integer> mix;
+
+    private LoadTestSettings(int amountOfCustomers, int amountOfItems, int amountOfOrders, int itemGroupsPerOrder,
+                             int concurrency, Duration warmup, Duration duration, Map<Endpoint, Integer> mix) {
+        if (amountOfCustomers < 1 || amountOfItems < itemGroupsPerOrder || itemGroupsPerOrder < 1) {
+            throw new IllegalArgumentException("At least one customer and as many items as item groups per order "
+                    + "(at least one) should be seeded");
+        }
+        if (concurrency < 1 || mix.values().stream().mapToInt(Integer::intValue).sum() < 1) {
+            throw new IllegalArgumentException("The concurrency and the sum of the mix should be at least 1");
+        }
+        this.amountOfCustomers = amountOfCustomers;
+        this.amountOfItems = amountOfItems;
+        this.amountOfOrders = amountOfOrders;
+        this.itemGroupsPerOrder = itemGroupsPerOrder;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.mix = Collections.unmodifiableMap(mix);
+    }
+
+    static LoadTestSettings from(Environment environment) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            mix.put(endpoint, environment.getProperty("loadtest.mix." + endpoint.getKey(), Integer.class, 0));
+        }
+        return new LoadTestSettings(
+                environment.getProperty("loadtest.seed.customers", Integer.class, 100),
+                environment.getProperty("loadtest.seed.items", Integer.class, 1000),
+                environment.getProperty("loadtest.seed.orders", Integer.class, 10000),
+                environment.getProperty("loadtest.item-groups-per-order", Integer.class, 3),
+                environment.getProperty("loadtest.concurrency", Integer.class, 16),
+                Duration.ofSeconds(environment.getProperty("loadtest.warmup-seconds", Long.class, 10L)),
+                Duration.ofSeconds(environment.getProperty("loadtest.duration-seconds", Long.class, 60L)),
+                mix);
+    }
+
+    public int getAmountOfCustomers() {
+        return amountOfCustomers;
+    }
+
+    public int getAmountOfItems() {
+        return amountOfItems;
+    }
+
+    public int getAmountOfOrders() {
+        return amountOfOrders;
+    }
+
+    public int getItemGroupsPerOrder() {
+        return itemGroupsPerOrder;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return the relative share of every endpoint in the workload
+     */
+    public Map<Endpoint, Integer> getMix() {
+        return mix;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadTestSettings{" +
+                "amountOfCustomers=" + amountOfCustomers +
+                ", amountOfItems=" + amountOfItems +
+                ", amountOfOrders=" + amountOfOrders +
+                ", itemGroupsPerOrder=" + itemGroupsPerOrder +
+                ", concurrency=" + concurrency +
+                ", warmup=" + warmup +
+                ", duration=" + duration +
+                ", mix=" + mix +
+                '}';
+    }
+}
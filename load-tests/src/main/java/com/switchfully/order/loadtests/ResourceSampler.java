@@ -0,0 +1,75 @@
+package com.switchfully.order.loadtests;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the amount of live platform threads and the used heap of the JVM (which runs both the application and
+ * the workload) while the workload runs, to compare the platform thread and virtual thread setups.
+ * Virtual threads are not counted as live threads.
+ */
+final class ResourceSampler {
+
+    private static final long SAMPLE_INTERVAL_IN_MILLIS = 100;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+    private volatile Thread sampler;
+    private volatile int peakThreadCount;
+    private volatile long peakHeapUsedInBytes;
+    private long totalThreadCount;
+    private long totalHeapUsedInBytes;
+    private long amountOfSamples;
+
+    void start() {
+        sampler = new Thread(this::sampleUntilStopped, "resource-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    void stop() throws InterruptedException {
+        Thread runningSampler = sampler;
+        sampler = null;
+        runningSampler.interrupt();
+        runningSampler.join();
+    }
+
+    int getPeakThreadCount() {
+        return peakThreadCount;
+    }
+
+    synchronized double getAverageThreadCount() {
+        return amountOfSamples == 0 ? 0 : (double) totalThreadCount / amountOfSamples;
+    }
+
+    long getPeakHeapUsedInMegabytes() {
+        return peakHeapUsedInBytes / (1024 * 1024);
+    }
+
+    synchronized long getAverageHeapUsedInMegabytes() {
+        return amountOfSamples == 0 ? 0 : totalHeapUsedInBytes / amountOfSamples / (1024 * 1024);
+    }
+
+    private void sampleUntilStopped() {
+        while (sampler != null) {
+            sample();
+            try {
+                TimeUnit.MILLISECONDS.sleep(SAMPLE_INTERVAL_IN_MILLIS);
+            } catch (InterruptedException exception) {
+                return;
+            }
+        }
+    }
+
+    private synchronized void sample() {
+        int threadCount = threadMXBean.getThreadCount();
+        long heapUsedInBytes = memoryMXBean.getHeapMemoryUsage().getUsed();
+        peakThreadCount = Math.max(peakThreadCount, threadCount);
+        peakHeapUsedInBytes = Math.max(peakHeapUsedInBytes, heapUsedInBytes);
+        totalThreadCount += threadCount;
+        totalHeapUsedInBytes += heapUsedInBytes;
+        amountOfSamples++;
+    }
+}
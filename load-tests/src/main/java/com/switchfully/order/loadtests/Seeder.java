@@ -0,0 +1,119 @@
+package com.switchfully.order.loadtests;
+
+import com.switchfully.order.domain.customers.Customer;
+import com.switchfully.order.domain.customers.CustomerRepository;
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.domain.items.ItemRepository;
+import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.domain.orders.OrderRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.switchfully.order.domain.customers.CustomerTestBuilder.aCustomer;
+import static com.switchfully.order.domain.items.ItemTestBuilder.anItem;
+import static com.switchfully.order.domain.orders.Order.OrderBuilder.order;
+import static com.switchfully.order.domain.orders.orderitems.OrderItem.OrderItemBuilder.orderItem;
+
+/**
+ * Seeds the (empty) database with customers, items and orders, built with the builders of the domain and saved
+ * in chunks of {@link #CHUNK_SIZE}, one transaction per chunk.
+ */
+final class Seeder {
+
+    /**
+     * Enough stock to never run out during a load test, so no order is refused because of the stock.
+     */
+    static final int AMOUNT_OF_STOCK = 1_000_000_000;
+    private static final int CHUNK_SIZE = 500;
+
+    private final CustomerRepository customerRepository;
+    private final ItemRepository itemRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Random random = new Random(42);
+
+    Seeder(CustomerRepository customerRepository, ItemRepository itemRepository, OrderRepository orderRepository,
+           TransactionTemplate transactionTemplate) {
+        this.customerRepository = customerRepository;
+        this.itemRepository = itemRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    SeededData seed(LoadTestSettings settings) {
+        List<Customer> customers = saveInChunks(settings.getAmountOfCustomers(), index -> aCustomer()
+                .withLastname("Customer " + index)
+                .build(), customerRepository::saveAll);
+        List<Item> items = saveInChunks(settings.getAmountOfItems(), index -> anItem()
+                .withName("Item " + index)
+                .withAmountOfStock(AMOUNT_OF_STOCK)
+                .build(), itemRepository::saveAll);
+        saveInChunks(settings.getAmountOfOrders(), index -> anOrder(
+                customers.get(index % customers.size()), items, settings.getItemGroupsPerOrder()),
+                orderRepository::saveAll);
+        return new SeededData(
+                customers.stream().map(Customer::getId).collect(Collectors.toList()),
+                items.stream().map(Item::getId).collect(Collectors.toList()));
+    }
+
+    private Order anOrder(Customer customer, List<Item> items, int itemGroupsPerOrder) {
+        int firstItemIndex = random.nextInt(items.size());
+        return order()
+                .withCustomer(customer)
+                .withOrderItems(IntStream.range(0, itemGroupsPerOrder)
+                        .mapToObj(itemGroupIndex -> items.get((firstItemIndex + itemGroupIndex) % items.size()))
+                        .map(item -> orderItem()
+                                .withItemId(item.getId())
+                                .withItemPrice(item.getPrice())
+                                .withOrderedAmount(1 + random.nextInt(5))
+                                .withShippingDateBasedOnAvailableItemStock(item.getAmountOfStock())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private <T> List<T> saveInChunks(int amount, IntFunction<T> entityForIndex, ChunkSaver<T> chunkSaver) {
+        List<T> savedEntities = new ArrayList<>(amount);
+        for (int chunkStart = 0; chunkStart < amount; chunkStart += CHUNK_SIZE) {
+            List<T> chunk = IntStream.range(chunkStart, Math.min(chunkStart + CHUNK_SIZE, amount))
+                    .mapToObj(entityForIndex)
+                    .collect(Collectors.toList());
+            savedEntities.addAll(transactionTemplate.execute(status -> chunkSaver.saveAll(chunk)));
+        }
+        return savedEntities;
+    }
+
+    @FunctionalInterface
+    private interface ChunkSaver<T> {
+        List<T> saveAll(List<T> chunk);
+    }
+
+    /**
+     * The ids of the seeded customers and items, which the workload refers to.
+     */
+    static final class SeededData {
+
+        private final List<UUID> customerIds;
+        private final List<UUID> itemIds;
+
+        private SeededData(List<UUID> customerIds, List<UUID> itemIds) {
+            this.customerIds = customerIds;
+            this.itemIds = itemIds;
+        }
+
+        List<UUID> getCustomerIds() {
+            return customerIds;
+        }
+
+        List<UUID> getItemIds() {
+            return itemIds;
+        }
+    }
+}
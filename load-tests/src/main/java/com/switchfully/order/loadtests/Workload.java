@@ -0,0 +1,125 @@
+package com.switchfully.order.loadtests;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.switchfully.order.api.orders.dtos.ItemGroupDto;
+import com.switchfully.order.api.orders.dtos.OrderCreationDto;
+import com.switchfully.order.loadtests.Seeder.SeededData;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Drives the mix of endpoints with a fixed amount of concurrent clients, each sending its next request as soon as
+ * the previous one was answered (a closed workload). Every request refers to a random seeded customer and items.
+ */
+final class Workload {
+
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final SeededData seededData;
+    private final LoadTestSettings settings;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    Workload(URI baseUri, ObjectMapper objectMapper, SeededData seededData, LoadTestSettings settings) {
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.seededData = seededData;
+        this.settings = settings;
+    }
+
+    /**
+     * @return the latencies recorded per endpoint
+     */
+    Map<Endpoint, LatencyRecorder> run(Duration duration) throws InterruptedException {
+        Map<Endpoint, LatencyRecorder> latencyRecorders = new EnumMap<>(Endpoint.class);
+        settings.getMix().keySet().forEach(endpoint -> latencyRecorders.put(endpoint, new LatencyRecorder()));
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(settings.getConcurrency());
+        IntStream.range(0, settings.getConcurrency()).forEach(client -> clients.execute(() -> {
+            while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                Endpoint endpoint = pickEndpoint();
+                long start = System.nanoTime();
+                boolean successful = send(endpoint);
+                latencyRecorders.get(endpoint).record(System.nanoTime() - start, successful);
+            }
+        }));
+        clients.shutdown();
+        if (!clients.awaitTermination(duration.toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS)) {
+            clients.shutdownNow();
+        }
+        return latencyRecorders;
+    }
+
+    private Endpoint pickEndpoint() {
+        int totalWeight = settings.getMix().values().stream().mapToInt(Integer::intValue).sum();
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Endpoint, Integer> endpointWithWeight : settings.getMix().entrySet()) {
+            pick -= endpointWithWeight.getValue();
+            if (pick < 0) {
+                return endpointWithWeight.getKey();
+            }
+        }
+        throw new IllegalStateException("No endpoint picked from " + settings.getMix());
+    }
+
+    private boolean send(Endpoint endpoint) {
+        try {
+            HttpResponse<Void> response = httpClient.send(toRequest(endpoint), HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() / 100 == 2;
+        } catch (IOException exception) {
+            return false;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpRequest toRequest(Endpoint endpoint) throws JsonProcessingException {
+        switch (endpoint) {
+            case CREATE_ORDER:
+                return HttpRequest.newBuilder(baseUri.resolve("/orders"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(anOrderCreationDto())))
+                        .build();
+            case GET_ALL_ORDERS:
+                return HttpRequest.newBuilder(baseUri.resolve("/orders")).GET().build();
+            case GET_ORDERS_PAGE:
+                return HttpRequest.newBuilder(baseUri.resolve("/orders?limit=50")).GET().build();
+            case GET_CUSTOMER_REPORT:
+                return HttpRequest.newBuilder(baseUri.resolve("/orders/customers/" + aRandom(seededData.getCustomerIds())))
+                        .GET().build();
+            default:
+                throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+        }
+    }
+
+    private OrderCreationDto anOrderCreationDto() {
+        return new OrderCreationDto()
+                .withCustomerId(aRandom(seededData.getCustomerIds()).toString())
+                .withItemGroups(IntStream.range(0, settings.getItemGroupsPerOrder())
+                        .mapToObj(itemGroup -> new ItemGroupDto()
+                                .withItemId(aRandom(seededData.getItemIds()).toString())
+                                .withOrderedAmount(1 + ThreadLocalRandom.current().nextInt(5)))
+                        .toArray(ItemGroupDto[]::new));
+    }
+
+    private static UUID aRandom(List<UUID> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,51 @@
+package com.switchfully.order.loadtests;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyRecorderTest {
+
+    @Test
+    void getPercentileInMillis_thenUseTheNearestRank() {
+        LatencyRecorder latencyRecorder = new LatencyRecorder();
+        for (int millis = 1000; millis >= 1; millis--) {
+            latencyRecorder.record(TimeUnit.MILLISECONDS.toNanos(millis), true);
+        }
+
+        assertThat(latencyRecorder.getPercentileInMillis(50)).isEqualTo(500);
+        assertThat(latencyRecorder.getPercentileInMillis(99)).isEqualTo(990);
+        assertThat(latencyRecorder.getPercentileInMillis(99.9)).isEqualTo(999);
+        assertThat(latencyRecorder.getPercentileInMillis(100)).isEqualTo(1000);
+    }
+
+    @Test
+    void getPercentileInMillis_givenARankThatIsNotAWholeNumber_thenRoundItUp() {
+        LatencyRecorder latencyRecorder = new LatencyRecorder();
+        for (int millis = 1; millis <= 10; millis++) {
+            latencyRecorder.record(TimeUnit.MILLISECONDS.toNanos(millis), true);
+        }
+
+        assertThat(latencyRecorder.getPercentileInMillis(99.9)).isEqualTo(10);
+        assertThat(latencyRecorder.getPercentileInMillis(15)).isEqualTo(2);
+        assertThat(latencyRecorder.getPercentileInMillis(0.1)).isEqualTo(1);
+    }
+
+    @Test
+    void givenNothingRecorded_thenZero() {
+        assertThat(new LatencyRecorder().getPercentileInMillis(99)).isEqualTo(0);
+    }
+
+    @Test
+    void record_thenCountTheRequestsAndTheFailures() {
+        LatencyRecorder latencyRecorder = new LatencyRecorder();
+
+        latencyRecorder.record(10, true);
+        latencyRecorder.record(20, false);
+
+        assertThat(latencyRecorder.getAmountOfRequests()).isEqualTo(2);
+        assertThat(latencyRecorder.getAmountOfFailures()).isEqualTo(1);
+    }
+}
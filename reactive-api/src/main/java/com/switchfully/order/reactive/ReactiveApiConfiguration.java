@@ -0,0 +1,88 @@
+package com.switchfully.order.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.switchfully.order.api.customers.CustomerMapper;
+import com.switchfully.order.api.items.ItemMapper;
+import com.switchfully.order.api.orders.OrderMapper;
+import com.switchfully.order.reactive.customers.ReactiveCustomerHandler;
+import com.switchfully.order.reactive.customers.ReactiveCustomerRepository;
+import com.switchfully.order.reactive.items.ReactiveItemHandler;
+import com.switchfully.order.reactive.items.ReactiveItemRepository;
+import com.switchfully.order.reactive.orders.ReactiveOrderHandler;
+import com.switchfully.order.reactive.orders.ReactiveOrderReportRepository;
+import com.switchfully.order.reactive.orders.ReactiveOrderRepository;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+/**
+ * Opt-in (order.reactive.enabled): a reactive, non-blocking read API for the orders, items and customers,
+ * served on order.reactive.port next to the controllers. It reads the database with R2DBC (on a connection pool
+ * of its own) and maps the results with the mappers of the controllers.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.reactive.enabled", havingValue = "true")
+public class ReactiveApiConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool reactiveConnectionPool(@Value("${order.reactive.r2dbc.url}") String url,
+                                                 @Value("${order.reactive.r2dbc.username:}") String username,
+                                                 @Value("${order.reactive.r2dbc.password:}") String password,
+                                                 @Value("${order.reactive.r2dbc.pool.initial-size:1}") int initialSize,
+                                                 @Value("${order.reactive.r2dbc.pool.max-size:20}") int maxSize) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (!password.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(ConnectionPool reactiveConnectionPool) {
+        return DatabaseClient.create(reactiveConnectionPool);
+    }
+
+    @Bean
+    public ReactiveOrderHandler reactiveOrderHandler(DatabaseClient reactiveDatabaseClient, OrderMapper orderMapper) {
+        ReactiveOrderRepository orderRepository = new ReactiveOrderRepository(reactiveDatabaseClient);
+        return new ReactiveOrderHandler(orderRepository,
+                new ReactiveOrderReportRepository(reactiveDatabaseClient, orderRepository),
+                orderMapper);
+    }
+
+    @Bean
+    public ReactiveItemHandler reactiveItemHandler(DatabaseClient reactiveDatabaseClient, ItemMapper itemMapper) {
+        return new ReactiveItemHandler(new ReactiveItemRepository(reactiveDatabaseClient), itemMapper);
+    }
+
+    @Bean
+    public ReactiveCustomerHandler reactiveCustomerHandler(DatabaseClient reactiveDatabaseClient,
+                                                           CustomerMapper customerMapper) {
+        return new ReactiveCustomerHandler(new ReactiveCustomerRepository(reactiveDatabaseClient), customerMapper);
+    }
+
+    @Bean
+    public ReactiveApiServer reactiveApiServer(ReactiveOrderHandler reactiveOrderHandler,
+                                               ReactiveItemHandler reactiveItemHandler,
+                                               ReactiveCustomerHandler reactiveCustomerHandler,
+                                               ObjectMapper objectMapper,
+                                               @Value("${order.reactive.port:8081}") int port) {
+        return new ReactiveApiServer(RouterFunctions.toHttpHandler(
+                ReactiveRoutes.routes(reactiveOrderHandler, reactiveItemHandler, reactiveCustomerHandler),
+                ReactiveRoutes.handlerStrategies(objectMapper)),
+                port);
+    }
+}
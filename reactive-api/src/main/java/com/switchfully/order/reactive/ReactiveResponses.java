@@ -0,0 +1,42 @@
+package com.switchfully.order.reactive;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public final class ReactiveResponses {
+
+    private ReactiveResponses() {
+    }
+
+    /**
+     * Writes the elements as they are emitted: as newline delimited JSON (flushed per element) when the client
+     * accepts application/stream+json, otherwise as a JSON array. Either way, the next elements are only requested
+     * once the previous ones are written, so a slow client slows down the reading of the elements.
+     */
+    public static <T> Mono<ServerResponse> okStreaming(ServerRequest request, Flux<T> elements, Class<T> elementClass) {
+        MediaType contentType = request.headers().accept().contains(MediaType.APPLICATION_STREAM_JSON)
+                ? MediaType.APPLICATION_STREAM_JSON
+                : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok()
+                .contentType(contentType)
+                .body(elements, elementClass);
+    }
+
+    public static <T> Mono<ServerResponse> ok(Mono<T> element) {
+        return element.flatMap(body -> ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body));
+    }
+
+    /**
+     * @return the path variable as a UUID, or an IllegalArgumentException (as error signal) when it isn't one
+     */
+    public static Mono<UUID> uuidPathVariable(ServerRequest request, String name) {
+        return Mono.fromCallable(() -> UUID.fromString(request.pathVariable(name)));
+    }
+}
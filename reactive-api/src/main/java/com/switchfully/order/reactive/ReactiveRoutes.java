@@ -0,0 +1,80 @@
+package com.switchfully.order.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.switchfully.order.api.customers.CustomerController;
+import com.switchfully.order.api.items.ItemController;
+import com.switchfully.order.api.orders.OrderController;
+import com.switchfully.order.infrastructure.exceptions.EntityNotFoundException;
+import com.switchfully.order.reactive.customers.ReactiveCustomerHandler;
+import com.switchfully.order.reactive.items.ReactiveItemHandler;
+import com.switchfully.order.reactive.orders.ReactiveOrderHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * The read endpoints of the reactive API, on the same paths as their (blocking) counterparts of the controllers.
+ * Errors are answered like the ControllerExceptionHandler does.
+ */
+public final class ReactiveRoutes {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveRoutes.class);
+
+    private ReactiveRoutes() {
+    }
+
+    public static RouterFunction<ServerResponse> routes(ReactiveOrderHandler orderHandler,
+                                                        ReactiveItemHandler itemHandler,
+                                                        ReactiveCustomerHandler customerHandler) {
+        return route()
+                .GET("/" + OrderController.RESOURCE_NAME, orderHandler::getAllOrders)
+                .GET("/" + OrderController.RESOURCE_NAME + "/customers/{customerId}",
+                        orderHandler::getOrdersReportForCustomer)
+                .GET("/" + ItemController.RESOURCE_NAME, itemHandler::getAllItems)
+                .GET("/" + ItemController.RESOURCE_NAME + "/{itemId}", itemHandler::getItem)
+                .GET("/" + CustomerController.RESOURCE_NAME, customerHandler::getAllCustomers)
+                .GET("/" + CustomerController.RESOURCE_NAME + "/{id}", customerHandler::getCustomer)
+                .onError(IllegalArgumentException.class, ReactiveRoutes::badRequest)
+                .onError(EntityNotFoundException.class, ReactiveRoutes::badRequest)
+                .build();
+    }
+
+    /**
+     * Encodes (and decodes) JSON with the object mapper of the application.
+     */
+    public static HandlerStrategies handlerStrategies(ObjectMapper objectMapper) {
+        return HandlerStrategies.builder()
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+    }
+
+    private static Mono<ServerResponse> badRequest(Throwable exception, ServerRequest request) {
+        String uniqueErrorId = UUID.randomUUID().toString();
+        LOGGER.error("REST call threw exception [" + uniqueErrorId + "] , request=" + request.methodName() + " "
+                + request.uri(), exception);
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("uniqueErrorId", uniqueErrorId);
+        error.put("message", exception.getMessage());
+        error.put("httpStatus", HttpStatus.BAD_REQUEST.value());
+        return ServerResponse.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(error);
+    }
+}
@@ -0,0 +1,36 @@
+package com.switchfully.order.reactive.customers;
+
+import com.switchfully.order.api.customers.CustomerDto;
+import com.switchfully.order.api.customers.CustomerMapper;
+import com.switchfully.order.domain.customers.Customer;
+import com.switchfully.order.infrastructure.exceptions.EntityNotFoundException;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static com.switchfully.order.reactive.ReactiveResponses.ok;
+import static com.switchfully.order.reactive.ReactiveResponses.okStreaming;
+import static com.switchfully.order.reactive.ReactiveResponses.uuidPathVariable;
+
+public class ReactiveCustomerHandler {
+
+    private final ReactiveCustomerRepository customerRepository;
+    private final CustomerMapper customerMapper;
+
+    public ReactiveCustomerHandler(ReactiveCustomerRepository customerRepository, CustomerMapper customerMapper) {
+        this.customerRepository = customerRepository;
+        this.customerMapper = customerMapper;
+    }
+
+    public Mono<ServerResponse> getAllCustomers(ServerRequest request) {
+        return okStreaming(request, customerRepository.findAll().map(customerMapper::toDto), CustomerDto.class);
+    }
+
+    public Mono<ServerResponse> getCustomer(ServerRequest request) {
+        return ok(uuidPathVariable(request, "id")
+                .flatMap(customerId -> customerRepository.findById(customerId)
+                        .switchIfEmpty(Mono.defer(() ->
+                                Mono.error(new EntityNotFoundException("getting a customer", Customer.class, customerId)))))
+                .map(customerMapper::toDto));
+    }
+}
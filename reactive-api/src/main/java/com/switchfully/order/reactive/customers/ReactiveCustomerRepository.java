@@ -0,0 +1,71 @@
+package com.switchfully.order.reactive.customers;
+
+import com.switchfully.order.domain.customers.Customer;
+import io.r2dbc.spi.Row;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+import static com.switchfully.order.domain.customers.Customer.CustomerBuilder.customer;
+import static com.switchfully.order.domain.customers.addresses.Address.AddressBuilder.address;
+import static com.switchfully.order.domain.customers.emails.Email.EmailBuilder.email;
+import static com.switchfully.order.domain.customers.phonenumbers.PhoneNumber.PhoneNumberBuilder.phoneNumber;
+
+/**
+ * Reads the customers without blocking (using R2DBC), emitting every customer as soon as its row is read.
+ */
+public class ReactiveCustomerRepository {
+
+    /**
+     * The columns of the customer table (except for its id), which {@link #toCustomer(Row, UUID)} maps.
+     */
+    public static final String CUSTOMER_COLUMNS = "c.firstname, c.lastname, c.local_part, c.domain, c.complete, "
+            + "c.street_name, c.house_number, c.postal_code, c.country, c.number, c.country_calling_code";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveCustomerRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<Customer> findAll() {
+        return databaseClient.execute("select c.id, " + CUSTOMER_COLUMNS + " from customer c")
+                .map((row, rowMetadata) -> toCustomer(row, row.get("id", UUID.class)))
+                .all();
+    }
+
+    /**
+     * @return the customer, or an empty Mono when there's no customer with the provided id
+     */
+    public Mono<Customer> findById(UUID id) {
+        return databaseClient.execute("select c.id, " + CUSTOMER_COLUMNS + " from customer c where c.id = :id")
+                .bind("id", id)
+                .map((row, rowMetadata) -> toCustomer(row, row.get("id", UUID.class)))
+                .one();
+    }
+
+    public static Customer toCustomer(Row row, UUID customerId) {
+        return customer()
+                .withId(customerId)
+                .withFirstname(row.get("firstname", String.class))
+                .withLastname(row.get("lastname", String.class))
+                .withEmail(email()
+                        .withLocalPart(row.get("local_part", String.class))
+                        .withDomain(row.get("domain", String.class))
+                        .withComplete(row.get("complete", String.class))
+                        .build())
+                .withAddress(address()
+                        .withStreetName(row.get("street_name", String.class))
+                        .withHouseNumber(row.get("house_number", String.class))
+                        .withPostalCode(row.get("postal_code", String.class))
+                        .withCountry(row.get("country", String.class))
+                        .build())
+                .withPhoneNumber(phoneNumber()
+                        .withNumber(row.get("number", String.class))
+                        .withCountryCallingCode(row.get("country_calling_code", String.class))
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.switchfully.order.reactive.items;
+
+import com.switchfully.order.api.items.ItemDto;
+import com.switchfully.order.api.items.ItemMapper;
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.infrastructure.exceptions.EntityNotFoundException;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static com.switchfully.order.reactive.ReactiveResponses.ok;
+import static com.switchfully.order.reactive.ReactiveResponses.okStreaming;
+import static com.switchfully.order.reactive.ReactiveResponses.uuidPathVariable;
+
+public class ReactiveItemHandler {
+
+    private final ReactiveItemRepository itemRepository;
+    private final ItemMapper itemMapper;
+
+    public ReactiveItemHandler(ReactiveItemRepository itemRepository, ItemMapper itemMapper) {
+        this.itemRepository = itemRepository;
+        this.itemMapper = itemMapper;
+    }
+
+    public Mono<ServerResponse> getAllItems(ServerRequest request) {
+        return okStreaming(request, itemRepository.findAll().map(itemMapper::toDto), ItemDto.class);
+    }
+
+    public Mono<ServerResponse> getItem(ServerRequest request) {
+        return ok(uuidPathVariable(request, "itemId")
+                .flatMap(itemId -> itemRepository.findById(itemId)
+                        .switchIfEmpty(Mono.defer(() ->
+                                Mono.error(new EntityNotFoundException("getting an item", Item.class, itemId)))))
+                .map(itemMapper::toDto));
+    }
+}
@@ -0,0 +1,54 @@
+package com.switchfully.order.reactive.items;
+
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.domain.items.prices.Price;
+import io.r2dbc.spi.Row;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static com.switchfully.order.domain.items.Item.ItemBuilder.item;
+
+/**
+ * Reads the items without blocking (using R2DBC), emitting every item as soon as its row is read.
+ * Unlike the ItemService, it doesn't use the item cache: the stock is always read from the item table.
+ */
+public class ReactiveItemRepository {
+
+    private static final String ITEM_COLUMNS = "i.id, i.name, i.description, i.amount, i.amount_of_stock";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveItemRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<Item> findAll() {
+        return databaseClient.execute("select " + ITEM_COLUMNS + " from item i")
+                .map((row, rowMetadata) -> toItem(row))
+                .all();
+    }
+
+    /**
+     * @return the item, or an empty Mono when there's no item with the provided id
+     */
+    public Mono<Item> findById(UUID id) {
+        return databaseClient.execute("select " + ITEM_COLUMNS + " from item i where i.id = :id")
+                .bind("id", id)
+                .map((row, rowMetadata) -> toItem(row))
+                .one();
+    }
+
+    private static Item toItem(Row row) {
+        return item()
+                .withId(row.get("id", UUID.class))
+                .withName(row.get("name", String.class))
+                .withDescription(row.get("description", String.class))
+                .withPrice(Price.create(row.get("amount", BigDecimal.class)))
+                .withAmountOfStock(row.get("amount_of_stock", Integer.class))
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.switchfully.order.reactive.orders;
+
+import com.switchfully.order.api.orders.OrderMapper;
+import com.switchfully.order.api.orders.dtos.OrderDto;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static com.switchfully.order.reactive.ReactiveResponses.ok;
+import static com.switchfully.order.reactive.ReactiveResponses.okStreaming;
+import static com.switchfully.order.reactive.ReactiveResponses.uuidPathVariable;
+
+public class ReactiveOrderHandler {
+
+    private final ReactiveOrderRepository orderRepository;
+    private final ReactiveOrderReportRepository orderReportRepository;
+    private final OrderMapper orderMapper;
+
+    public ReactiveOrderHandler(ReactiveOrderRepository orderRepository,
+                                ReactiveOrderReportRepository orderReportRepository,
+                                OrderMapper orderMapper) {
+        this.orderRepository = orderRepository;
+        this.orderReportRepository = orderReportRepository;
+        this.orderMapper = orderMapper;
+    }
+
+    public Mono<ServerResponse> getAllOrders(ServerRequest request) {
+        return okStreaming(request, orderRepository.findAll().map(orderMapper::toDto), OrderDto.class);
+    }
+
+    public Mono<ServerResponse> getOrdersReportForCustomer(ServerRequest request) {
+        return uuidPathVariable(request, "customerId")
+                .flatMap(customerId -> ok(orderReportRepository.findByCustomerId(customerId)
+                        .map(orderMapper::toOrdersReportDto)));
+    }
+}
@@ -0,0 +1,105 @@
+package com.switchfully.order.reactive.orders;
+
+import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.domain.orders.reports.OrderReportLine;
+import com.switchfully.order.service.orders.reports.OrdersReport;
+import io.r2dbc.spi.Row;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.switchfully.order.domain.orders.reports.OrderReportLine.OrderReportLineBuilder.orderReportLine;
+
+/**
+ * Reads the report of a customer's orders without blocking (using R2DBC), like the CustomerOrderReportService:
+ * from the read model when the customer's report is stored, otherwise built from their orders (without storing it).
+ * The item names of such a built report are the current names of the items.
+ */
+public class ReactiveOrderReportRepository {
+
+    private static final String SELECT_REPORT_LINES = "select l.order_id, l.order_total_price, l.ordered_at, "
+            + "l.item_id, l.item_name, l.ordered_amount, l.total_price "
+            + "from order_report_line l "
+            + "where l.customer_id = :customerId "
+            + "order by l.ordered_at, l.order_id";
+
+    private static final String SELECT_ORDERED_ITEM_NAMES = "select distinct i.id, i.name "
+            + "from orders o "
+            + "join order_item oi on oi.order_id = o.id "
+            + "join item i on i.id = oi.item_id "
+            + "where o.customer_id = :customerId";
+
+    private final DatabaseClient databaseClient;
+    private final ReactiveOrderRepository orderRepository;
+
+    public ReactiveOrderReportRepository(DatabaseClient databaseClient, ReactiveOrderRepository orderRepository) {
+        this.databaseClient = databaseClient;
+        this.orderRepository = orderRepository;
+    }
+
+    public Mono<OrdersReport> findByCustomerId(UUID customerId) {
+        return databaseClient.execute("select r.total_price_of_all_orders from customer_order_report r "
+                + "where r.customer_id = :customerId")
+                .bind("customerId", customerId)
+                .map((row, rowMetadata) -> row.get("total_price_of_all_orders", BigDecimal.class))
+                .one()
+                .flatMap(totalPriceOfAllOrders -> findStoredReportLines(customerId)
+                        .map(lines -> new OrdersReport(totalPriceOfAllOrders, lines)))
+                .switchIfEmpty(Mono.defer(() -> buildFromOrders(customerId)));
+    }
+
+    private Mono<List<OrderReportLine>> findStoredReportLines(UUID customerId) {
+        return databaseClient.execute(SELECT_REPORT_LINES)
+                .bind("customerId", customerId)
+                .map((row, rowMetadata) -> toOrderReportLine(row, customerId))
+                .all()
+                .collectList();
+    }
+
+    private Mono<OrdersReport> buildFromOrders(UUID customerId) {
+        Mono<Map<UUID, String>> itemNames = databaseClient.execute(SELECT_ORDERED_ITEM_NAMES)
+                .bind("customerId", customerId)
+                .map((row, rowMetadata) -> Map.entry(row.get("id", UUID.class), row.get("name", String.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+        return Mono.zip(orderRepository.findAllByCustomerId(customerId).collectList(), itemNames)
+                .map(ordersAndItemNames -> toOrdersReport(ordersAndItemNames.getT1(), ordersAndItemNames.getT2()));
+    }
+
+    private static OrdersReport toOrdersReport(List<Order> orders, Map<UUID, String> itemNames) {
+        return new OrdersReport(Order.sumTotalPrices(orders).getAmount(), orders.stream()
+                .flatMap(order -> order.getOrderItems().stream()
+                        .map(orderItem -> orderReportLine(order, orderItem)
+                                .withItemName(itemNames.get(orderItem.getItemId()))
+                                .build()))
+                .collect(Collectors.toList()));
+    }
+
+    private static OrderReportLine toOrderReportLine(Row row, UUID customerId) {
+        return orderReportLine()
+                .withCustomerId(customerId)
+                .withOrderId(row.get("order_id", UUID.class))
+                .withOrderTotalPrice(row.get("order_total_price", BigDecimal.class))
+                .withOrderedAt(toInstant(row.get("ordered_at", LocalDateTime.class)))
+                .withItemId(row.get("item_id", UUID.class))
+                .withItemName(row.get("item_name", String.class))
+                .withOrderedAmount(row.get("ordered_amount", Integer.class))
+                .withTotalPrice(row.get("total_price", BigDecimal.class))
+                .build();
+    }
+
+    /**
+     * The ordered_at column holds no time zone, so (like Hibernate does) it is read in the zone of the JVM.
+     */
+    private static Instant toInstant(LocalDateTime orderedAt) {
+        return orderedAt == null ? null : orderedAt.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -0,0 +1,113 @@
+package com.switchfully.order.reactive.orders;
+
+import com.switchfully.order.domain.customers.Customer;
+import com.switchfully.order.domain.items.prices.Price;
+import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.domain.orders.orderitems.OrderItem;
+import io.r2dbc.spi.Row;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.switchfully.order.domain.orders.Order.OrderBuilder.order;
+import static com.switchfully.order.domain.orders.orderitems.OrderItem.OrderItemBuilder.orderItem;
+import static com.switchfully.order.reactive.customers.ReactiveCustomerRepository.CUSTOMER_COLUMNS;
+import static com.switchfully.order.reactive.customers.ReactiveCustomerRepository.toCustomer;
+
+/**
+ * Reads the orders (with their customer and order items) without blocking (using R2DBC).
+ * <p>
+ * Every order is read with one query that joins its customer and its order items, ordered by the id of the order
+ * (so the primary key and the order_item_order_idx index resolve it without sorting). The rows of one order are
+ * grouped as they arrive, so every order is emitted as soon as its last row is read, and rows are only read as
+ * fast as the subscriber requests orders.
+ */
+public class ReactiveOrderRepository {
+
+    private static final String SELECT_ORDERS_WITH_CUSTOMER_AND_ORDER_ITEMS = "select o.id as order_id, "
+            + "o.customer_id, " + CUSTOMER_COLUMNS + ", "
+            + "oi.item_id, oi.amount as item_price, oi.ordered_amount, oi.shipping_date "
+            + "from orders o "
+            + "join customer c on c.id = o.customer_id "
+            + "left join order_item oi on oi.order_id = o.id ";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveOrderRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<Order> findAll() {
+        return toOrders(databaseClient.execute(SELECT_ORDERS_WITH_CUSTOMER_AND_ORDER_ITEMS + "order by o.id")
+                .map((row, rowMetadata) -> toOrderRow(row))
+                .all());
+    }
+
+    public Flux<Order> findAllByCustomerId(UUID customerId) {
+        return toOrders(databaseClient.execute(SELECT_ORDERS_WITH_CUSTOMER_AND_ORDER_ITEMS
+                + "where o.customer_id = :customerId order by o.id")
+                .bind("customerId", customerId)
+                .map((row, rowMetadata) -> toOrderRow(row))
+                .all());
+    }
+
+    private static Flux<Order> toOrders(Flux<OrderRow> orderRows) {
+        return orderRows
+                .bufferUntilChanged(orderRow -> orderRow.orderId)
+                .map(ReactiveOrderRepository::toOrder);
+    }
+
+    private static Order toOrder(List<OrderRow> orderRowsOfOneOrder) {
+        OrderRow anyOrderRow = orderRowsOfOneOrder.get(0);
+        return order()
+                .withId(anyOrderRow.orderId)
+                .withCustomer(anyOrderRow.customer)
+                .withOrderItems(orderRowsOfOneOrder.stream()
+                        .map(orderRow -> orderRow.orderItem)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private static OrderRow toOrderRow(Row row) {
+        return new OrderRow(
+                row.get("order_id", UUID.class),
+                toCustomer(row, row.get("customer_id", UUID.class)),
+                toOrderItem(row));
+    }
+
+    /**
+     * @return the order item of the row, or null when the order has no order items (the left join found none)
+     */
+    private static OrderItem toOrderItem(Row row) {
+        UUID itemId = row.get("item_id", UUID.class);
+        if (itemId == null) {
+            return null;
+        }
+        return orderItem()
+                .withItemId(itemId)
+                .withItemPrice(Price.create(row.get("item_price", BigDecimal.class)))
+                .withOrderedAmount(row.get("ordered_amount", Integer.class))
+                .withShippingDate(row.get("shipping_date", LocalDate.class))
+                .build();
+    }
+
+    private static class OrderRow {
+
+        private final UUID orderId;
+        private final Customer customer;
+        private final OrderItem orderItem;
+
+        private OrderRow(UUID orderId, Customer customer, OrderItem orderItem) {
+            this.orderId = orderId;
+            this.customer = customer;
+            this.orderItem = orderItem;
+        }
+    }
+}
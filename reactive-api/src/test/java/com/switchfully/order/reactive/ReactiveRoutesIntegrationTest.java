@@ -0,0 +1,238 @@
+package com.switchfully.order.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.switchfully.order.api.customers.CustomerMapper;
+import com.switchfully.order.api.customers.addresses.AddressMapper;
+import com.switchfully.order.api.customers.emails.EmailMapper;
+import com.switchfully.order.api.customers.phonenumbers.PhoneNumberMapper;
+import com.switchfully.order.api.items.ItemDto;
+import com.switchfully.order.api.items.ItemMapper;
+import com.switchfully.order.api.orders.OrderItemMapper;
+import com.switchfully.order.api.orders.OrderMapper;
+import com.switchfully.order.api.orders.dtos.ItemGroupDto;
+import com.switchfully.order.api.orders.dtos.OrderDto;
+import com.switchfully.order.reactive.customers.ReactiveCustomerHandler;
+import com.switchfully.order.reactive.customers.ReactiveCustomerRepository;
+import com.switchfully.order.reactive.items.ReactiveItemHandler;
+import com.switchfully.order.reactive.items.ReactiveItemRepository;
+import com.switchfully.order.reactive.orders.ReactiveOrderHandler;
+import com.switchfully.order.reactive.orders.ReactiveOrderReportRepository;
+import com.switchfully.order.reactive.orders.ReactiveOrderRepository;
+import com.switchfully.order.service.customers.CustomerService;
+import com.switchfully.order.service.items.ItemService;
+import com.switchfully.order.service.orders.OrderAssemblyExecutor;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Serves the reactive routes on top of an embedded Postgres database (migrated with the Flyway migrations),
+ * which contains two orders of one customer and one order (and its stored report) of another customer.
+ */
+class ReactiveRoutesIntegrationTest {
+
+    private static final UUID CUSTOMER_ID = UUID.randomUUID();
+    private static final UUID OTHER_CUSTOMER_ID = UUID.randomUUID();
+    private static final UUID ITEM_ID = UUID.randomUUID();
+    private static final UUID OTHER_ITEM_ID = UUID.randomUUID();
+    private static final UUID ORDER_ID = UUID.randomUUID();
+    private static final UUID OTHER_ORDER_ID = UUID.randomUUID();
+    private static final UUID ORDER_OF_OTHER_CUSTOMER_ID = UUID.randomUUID();
+
+    private static EmbeddedPostgres embeddedPostgres;
+    private static ConnectionPool connectionPool;
+    private static ReactiveOrderRepository orderRepository;
+    private static WebTestClient webTestClient;
+
+    @BeforeAll
+    static void startDatabaseAndRoutes() throws IOException {
+        embeddedPostgres = EmbeddedPostgres.start();
+        DataSource dataSource = embeddedPostgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        insertOrders(new JdbcTemplate(dataSource));
+
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(
+                "r2dbc:postgresql://postgres@localhost:" + embeddedPostgres.getPort() + "/postgres"))
+                .initialSize(1)
+                .maxSize(4)
+                .build());
+        DatabaseClient databaseClient = DatabaseClient.create(connectionPool);
+        orderRepository = new ReactiveOrderRepository(databaseClient);
+        AddressMapper addressMapper = new AddressMapper();
+        webTestClient = WebTestClient
+                .bindToRouterFunction(ReactiveRoutes.routes(
+                        new ReactiveOrderHandler(orderRepository,
+                                new ReactiveOrderReportRepository(databaseClient, orderRepository), new OrderMapper(
+                                new OrderItemMapper(mock(ItemService.class)), addressMapper, mock(CustomerService.class),
+                                new OrderAssemblyExecutor(256, 64, 1))),
+                        new ReactiveItemHandler(new ReactiveItemRepository(databaseClient), new ItemMapper()),
+                        new ReactiveCustomerHandler(new ReactiveCustomerRepository(databaseClient), new CustomerMapper(
+                                addressMapper, new EmailMapper(), new PhoneNumberMapper()))))
+                .handlerStrategies(ReactiveRoutes.handlerStrategies(new ObjectMapper()))
+                .build();
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        connectionPool.dispose();
+        embeddedPostgres.close();
+    }
+
+    @Test
+    void getAllOrders_thenReturnEveryOrderWithItsItemGroupsAndAddress() {
+        List<OrderDto> orders = webTestClient.get().uri("/orders")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(OrderDto.class)
+                .returnResult().getResponseBody();
+
+        assertThat(orders).extracting(OrderDto::getOrderId)
+                .containsExactlyInAnyOrder(ORDER_ID.toString(), OTHER_ORDER_ID.toString(),
+                        ORDER_OF_OTHER_CUSTOMER_ID.toString());
+        OrderDto order = orders.stream()
+                .filter(orderDto -> orderDto.getOrderId().equals(ORDER_ID.toString()))
+                .findFirst().orElseThrow();
+        assertThat(order.getItemGroups()).extracting(ItemGroupDto::getItemId, ItemGroupDto::getOrderedAmount)
+                .containsExactlyInAnyOrder(
+                        tuple(ITEM_ID.toString(), 2),
+                        tuple(OTHER_ITEM_ID.toString(), 3));
+        assertThat(order.getAddress().getStreetName()).isEqualTo("Main street");
+    }
+
+    @Test
+    void getOrdersReportForCustomer_givenNoStoredReport_thenReturnTheReportBuiltFromTheOrdersOfThatCustomer() {
+        webTestClient.get().uri("/orders/customers/{customerId}", CUSTOMER_ID)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalPriceOfAllOrders").isEqualTo(44.85)
+                .jsonPath("$.orders.length()").isEqualTo(2)
+                .jsonPath("$.orders[?(@.orderId == '" + ORDER_ID + "')].totalPrice").isEqualTo(34.9)
+                .jsonPath("$.orders[?(@.orderId == '" + ORDER_ID + "')].itemGroups[*].name")
+                .value(names -> assertThat((List<Object>) names).containsExactlyInAnyOrder("Item", "Other item"))
+                .jsonPath("$.orders[?(@.orderId == '" + OTHER_ORDER_ID + "')].totalPrice").isEqualTo(9.95);
+    }
+
+    @Test
+    void getOrdersReportForCustomer_givenAStoredReport_thenReturnTheStoredReport() {
+        webTestClient.get().uri("/orders/customers/{customerId}", OTHER_CUSTOMER_ID)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalPriceOfAllOrders").isEqualTo(20.0)
+                .jsonPath("$.orders.length()").isEqualTo(1)
+                .jsonPath("$.orders[0].orderId").isEqualTo(ORDER_OF_OTHER_CUSTOMER_ID.toString())
+                .jsonPath("$.orders[0].itemGroups[0].itemId").isEqualTo(OTHER_ITEM_ID.toString())
+                .jsonPath("$.orders[0].itemGroups[0].name").isEqualTo("Other item (as ordered)")
+                .jsonPath("$.orders[0].itemGroups[0].orderedAmount").isEqualTo(4);
+    }
+
+    @Test
+    void getItem() {
+        ItemDto item = webTestClient.get().uri("/items/{itemId}", ITEM_ID)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ItemDto.class)
+                .returnResult().getResponseBody();
+
+        assertThat(item.getId()).isEqualTo(ITEM_ID.toString());
+        assertThat(item.getName()).isEqualTo("Item");
+        assertThat(item.getPrice()).isEqualTo(9.95f);
+    }
+
+    @Test
+    void getItem_givenAnUnknownItem_thenReturnBadRequest() {
+        webTestClient.get().uri("/items/{itemId}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").value(message -> assertThat((String) message).contains("Item with id"));
+    }
+
+    @Test
+    void getCustomer_givenAnInvalidId_thenReturnBadRequest() {
+        webTestClient.get().uri("/customers/{id}", "not-a-uuid")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void findAll_givenTheSubscriberRequestsOneOrder_thenOnlyEmitOneOrder() {
+        StepVerifier.create(orderRepository.findAll(), 1)
+                .expectNextCount(1)
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenCancel()
+                .verify();
+    }
+
+    private static void insertOrders(JdbcTemplate jdbcTemplate) {
+        insertCustomer(jdbcTemplate, CUSTOMER_ID);
+        insertCustomer(jdbcTemplate, OTHER_CUSTOMER_ID);
+        jdbcTemplate.update("insert into item (id, name, amount, amount_of_stock, version) values (?, 'Item', 9.95, 10, 0)",
+                ITEM_ID);
+        jdbcTemplate.update("insert into item (id, name, amount, amount_of_stock, version) values (?, 'Other item', 5, 10, 0)",
+                OTHER_ITEM_ID);
+        insertOrder(jdbcTemplate, ORDER_ID, CUSTOMER_ID);
+        insertOrderItem(jdbcTemplate, ORDER_ID, ITEM_ID, 2);
+        insertOrderItem(jdbcTemplate, ORDER_ID, OTHER_ITEM_ID, 3);
+        insertOrder(jdbcTemplate, OTHER_ORDER_ID, CUSTOMER_ID);
+        insertOrderItem(jdbcTemplate, OTHER_ORDER_ID, ITEM_ID, 1);
+        insertOrder(jdbcTemplate, ORDER_OF_OTHER_CUSTOMER_ID, OTHER_CUSTOMER_ID);
+        insertOrderItem(jdbcTemplate, ORDER_OF_OTHER_CUSTOMER_ID, OTHER_ITEM_ID, 4);
+        insertStoredReport(jdbcTemplate, OTHER_CUSTOMER_ID, ORDER_OF_OTHER_CUSTOMER_ID, OTHER_ITEM_ID, 4);
+    }
+
+    /**
+     * Stores the report of a customer with a single order (of a single item), as the read model would.
+     */
+    private static void insertStoredReport(JdbcTemplate jdbcTemplate, UUID customerId, UUID orderId, UUID itemId,
+                                           int orderedAmount) {
+        jdbcTemplate.update("insert into customer_order_report "
+                        + "(id, customer_id, amount_of_orders, total_price_of_all_orders) values (?, ?, 1, 20)",
+                UUID.randomUUID(), customerId);
+        jdbcTemplate.update("insert into order_report_line (id, customer_id, order_id, order_total_price, "
+                        + "ordered_at, item_id, item_name, ordered_amount, total_price) "
+                        + "values (?, ?, ?, 20, current_timestamp, ?, 'Other item (as ordered)', ?, 20)",
+                UUID.randomUUID(), customerId, orderId, itemId, orderedAmount);
+    }
+
+    private static void insertCustomer(JdbcTemplate jdbcTemplate, UUID customerId) {
+        jdbcTemplate.update("insert into customer (id, firstname, lastname, local_part, domain, complete, "
+                        + "street_name, house_number, postal_code, country, number, country_calling_code) "
+                        + "values (?, 'Jane', 'Doe', 'jane', 'order.com', 'jane@order.com', "
+                        + "'Main street', '1', '1000', 'Belgium', '0475000000', '+32')",
+                customerId);
+    }
+
+    private static void insertOrder(JdbcTemplate jdbcTemplate, UUID orderId, UUID customerId) {
+        jdbcTemplate.update("insert into orders (id, customer_id, total_price, amount_of_order_items) "
+                + "values (?, ?, 0, 0)", orderId, customerId);
+    }
+
+    private static void insertOrderItem(JdbcTemplate jdbcTemplate, UUID orderId, UUID itemId, int orderedAmount) {
+        jdbcTemplate.update("insert into order_item (id, order_id, item_id, amount, ordered_amount, shipping_date) "
+                        + "select ?, ?, i.id, i.amount, ?, current_date + 1 from item i where i.id = ?",
+                UUID.randomUUID(), orderId, orderedAmount, itemId);
+    }
+}
@@ -2,6 +2,7 @@ package com.switchfully.order.service.customers;
 
 import com.switchfully.order.domain.customers.Customer;
 import com.switchfully.order.domain.customers.CustomerRepository;
+import com.switchfully.order.infrastructure.exceptions.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,11 +30,22 @@ public class CustomerService {
         return customerRepository.save(customer);
     }
 
+    @Transactional(readOnly = true)
     public List<Customer> getAllCustomers() {
         return customerRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Customer getCustomer(UUID id) {
+        return customerRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("getting a customer", Customer.class, id));
+    }
+
+    /**
+     * @return a reference to the customer (e.g. to link a new order to), without selecting it. Whether the
+     * customer exists is only known once the reference is used (or checked separately, as when creating an order).
+     */
+    public Customer getCustomerReference(UUID id) {
         return customerRepository.getOne(id);
     }
 }
@@ -0,0 +1,179 @@
+package com.switchfully.order.service.items;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.switchfully.order.domain.items.Item;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A bounded, in-memory cache of items in front of the item table. Entries are evicted when the cache exceeds
+ * order.items.cache.maximum-size, and expire order.items.cache.expire-after-write-ms after they were loaded
+ * (which bounds how long changes that bypass the {@link ItemService} stay invisible).
+ * <p>
+ * Changes made through the {@link ItemService} or the {@link StockEngine} are applied once their transaction
+ * commits, so a rolled back change never ends up in the cache. The cached items are shared between requests
+ * and must be treated as read-only.
+ * <p>
+ * When a read replica is configured (order.datasource.replica.jdbc-url), items loaded within a read-only
+ * transaction come from the replica, which may lag behind. Such items are returned, but not cached, so the
+ * cache never serves an item older than the primary database had when it was loaded.
+ */
+@Named
+public class ItemCache {
+
+    private final boolean enabled;
+    private final boolean strictStockReads;
+    private final boolean replicaConfigured;
+    private final Cache<UUID, Item> itemsById;
+
+    @Inject
+    public ItemCache(@Value("${order.items.cache.enabled:true}") boolean enabled,
+                     @Value("${order.items.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${order.items.cache.expire-after-write-ms:60000}") long expireAfterWriteInMillis,
+                     @Value("${order.items.cache.strict-stock-reads:true}") boolean strictStockReads,
+                     @Value("${order.datasource.replica.jdbc-url:}") String replicaJdbcUrl) {
+        this.enabled = enabled;
+        this.strictStockReads = strictStockReads;
+        this.replicaConfigured = !replicaJdbcUrl.isEmpty();
+        this.itemsById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteInMillis))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return whether reads of the stock (such as when calculating the shipping date of an order item)
+     * should bypass the cache and always go to the item table
+     */
+    public boolean isStrictStockReads() {
+        return !enabled || strictStockReads;
+    }
+
+    /**
+     * @return the cached item, or the item provided by the loader (which is cached), or null when neither has it
+     */
+    public Item get(UUID itemId, Function<UUID, Item> loader) {
+        if (!enabled) {
+            return loader.apply(itemId);
+        }
+        if (isLoadingFromTheReplica()) {
+            Item cachedItem = itemsById.getIfPresent(itemId);
+            return cachedItem != null ? cachedItem : loader.apply(itemId);
+        }
+        return itemsById.get(itemId, loader);
+    }
+
+    /**
+     * @return the cached items, completed with the (cached) items provided by the loader for the missing ids
+     */
+    public Map<UUID, Item> getAll(Collection<UUID> itemIds, Function<Collection<UUID>, Map<UUID, Item>> loader) {
+        if (!enabled) {
+            return loader.apply(itemIds);
+        }
+        if (isLoadingFromTheReplica()) {
+            Map<UUID, Item> items = new HashMap<>(itemsById.getAllPresent(itemIds));
+            List<UUID> missingItemIds = itemIds.stream()
+                    .filter(itemId -> !items.containsKey(itemId))
+                    .collect(Collectors.toList());
+            if (!missingItemIds.isEmpty()) {
+                items.putAll(loader.apply(missingItemIds));
+            }
+            return items;
+        }
+        return itemsById.getAll(itemIds, missingItemIds -> loader.apply(toCollection(missingItemIds)));
+    }
+
+    /**
+     * Caches the provided (created or updated) item once the ongoing transaction (if any) commits.
+     * An item without id (which was never saved) can't be looked up, so it isn't cached.
+     */
+    public void put(Item item) {
+        if (!enabled || item.getId() == null) {
+            return;
+        }
+        itemsById.invalidate(item.getId());
+        afterCommit(() -> itemsById.put(item.getId(), item));
+    }
+
+    /**
+     * Evicts the item (e.g. because its stock changed), right away and once the ongoing transaction (if any)
+     * completes, so that a concurrent read can't put back the item as it was before the change.
+     */
+    public void evict(UUID itemId) {
+        if (!enabled || itemId == null) {
+            return;
+        }
+        itemsById.invalidate(itemId);
+        afterCompletion(() -> itemsById.invalidate(itemId));
+    }
+
+    public void evictAll() {
+        itemsById.invalidateAll();
+    }
+
+    public long getSize() {
+        return itemsById.estimatedSize();
+    }
+
+    /**
+     * @return the hit, miss, load and eviction counts of the cache since startup
+     */
+    public CacheStats getStats() {
+        return itemsById.stats();
+    }
+
+    private boolean isLoadingFromTheReplica() {
+        return replicaConfigured && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<UUID> toCollection(Iterable<? extends UUID> itemIds) {
+        if (itemIds instanceof Collection) {
+            return (Collection<UUID>) itemIds;
+        }
+        List<UUID> itemIdList = new ArrayList<>();
+        itemIds.forEach(itemIdList::add);
+        return itemIdList;
+    }
+}
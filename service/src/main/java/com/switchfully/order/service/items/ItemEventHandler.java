@@ -1,6 +1,7 @@
 package com.switchfully.order.service.items;
 
 import com.switchfully.order.domain.orders.orderitems.events.OrderItemCreatedEvent;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.context.ApplicationListener;
 
 import javax.inject.Inject;
@@ -12,14 +13,23 @@ public class ItemEventHandler {
     @Named
     public static class OrderItemCreatedEventListener implements ApplicationListener<OrderItemCreatedEvent> {
         private final ItemService itemService;
+        private final StockDecrementQueue stockDecrementQueue;
 
         @Inject
-        public OrderItemCreatedEventListener(ItemService itemService) {
+        public OrderItemCreatedEventListener(ItemService itemService, StockDecrementQueue stockDecrementQueue) {
             this.itemService = itemService;
+            this.stockDecrementQueue = stockDecrementQueue;
         }
 
         @Override
+        @Timed(value = "order.events.order-item-created", description = "Handling the creation of an order item")
         public void onApplicationEvent(OrderItemCreatedEvent event) {
+            if (stockDecrementQueue.isEnabled()) {
+                stockDecrementQueue.enqueue(
+                        event.getOrderItem().getItemId(),
+                        event.getOrderItem().getOrderedAmount());
+                return;
+            }
             itemService.decrementStockForItem(
                     event.getOrderItem().getItemId(),
                     event.getOrderItem().getOrderedAmount());
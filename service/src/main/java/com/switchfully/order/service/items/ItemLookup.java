@@ -0,0 +1,73 @@
+package com.switchfully.order.service.items;
+
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.domain.orders.Order;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A snapshot of items, resolved with a single query, that is used while assembling (and creating) one order.
+ * All price, stock and existence checks of that order are answered from this snapshot,
+ * instead of going back to the database for every item group.
+ * <p>
+ * When the snapshot is shared by a batch of orders, the stock taken by the (earlier) orders of that batch is
+ * tracked as well, so the shipping dates of the later orders take the stock into account that's already ordered.
+ * The items of the snapshot themselves are never changed (they might be shared with the item cache).
+ */
+public final class ItemLookup {
+
+    private final Map<UUID, Item> itemsById;
+    private final Map<UUID, Integer> takenStockByItemId = new ConcurrentHashMap<>();
+
+    private ItemLookup(Map<UUID, Item> itemsById) {
+        this.itemsById = itemsById;
+    }
+
+    public static ItemLookup of(Collection<Item> items) {
+        Map<UUID, Item> itemsById = new HashMap<>();
+        items.forEach(item -> itemsById.put(item.getId(), item));
+        return new ItemLookup(itemsById);
+    }
+
+    /**
+     * @return the item with the provided id, or null when the item was not found
+     */
+    public Item get(UUID itemId) {
+        return itemsById.get(itemId);
+    }
+
+    public boolean contains(UUID itemId) {
+        return itemsById.containsKey(itemId);
+    }
+
+    public int size() {
+        return itemsById.size();
+    }
+
+    /**
+     * @return the stock of the (resolved) item in this snapshot, minus the stock taken from this snapshot
+     */
+    public int getAvailableStock(UUID itemId) {
+        return itemsById.get(itemId).getAmountOfStock() - takenStockByItemId.getOrDefault(itemId, 0);
+    }
+
+    /**
+     * Takes the stock ordered by the provided order (which should only order resolved items) from this snapshot.
+     */
+    public void takeStockFor(Order order) {
+        order.getOrderItems().forEach(orderItem ->
+                takenStockByItemId.merge(orderItem.getItemId(), orderItem.getOrderedAmount(), Integer::sum));
+    }
+
+    /**
+     * Gives the stock taken for the provided order back, e.g. when the order couldn't be created after all.
+     */
+    public void returnStockOf(Order order) {
+        order.getOrderItems().forEach(orderItem ->
+                takenStockByItemId.merge(orderItem.getItemId(), -orderItem.getOrderedAmount(), Integer::sum));
+    }
+}
@@ -2,13 +2,17 @@ package com.switchfully.order.service.items;
 
 import com.switchfully.order.domain.items.Item;
 import com.switchfully.order.domain.items.ItemRepository;
+import com.switchfully.order.infrastructure.exceptions.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -16,37 +20,86 @@ public class ItemService {
 
     private final ItemRepository itemRepository;
     private final ItemValidator itemValidator;
+    private final StockEngine stockEngine;
+    private final ItemCache itemCache;
 
     @Autowired
-    public ItemService(ItemRepository itemRepository, ItemValidator itemValidator) {
+    public ItemService(ItemRepository itemRepository, ItemValidator itemValidator, StockEngine stockEngine,
+                       ItemCache itemCache) {
         this.itemRepository = itemRepository;
         this.itemValidator = itemValidator;
+        this.stockEngine = stockEngine;
+        this.itemCache = itemCache;
     }
 
     public Item createItem(Item item) {
         if (!itemValidator.isValidForCreation(item)) {
             itemValidator.throwInvalidStateException(item, "creation");
         }
-        return itemRepository.save(item);
+        Item createdItem = itemRepository.save(item);
+        itemCache.put(createdItem);
+        return createdItem;
     }
 
     public Item updateItem(Item item) {
         if (!itemValidator.isValidForUpdating(item)) {
             itemValidator.throwInvalidStateException(item, "updating");
         }
-        return itemRepository.save(item);
+        Item updatedItem = itemRepository.findById(item.getId())
+                .map(existingItem -> {
+                    existingItem.updateWith(item);
+                    return existingItem;
+                })
+                .orElseGet(() -> itemRepository.save(item));
+        stockEngine.stockOverwritten(updatedItem);
+        itemCache.put(updatedItem);
+        return updatedItem;
     }
 
+    /**
+     * Runs in a read-write transaction, so it reads from the primary database (also when a read replica is
+     * configured), since the loaded item is shared with every other request through the {@link ItemCache}.
+     */
     public Item getItem(UUID itemId) {
-        return itemRepository.getOne(itemId);
+        Item item = itemCache.get(itemId, id -> itemRepository.findById(id).orElse(null));
+        if (item == null) {
+            throw new EntityNotFoundException("getting an item", Item.class, itemId);
+        }
+        return item;
+    }
+
+    /**
+     * Resolves all the provided items in one go. Since the stock of these items is used to calculate shipping
+     * dates, they're only served from the {@link ItemCache} when its strict stock reads are turned off.
+     */
+    public ItemLookup getItems(Collection<UUID> itemIds) {
+        if (itemCache.isStrictStockReads()) {
+            return ItemLookup.of(itemRepository.findAllById(itemIds));
+        }
+        return ItemLookup.of(itemCache.getAll(itemIds, this::findAllByIdMappedById).values());
+    }
+
+    /**
+     * Resolves the provided items, served from the {@link ItemCache} whenever possible (also when its strict
+     * stock reads are turned on), so the stock of the returned items shouldn't be relied on.
+     *
+     * @return the found items by their id
+     */
+    public Map<UUID, Item> getCachedItems(Collection<UUID> itemIds) {
+        return itemCache.getAll(itemIds, this::findAllByIdMappedById);
     }
 
     public void decrementStockForItem(UUID itemId, int amountToDecrement) {
-        Item item = itemRepository.getOne(itemId);
-        item.decrementStock(amountToDecrement);
+        stockEngine.decrementStock(itemId, amountToDecrement);
     }
 
+    @Transactional(readOnly = true)
     public List<Item> getAllItems() {
         return itemRepository.findAll();
     }
+
+    private Map<UUID, Item> findAllByIdMappedById(Collection<UUID> itemIds) {
+        return itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+    }
 }
@@ -0,0 +1,331 @@
+package com.switchfully.order.service.items;
+
+import com.switchfully.order.infrastructure.exceptions.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decouples the stock bookkeeping of ordered items from the creation of the order (when
+ * order.stock.async.enabled is true): instead of decrementing the stock within the transaction of the order,
+ * the decrement is queued once that transaction commits. A single worker drains the queue in batches,
+ * combines the decrements of the same item and applies them (using the {@link StockEngine}), every item in its own
+ * transaction, so a failing item doesn't hold back the others.
+ * <p>
+ * The queue is bounded: when it's full, enqueueing waits for at most order.stock.async.enqueue-timeout-ms,
+ * after which the order is refused. The room in the queue is claimed before the order's transaction commits,
+ * so a committed order never loses its decrement.
+ * <p>
+ * Since the stock is decremented after the order was created, an order can no longer be refused because of
+ * insufficient stock. Such decrements, and the ones of items that no longer exist, are logged and skipped. When the
+ * combined decrement of an item doesn't fit its stock, its decrements are applied one by one (in the order in which
+ * they were queued), so only the ones that don't fit are skipped.
+ * Decrements that fail for any other (possibly temporary) reason are queued again, until they failed
+ * order.stock.async.max-attempts times. Then they're dead-lettered: logged and counted (see
+ * {@link #getDeadLetteredDecrements()}), but no longer retried. Either way, their room in the queue is freed.
+ */
+@Named
+public class StockDecrementQueue implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StockDecrementQueue.class);
+
+    private final StockEngine stockEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final int maxAttempts;
+    private final long enqueueTimeoutInMillis;
+    private final Semaphore freeCapacity;
+    private final BlockingQueue<StockDecrement> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong skippedDecrements = new AtomicLong();
+    private final AtomicLong deadLetteredDecrements = new AtomicLong();
+    private volatile Thread worker;
+
+    @Inject
+    public StockDecrementQueue(StockEngine stockEngine,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${order.stock.async.enabled:false}") boolean enabled,
+                               @Value("${order.stock.async.capacity:10000}") int capacity,
+                               @Value("${order.stock.async.max-batch-size:500}") int maxBatchSize,
+                               @Value("${order.stock.async.enqueue-timeout-ms:100}") long enqueueTimeoutInMillis,
+                               @Value("${order.stock.async.max-attempts:5}") int maxAttempts) {
+        this.stockEngine = stockEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.enqueueTimeoutInMillis = enqueueTimeoutInMillis;
+        this.maxAttempts = maxAttempts;
+        this.freeCapacity = new Semaphore(capacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the decrement once the ongoing transaction (if any) commits.
+     *
+     * @throws IllegalStateException when the queue stays full for longer than the enqueue timeout
+     */
+    public void enqueue(UUID itemId, int amountToDecrement) {
+        claimCapacity();
+        StockDecrement stockDecrement = new StockDecrement(itemId, amountToDecrement);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        queue.add(stockDecrement.enqueuedNow());
+                    } else {
+                        freeCapacity.release();
+                    }
+                }
+            });
+        } else {
+            queue.add(stockDecrement.enqueuedNow());
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * @return how long the oldest queued decrement is waiting already (zero when the queue is empty)
+     */
+    public Duration getQueueLag() {
+        StockDecrement oldestStockDecrement = queue.peek();
+        if (oldestStockDecrement == null) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(System.nanoTime() - oldestStockDecrement.enqueuedAt);
+    }
+
+    /**
+     * @return the amount of decrements that were skipped, because the item didn't have enough stock or didn't exist
+     */
+    public long getSkippedDecrements() {
+        return skippedDecrements.get();
+    }
+
+    /**
+     * @return the amount of decrements that were given up on, after failing the maximum amount of attempts
+     */
+    public long getDeadLetteredDecrements() {
+        return deadLetteredDecrements.get();
+    }
+
+    /**
+     * Applies (at most the maximum batch size of) the queued decrements, combined per item, every item in its own
+     * transaction. When the transaction of an item fails, the decrements of that item are queued again.
+     *
+     * @return the amount of queued decrements that were processed
+     */
+    public int processBatch() {
+        List<StockDecrement> batch = new ArrayList<>();
+        queue.drainTo(batch, maxBatchSize);
+        process(batch);
+        return batch.size();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        worker = new Thread(this::processUntilStopped, "stock-decrement-worker");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stops the worker, after which the remaining queued decrements are processed.
+     */
+    @Override
+    public void stop() {
+        Thread runningWorker = worker;
+        worker = null;
+        if (runningWorker != null) {
+            runningWorker.interrupt();
+            try {
+                runningWorker.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            while (processBatch() > 0) {
+                // keep processing until the queue is empty
+            }
+        } catch (RuntimeException exception) {
+            LOGGER.error("Processing the remaining " + queue.size() + " stock decrements failed", exception);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    private void processUntilStopped() {
+        while (worker != null) {
+            try {
+                StockDecrement firstStockDecrement = queue.poll(1, TimeUnit.SECONDS);
+                if (firstStockDecrement != null) {
+                    List<StockDecrement> batch = new ArrayList<>();
+                    batch.add(firstStockDecrement);
+                    queue.drainTo(batch, maxBatchSize - 1);
+                    if (process(batch) > 0) {
+                        // give whatever made the decrements fail (e.g. an unavailable database) time to recover
+                        Thread.sleep(TimeUnit.SECONDS.toMillis(1));
+                    }
+                }
+            } catch (InterruptedException exception) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the amount of decrements that failed and were queued again
+     */
+    private int process(List<StockDecrement> batch) {
+        int requeuedDecrements = 0;
+        for (Map.Entry<UUID, List<StockDecrement>> itemDecrements : groupPerItem(batch).entrySet()) {
+            requeuedDecrements += apply(itemDecrements.getKey(), itemDecrements.getValue());
+        }
+        return requeuedDecrements;
+    }
+
+    /**
+     * @return the amount of decrements that failed and were queued again
+     */
+    private int apply(UUID itemId, List<StockDecrement> itemDecrements) {
+        int amountToDecrement = itemDecrements.stream()
+                .mapToInt(stockDecrement -> stockDecrement.amountToDecrement)
+                .sum();
+        try {
+            transactionTemplate.executeWithoutResult(status -> stockEngine.decrementStock(itemId, amountToDecrement));
+        } catch (IllegalArgumentException exception) {
+            if (itemDecrements.size() > 1) {
+                return applyOneByOne(itemId, itemDecrements);
+            }
+            skip(itemId, itemDecrements, amountToDecrement, exception);
+        } catch (EntityNotFoundException exception) {
+            skip(itemId, itemDecrements, amountToDecrement, exception);
+        } catch (RuntimeException exception) {
+            return requeueOrDeadLetter(itemId, itemDecrements, exception);
+        }
+        freeCapacity.release(itemDecrements.size());
+        return 0;
+    }
+
+    /**
+     * @return the amount of decrements that failed and were queued again
+     */
+    private int applyOneByOne(UUID itemId, List<StockDecrement> itemDecrements) {
+        int requeuedDecrements = 0;
+        for (StockDecrement stockDecrement : itemDecrements) {
+            requeuedDecrements += apply(itemId, List.of(stockDecrement));
+        }
+        return requeuedDecrements;
+    }
+
+    private void skip(UUID itemId, List<StockDecrement> itemDecrements, int amountToDecrement,
+                      RuntimeException exception) {
+        LOGGER.warn("Skipped decrementing the stock of item {} by {}: {}",
+                itemId, amountToDecrement, exception.getMessage());
+        skippedDecrements.addAndGet(itemDecrements.size());
+    }
+
+    private int requeueOrDeadLetter(UUID itemId, List<StockDecrement> itemDecrements, RuntimeException exception) {
+        int requeuedDecrements = 0;
+        for (StockDecrement stockDecrement : itemDecrements) {
+            StockDecrement failedStockDecrement = stockDecrement.failedOnceMore();
+            if (failedStockDecrement.failedAttempts < maxAttempts) {
+                queue.add(failedStockDecrement);
+                requeuedDecrements++;
+            } else {
+                LOGGER.error("Gave up decrementing the stock of item " + itemId.toString() + " by "
+                        + stockDecrement.amountToDecrement + " after " + maxAttempts + " attempts", exception);
+                deadLetteredDecrements.incrementAndGet();
+                freeCapacity.release();
+            }
+        }
+        if (requeuedDecrements > 0) {
+            LOGGER.warn("Decrementing the stock of item {} failed, queued {} decrements again: {}",
+                    itemId, requeuedDecrements, exception.toString());
+        }
+        return requeuedDecrements;
+    }
+
+    private void claimCapacity() {
+        try {
+            if (!freeCapacity.tryAcquire(enqueueTimeoutInMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("The stock of the ordered items can't be updated right now, " +
+                        "because too many orders are waiting to be processed. Please try again later.");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to update the stock of the ordered items",
+                    exception);
+        }
+    }
+
+    private Map<UUID, List<StockDecrement>> groupPerItem(List<StockDecrement> batch) {
+        Map<UUID, List<StockDecrement>> decrementsPerItem = new LinkedHashMap<>();
+        batch.forEach(stockDecrement -> decrementsPerItem
+                .computeIfAbsent(stockDecrement.itemId, itemId -> new ArrayList<>())
+                .add(stockDecrement));
+        return decrementsPerItem;
+    }
+
+    private static class StockDecrement {
+
+        private final UUID itemId;
+        private final int amountToDecrement;
+        private final long enqueuedAt;
+        private final int failedAttempts;
+
+        private StockDecrement(UUID itemId, int amountToDecrement) {
+            this(itemId, amountToDecrement, 0, 0);
+        }
+
+        private StockDecrement(UUID itemId, int amountToDecrement, long enqueuedAt, int failedAttempts) {
+            this.itemId = itemId;
+            this.amountToDecrement = amountToDecrement;
+            this.enqueuedAt = enqueuedAt;
+            this.failedAttempts = failedAttempts;
+        }
+
+        private StockDecrement enqueuedNow() {
+            return new StockDecrement(itemId, amountToDecrement, System.nanoTime(), failedAttempts);
+        }
+
+        /**
+         * Keeps the original enqueue time, so the lag of the queue includes the time spent on the failed attempts.
+         */
+        private StockDecrement failedOnceMore() {
+            return new StockDecrement(itemId, amountToDecrement, enqueuedAt, failedAttempts + 1);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.switchfully.order.service.items;
+
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.domain.items.ItemRepository;
+import com.switchfully.order.infrastructure.exceptions.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.persistence.EntityManager;
+import java.util.UUID;
+
+/**
+ * Decrements the stock of items in a way that is safe for concurrent orders of the same item.
+ * <p>
+ * The following strategies are supported (configured with the order.stock.decrement-strategy property):
+ * <ul>
+ * <li>ATOMIC (default): a single conditional update statement. The database serializes concurrent decrements
+ * of the same row, so there's no lost update nor overselling, and no retries are needed. Since the update joins
+ * the ongoing transaction, the decrement is rolled back together with the order that caused it.</li>
+ * <li>OPTIMISTIC: reads the item and writes back its decremented stock with an update that only succeeds when the
+ * version of the item didn't change in between. A failed attempt doesn't break the ongoing transaction (the update
+ * simply matches no row), so it's retried within that transaction (at most {@link #MAX_OPTIMISTIC_ATTEMPTS} times).
+ * Under high contention on a single item, most attempts fail, which makes this strategy only suitable when orders
+ * are spread over many items.</li>
+ * <li>LEDGER: reserves the stock in the (in-memory) {@link StockReservationLedger}, which periodically flushes
+ * the reservations to the item table. Meant for flash sales, where many orders target the same few items.</li>
+ * </ul>
+ */
+@Named
+public class StockEngine {
+
+    public static final int MAX_OPTIMISTIC_ATTEMPTS = 5;
+
+    private final ItemRepository itemRepository;
+    private final StockReservationLedger stockReservationLedger;
+    private final ItemCache itemCache;
+    private final EntityManager entityManager;
+    private final DecrementStrategy decrementStrategy;
+
+    @Inject
+    public StockEngine(ItemRepository itemRepository,
+                       StockReservationLedger stockReservationLedger,
+                       ItemCache itemCache,
+                       EntityManager entityManager,
+                       @Value("${order.stock.decrement-strategy:ATOMIC}") DecrementStrategy decrementStrategy) {
+        this.itemRepository = itemRepository;
+        this.stockReservationLedger = stockReservationLedger;
+        this.itemCache = itemCache;
+        this.entityManager = entityManager;
+        this.decrementStrategy = decrementStrategy;
+    }
+
+    public void decrementStock(UUID itemId, int amountToDecrement) {
+        if (decrementStrategy == DecrementStrategy.LEDGER) {
+            stockReservationLedger.reserve(itemId, amountToDecrement);
+        } else if (decrementStrategy == DecrementStrategy.OPTIMISTIC) {
+            decrementStockOptimistically(itemId, amountToDecrement);
+        } else {
+            decrementStockAtomically(itemId, amountToDecrement);
+        }
+        itemCache.evict(itemId);
+    }
+
+    /**
+     * To be called after the stock of the provided item was overwritten (e.g. by updating the item).
+     */
+    public void stockOverwritten(Item item) {
+        if (decrementStrategy == DecrementStrategy.LEDGER) {
+            stockReservationLedger.refresh(item);
+        }
+    }
+
+    public DecrementStrategy getDecrementStrategy() {
+        return decrementStrategy;
+    }
+
+    void decrementStockAtomically(UUID itemId, int amountToDecrement) {
+        if (itemRepository.decrementStockIfAvailable(itemId, amountToDecrement) == 0) {
+            assertItemExists(itemId);
+            throw new IllegalArgumentException("Decrementing the stock amount of an item " + itemId.toString()
+                    + " below 0 is not allowed");
+        }
+        detachItem(itemId);
+    }
+
+    void decrementStockOptimistically(UUID itemId, int amountToDecrement) {
+        for (int attempt = 1; ; attempt++) {
+            if (decrementStockIfUnchanged(itemId, amountToDecrement)) {
+                return;
+            }
+            if (attempt == MAX_OPTIMISTIC_ATTEMPTS) {
+                throw new IllegalStateException("Decrementing the stock amount of an item " + itemId.toString()
+                        + " failed " + MAX_OPTIMISTIC_ATTEMPTS + " times because of concurrent updates");
+            }
+        }
+    }
+
+    /**
+     * Reads the item and writes back its decremented stock, on the condition that its version didn't change in
+     * between. The read item itself is left untouched, so flushing it can't overwrite a concurrent change. Since
+     * the item is detached after the update, a next attempt reads it again from the database.
+     *
+     * @return false when the item was changed concurrently
+     */
+    private boolean decrementStockIfUnchanged(UUID itemId, int amountToDecrement) {
+        Item item = itemRepository.findById(itemId).orElseThrow(() -> itemNotFound(itemId));
+        int remainingStock = item.getAmountOfStock() - amountToDecrement;
+        if (remainingStock < 0) {
+            throw new IllegalArgumentException("Decrementing the stock amount of an item " + itemId.toString()
+                    + " below 0 is not allowed");
+        }
+        boolean updated = itemRepository.updateStockIfVersionMatches(itemId, remainingStock, item.getVersion()) == 1;
+        detachItem(itemId);
+        return updated;
+    }
+
+    /**
+     * The conditional updates bypass the persistence context, so the item it holds (if any) is outdated afterwards.
+     * Only that item is detached (getting a reference doesn't hit the database): the rest of the persistence
+     * context, like the order being created, stays managed.
+     */
+    private void detachItem(UUID itemId) {
+        entityManager.detach(entityManager.getReference(Item.class, itemId));
+    }
+
+    private void assertItemExists(UUID itemId) {
+        if (!itemRepository.existsById(itemId)) {
+            throw itemNotFound(itemId);
+        }
+    }
+
+    private EntityNotFoundException itemNotFound(UUID itemId) {
+        return new EntityNotFoundException("decrementing the stock of an item", Item.class, itemId);
+    }
+
+    public enum DecrementStrategy {
+        ATOMIC,
+        OPTIMISTIC,
+        LEDGER
+    }
+}
@@ -0,0 +1,328 @@
+package com.switchfully.order.service.items;
+
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.domain.items.ItemRepository;
+import com.switchfully.order.infrastructure.exceptions.EntityNotFoundException;
+import com.switchfully.order.service.items.StockEngine.DecrementStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the available stock of every item in memory, so that concurrent orders of the same item reserve stock
+ * with a compare-and-set on a counter, instead of all waiting for the lock on the same item row.
+ * <p>
+ * A reservation is only confirmed when the transaction of the order commits (and released when it rolls back).
+ * Confirmed reservations are collected per item and periodically flushed, as one decrement per item,
+ * to the item table. Until then, the stock in the item table is higher than the stock available in this ledger:
+ * {@link #getUnflushedDecrements()} exposes that difference (without the reservations that aren't confirmed yet).
+ * <p>
+ * Only active when order.stock.decrement-strategy is LEDGER. The ledger is reconciled with the item table on
+ * startup, items that are unknown to the ledger (e.g. created afterwards) are loaded on their first reservation.
+ * When the application shuts down, the remaining reservations are flushed, before the database connections are
+ * closed. The ledger is stopped after the {@link StockDecrementQueue}, whose remaining decrements may still reserve
+ * stock in this ledger.
+ */
+@Named
+public class StockReservationLedger implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StockReservationLedger.class);
+
+    private final ItemRepository itemRepository;
+    private final ItemCache itemCache;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Map<UUID, ItemStock> stockPerItem = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    @Inject
+    public StockReservationLedger(ItemRepository itemRepository,
+                                  ItemCache itemCache,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${order.stock.decrement-strategy:ATOMIC}") DecrementStrategy decrementStrategy) {
+        this.itemRepository = itemRepository;
+        this.itemCache = itemCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = decrementStrategy == DecrementStrategy.LEDGER;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserves the provided amount of stock of the item. When called within a transaction, the reservation is
+     * confirmed after that transaction commits and released when it rolls back. Otherwise, it's confirmed directly.
+     *
+     * @throws IllegalArgumentException when there's not enough stock available to reserve
+     */
+    public void reserve(UUID itemId, int amountToReserve) {
+        ItemStock itemStock = getItemStock(itemId);
+        if (!itemStock.reserve(amountToReserve)) {
+            throw new IllegalArgumentException("Decrementing the stock amount of an item " + itemId.toString()
+                    + " below 0 is not allowed");
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new ReservationSynchronization(itemStock, amountToReserve));
+        } else {
+            itemStock.confirm(amountToReserve);
+        }
+    }
+
+    /**
+     * Writes all confirmed (but not yet flushed) reservations to the item table, as one decrement per item,
+     * within one transaction. When that transaction fails, the reservations are kept to be flushed the next time.
+     * Decrements that no longer fit the stock in the item table are dropped, the stock of their items is reloaded
+     * once the transaction committed. Flushes don't overlap, so the final flush on shutdown can't run concurrently
+     * with a scheduled one.
+     */
+    @Scheduled(fixedDelayString = "${order.stock.ledger.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        Map<UUID, Integer> decrementsToFlush = new HashMap<>();
+        stockPerItem.forEach((itemId, itemStock) -> {
+            int unflushedDecrement = itemStock.takeUnflushedDecrement();
+            if (unflushedDecrement > 0) {
+                decrementsToFlush.put(itemId, unflushedDecrement);
+            }
+        });
+        if (decrementsToFlush.isEmpty()) {
+            return;
+        }
+        Set<UUID> itemsWithDroppedDecrements = new HashSet<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> decrementsToFlush.forEach((itemId, decrement) -> {
+                if (!flushDecrement(itemId, decrement)) {
+                    itemsWithDroppedDecrements.add(itemId);
+                }
+            }));
+        } catch (RuntimeException exception) {
+            LOGGER.error("Flushing the stock reservations of " + decrementsToFlush.size() + " items failed, " +
+                    "they will be retried during the next flush", exception);
+            decrementsToFlush.forEach((itemId, decrement) -> stockPerItem.computeIfPresent(itemId,
+                    (id, itemStock) -> itemStock.withReturnedUnflushedDecrement(decrement)));
+            return;
+        }
+        decrementsToFlush.forEach((itemId, decrement) -> stockPerItem.computeIfPresent(itemId,
+                (id, itemStock) -> itemStock.withFlushedDecrement(decrement)));
+        itemsWithDroppedDecrements.forEach(itemId ->
+                itemRepository.findById(itemId).ifPresentOrElse(this::refresh, () -> stockPerItem.remove(itemId)));
+    }
+
+    @Override
+    public void start() {
+        running = enabled;
+    }
+
+    /**
+     * Flushes the remaining reservations.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flush();
+        Map<UUID, Integer> unflushedDecrements = getUnflushedDecrements();
+        if (!unflushedDecrements.isEmpty()) {
+            LOGGER.error("Shutting down without flushing the stock reservations (per item) {}", unflushedDecrements);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 1;
+    }
+
+    /**
+     * (Re)loads the stock of all items from the item table. Should only be called when there are no
+     * unflushed reservations, such as on startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        stockPerItem.clear();
+        itemRepository.findAll().forEach(this::refresh);
+        LOGGER.info("Reconciled the stock reservation ledger with the stock of {} items", stockPerItem.size());
+    }
+
+    /**
+     * To be called when the stock of an item was overwritten in the item table (e.g. when updating the item):
+     * the reservations that aren't in the item table yet (not confirmed, not flushed or being flushed) are
+     * subtracted from the new stock. When called within a transaction, that only happens after the transaction
+     * commits, since the new stock isn't in the item table before (and never will be when it rolls back).
+     */
+    public void refresh(Item item) {
+        UUID itemId = item.getId();
+        int persistedStock = item.getAmountOfStock();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        refresh(itemId, persistedStock);
+                    }
+                }
+            });
+        } else {
+            refresh(itemId, persistedStock);
+        }
+    }
+
+    public int getAvailableStock(UUID itemId) {
+        return getItemStock(itemId).available.get();
+    }
+
+    /**
+     * @return per item, the amount of reserved stock that isn't decremented in the item table yet
+     * (only the items for which that amount isn't 0)
+     */
+    public Map<UUID, Integer> getUnflushedDecrements() {
+        Map<UUID, Integer> unflushedDecrements = new HashMap<>();
+        stockPerItem.forEach((itemId, itemStock) -> {
+            int unflushedDecrement = itemStock.getUnflushedDecrement();
+            if (unflushedDecrement != 0) {
+                unflushedDecrements.put(itemId, unflushedDecrement);
+            }
+        });
+        return unflushedDecrements;
+    }
+
+    private void refresh(UUID itemId, int persistedStock) {
+        stockPerItem.compute(itemId, (id, itemStock) -> itemStock == null
+                ? new ItemStock(persistedStock)
+                : itemStock.withPersistedStock(persistedStock));
+    }
+
+    private ItemStock getItemStock(UUID itemId) {
+        return stockPerItem.computeIfAbsent(itemId, id -> new ItemStock(itemRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("reserving the stock of an item", Item.class, id))
+                .getAmountOfStock()));
+    }
+
+    /**
+     * @return false when the decrement was dropped, since it no longer fits the stock in the item table
+     */
+    private boolean flushDecrement(UUID itemId, int decrement) {
+        itemCache.evict(itemId);
+        if (itemRepository.decrementStockIfAvailable(itemId, decrement) == 0) {
+            LOGGER.warn("The stock of item {} was lowered below the reserved stock (or the item was removed), " +
+                    "dropped a decrement of {} and reloading its stock", itemId, decrement);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Every reserved amount is counted in exactly one of pending (not confirmed yet), unflushed (confirmed) and
+     * inFlush (being written to the item table). An amount is added to its next counter before it's subtracted
+     * from its previous one, so a concurrent {@link #withPersistedStock(int)} never misses it (at worst, it subtracts
+     * a reservation that's still in progress twice, which leaves too little stock available rather than too much).
+     */
+    private static class ItemStock {
+
+        private final AtomicInteger available;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger unflushedDecrement = new AtomicInteger();
+        private final AtomicInteger inFlush = new AtomicInteger();
+
+        private ItemStock(int available) {
+            this.available = new AtomicInteger(available);
+        }
+
+        private boolean reserve(int amountToReserve) {
+            pending.addAndGet(amountToReserve);
+            int currentlyAvailable;
+            do {
+                currentlyAvailable = available.get();
+                if (amountToReserve > currentlyAvailable) {
+                    pending.addAndGet(-amountToReserve);
+                    return false;
+                }
+            } while (!available.compareAndSet(currentlyAvailable, currentlyAvailable - amountToReserve));
+            return true;
+        }
+
+        private void release(int reservedAmount) {
+            available.addAndGet(reservedAmount);
+            pending.addAndGet(-reservedAmount);
+        }
+
+        private void confirm(int reservedAmount) {
+            unflushedDecrement.addAndGet(reservedAmount);
+            pending.addAndGet(-reservedAmount);
+        }
+
+        private int takeUnflushedDecrement() {
+            int decrement = unflushedDecrement.get();
+            inFlush.addAndGet(decrement);
+            unflushedDecrement.addAndGet(-decrement);
+            return decrement;
+        }
+
+        private ItemStock withReturnedUnflushedDecrement(int decrement) {
+            unflushedDecrement.addAndGet(decrement);
+            inFlush.addAndGet(-decrement);
+            return this;
+        }
+
+        private ItemStock withFlushedDecrement(int decrement) {
+            inFlush.addAndGet(-decrement);
+            return this;
+        }
+
+        private int getUnflushedDecrement() {
+            return unflushedDecrement.get() + inFlush.get();
+        }
+
+        private ItemStock withPersistedStock(int persistedStock) {
+            available.set(persistedStock - pending.get() - unflushedDecrement.get() - inFlush.get());
+            return this;
+        }
+    }
+
+    private static class ReservationSynchronization extends TransactionSynchronizationAdapter {
+
+        private final ItemStock itemStock;
+        private final int reservedAmount;
+
+        private ReservationSynchronization(ItemStock itemStock, int reservedAmount) {
+            this.itemStock = itemStock;
+            this.reservedAmount = reservedAmount;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+                itemStock.confirm(reservedAmount);
+            } else {
+                itemStock.release(reservedAmount);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.switchfully.order.service.metrics;
+
+import com.switchfully.order.domain.outbox.OutboxEventRepository;
+import com.switchfully.order.service.items.ItemCache;
+import com.switchfully.order.service.items.StockDecrementQueue;
+import com.switchfully.order.service.items.StockReservationLedger;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the state of the work that happens outside of the requests: how far the asynchronous stock decrements
+ * and the stock reservation ledger lag behind, how many outbox events were given up on, and how well the item cache
+ * performs.
+ */
+@Named
+public class OrderMetrics implements MeterBinder {
+
+    private final StockDecrementQueue stockDecrementQueue;
+    private final StockReservationLedger stockReservationLedger;
+    private final ItemCache itemCache;
+    private final OutboxEventRepository outboxEventRepository;
+
+    @Inject
+    public OrderMetrics(StockDecrementQueue stockDecrementQueue, StockReservationLedger stockReservationLedger,
+                        ItemCache itemCache, OutboxEventRepository outboxEventRepository) {
+        this.stockDecrementQueue = stockDecrementQueue;
+        this.stockReservationLedger = stockReservationLedger;
+        this.itemCache = itemCache;
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("order.stock.async.queue.size", stockDecrementQueue, StockDecrementQueue::getQueueSize)
+                .description("The amount of stock decrements waiting to be applied")
+                .register(meterRegistry);
+        TimeGauge.builder("order.stock.async.queue.lag", stockDecrementQueue, TimeUnit.MILLISECONDS,
+                queue -> queue.getQueueLag().toMillis())
+                .description("How long the oldest queued stock decrement is waiting already")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.stock.async.skipped", stockDecrementQueue,
+                StockDecrementQueue::getSkippedDecrements)
+                .description("The stock decrements skipped because the item didn't have enough stock or didn't exist")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.stock.async.dead-lettered", stockDecrementQueue,
+                StockDecrementQueue::getDeadLetteredDecrements)
+                .description("The stock decrements given up on after failing the maximum amount of attempts")
+                .register(meterRegistry);
+        Gauge.builder("order.stock.ledger.unflushed-decrements", stockReservationLedger,
+                ledger -> ledger.getUnflushedDecrements().values().stream().mapToInt(Integer::intValue).sum())
+                .description("The amount of reserved stock that isn't flushed to the database yet")
+                .register(meterRegistry);
+        Gauge.builder("order.events.outbox.dead-lettered", outboxEventRepository,
+                OutboxEventRepository::countByDeadLetteredAtIsNotNull)
+                .description("The outbox events given up on after failing the maximum amount of attempts")
+                .register(meterRegistry);
+        Gauge.builder("order.items.cache.size", itemCache, ItemCache::getSize)
+                .description("The (estimated) amount of cached items")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.items.cache.requests", itemCache, cache -> cache.getStats().hitCount())
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.items.cache.requests", itemCache, cache -> cache.getStats().missCount())
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.items.cache.evictions", itemCache, cache -> cache.getStats().evictionCount())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,65 @@
+package com.switchfully.order.service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.repository.Repository;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every call to a Spring Data repository (e.g. ItemRepository.findAllById), tagged with the repository,
+ * the method and the exception it threw (if any), as the order.repository.calls timer.
+ */
+@Aspect
+@Named
+public class RepositoryMetricsAspect {
+
+    static final String TIMER_NAME = "order.repository.calls";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, String> repositoryNamesByClass = new ConcurrentHashMap<>();
+
+    @Inject
+    public RepositoryMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable throwable) {
+            exception = throwable.getClass().getSimpleName();
+            throw throwable;
+        } finally {
+            sample.stop(Timer.builder(TIMER_NAME)
+                    .description("Calls to the repositories")
+                    .tag("repository", repositoryNamesByClass.computeIfAbsent(joinPoint.getTarget().getClass(),
+                            RepositoryMetricsAspect::toRepositoryName))
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * @return the name of our own repository interface that the (generated) repository class implements
+     */
+    private static String toRepositoryName(Class<?> repositoryClass) {
+        return Arrays.stream(repositoryClass.getInterfaces())
+                .filter(Repository.class::isAssignableFrom)
+                .filter(repositoryInterface -> !repositoryInterface.getName().startsWith("org.springframework."))
+                .map(Class::getSimpleName)
+                .findFirst()
+                .orElse(repositoryClass.getSimpleName());
+    }
+}
@@ -0,0 +1,121 @@
+package com.switchfully.order.service.orders;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Processes the order items (or item groups) of large orders in parallel, such as when assembling or validating
+ * an order. Orders with fewer than order.orders.assembly.parallel-threshold order items are processed sequentially,
+ * on the calling thread, since handing their order items over to other threads costs more than it saves.
+ * <p>
+ * The order items of larger orders are split into chunks of order.orders.assembly.chunk-size, which are processed
+ * on a bounded pool of order.orders.assembly.threads threads. The calling thread processes the first chunk itself.
+ * When the pool is saturated by concurrent orders, the calling thread processes the chunks that don't fit in the
+ * pool's queue as well, so a saturated pool slows orders down instead of failing them.
+ * <p>
+ * The processed functions must not depend on the calling thread, such as on its transaction or persistence
+ * context. The items of an order are therefore resolved (in one query, see ItemLookup) before it's assembled.
+ */
+@Named
+public class OrderAssemblyExecutor implements DisposableBean {
+
+    private final int parallelThreshold;
+    private final int chunkSize;
+    private final ThreadPoolExecutor executor;
+
+    @Inject
+    public OrderAssemblyExecutor(@Value("${order.orders.assembly.parallel-threshold:256}") int parallelThreshold,
+                                 @Value("${order.orders.assembly.chunk-size:64}") int chunkSize,
+                                 @Value("${order.orders.assembly.threads:4}") int threads) {
+        this.parallelThreshold = parallelThreshold;
+        this.chunkSize = chunkSize;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("order-assembly-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 4), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @return the mapped elements, in the same order as the provided elements
+     * @throws RuntimeException the exception of the mapper, when it fails for any of the elements
+     */
+    public <T, R> List<R> map(List<T> elements, Function<? super T, ? extends R> mapper) {
+        if (elements.size() < parallelThreshold) {
+            return elements.stream()
+                    .map(mapper)
+                    .collect(Collectors.toList());
+        }
+        List<R> mappedElements = new ArrayList<>(elements.size());
+        processInChunks(elements, chunk -> chunk.stream()
+                .map(mapper)
+                .collect(Collectors.toList()))
+                .forEach(mappedElements::addAll);
+        return mappedElements;
+    }
+
+    /**
+     * @return whether any of the provided elements matches the predicate
+     */
+    public <T> boolean anyMatch(List<T> elements, Predicate<? super T> predicate) {
+        if (elements.size() < parallelThreshold) {
+            return elements.stream().anyMatch(predicate);
+        }
+        return processInChunks(elements, chunk -> chunk.stream().anyMatch(predicate))
+                .contains(true);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T, R> List<R> processInChunks(List<T> elements, Function<List<T>, R> chunkProcessor) {
+        List<Future<R>> otherChunks = new ArrayList<>();
+        for (int start = chunkSize; start < elements.size(); start += chunkSize) {
+            List<T> chunk = elements.subList(start, Math.min(start + chunkSize, elements.size()));
+            otherChunks.add(executor.submit(() -> chunkProcessor.apply(chunk)));
+        }
+        List<R> processedChunks = new ArrayList<>(otherChunks.size() + 1);
+        try {
+            processedChunks.add(chunkProcessor.apply(elements.subList(0, Math.min(chunkSize, elements.size()))));
+            for (Future<R> otherChunk : otherChunks) {
+                processedChunks.add(awaitResult(otherChunk));
+            }
+            return processedChunks;
+        } finally {
+            otherChunks.forEach(otherChunk -> otherChunk.cancel(true));
+        }
+    }
+
+    private static <R> R awaitResult(Future<R> chunk) {
+        try {
+            return chunk.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the order items to be processed", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            if (exception.getCause() instanceof Error) {
+                throw (Error) exception.getCause();
+            }
+            throw new IllegalStateException("Processing the order items failed", exception.getCause());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.switchfully.order.service.orders;
+
+import com.switchfully.order.domain.orders.Order;
+
+/**
+ * The outcome of creating one order of a batch: either the created order, or the reason why it wasn't created.
+ */
+public final class OrderCreationResult {
+
+    private final Order createdOrder;
+    private final String failureReason;
+
+    private OrderCreationResult(Order createdOrder, String failureReason) {
+        this.createdOrder = createdOrder;
+        this.failureReason = failureReason;
+    }
+
+    public static OrderCreationResult created(Order createdOrder) {
+        return new OrderCreationResult(createdOrder, null);
+    }
+
+    public static OrderCreationResult failed(String failureReason) {
+        return new OrderCreationResult(null, failureReason);
+    }
+
+    public boolean isCreated() {
+        return createdOrder != null;
+    }
+
+    /**
+     * @return the created order, or null when the order wasn't created
+     */
+    public Order getCreatedOrder() {
+        return createdOrder;
+    }
+
+    /**
+     * @return why the order wasn't created, or null when it was created
+     */
+    public String getFailureReason() {
+        return failureReason;
+    }
+}
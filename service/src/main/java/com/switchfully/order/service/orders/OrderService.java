@@ -7,22 +7,44 @@ import com.switchfully.order.domain.items.ItemRepository;
 import com.switchfully.order.domain.orders.Order;
 import com.switchfully.order.domain.orders.OrderRepository;
 import com.switchfully.order.domain.orders.orderitems.OrderItem;
+import com.switchfully.order.domain.orders.orderitems.ShippableOrderItem;
 import com.switchfully.order.domain.orders.orderitems.events.OrderItemCreatedEvent;
 import com.switchfully.order.infrastructure.exceptions.EntityNotFoundException;
 import com.switchfully.order.infrastructure.exceptions.EntityNotValidException;
 import com.switchfully.order.infrastructure.exceptions.NotAuthorizedException;
+import com.switchfully.order.service.items.ItemLookup;
+import com.switchfully.order.service.orders.reports.CustomerOrderReportService;
+import com.switchfully.order.service.outbox.OrderEventOutbox;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.switchfully.order.domain.orders.Order.OrderBuilder.order;
 
@@ -30,88 +52,320 @@ import static com.switchfully.order.domain.orders.Order.OrderBuilder.order;
 @Transactional
 public class OrderService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 10000;
+
     private final CustomerRepository customerRepository;
     private final ItemRepository itemRepository;
     private final OrderRepository orderRepository;
     private final OrderValidator orderValidator;
     private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final OrderEventOutbox orderEventOutbox;
+    private final CustomerOrderReportService customerOrderReportService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchChunkSize;
 
     @Autowired
     public OrderService(CustomerRepository customerRepository,
                         ItemRepository itemRepository,
                         OrderRepository orderRepository,
                         OrderValidator orderValidator,
-                        ApplicationEventPublisher eventPublisher) {
+                        ApplicationEventPublisher eventPublisher,
+                        EntityManager entityManager,
+                        OrderEventOutbox orderEventOutbox,
+                        CustomerOrderReportService customerOrderReportService,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${order.orders.batch.chunk-size:100}") int batchChunkSize) {
         this.customerRepository = customerRepository;
         this.itemRepository = itemRepository;
         this.orderRepository = orderRepository;
         this.orderValidator = orderValidator;
         this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.orderEventOutbox = orderEventOutbox;
+        this.customerOrderReportService = customerOrderReportService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchChunkSize = batchChunkSize;
     }
 
+    @Timed(value = "order.orders.create", description = "Creating an order")
     public Order createOrder(Order order) {
+        return createOrder(order, lookupOrderedItems(order));
+    }
+
+    /**
+     * Creates the order, using the provided (already resolved) items to check that all ordered items exist.
+     * The same snapshot can thus be shared with the assembly of the order, which needs the items' price and stock.
+     */
+    @Timed(value = "order.orders.create", description = "Creating an order")
+    public Order createOrder(Order order, ItemLookup orderedItems) {
         assertOrderIsValidForCreation(order);
         assertOrderingCustomerExists(order);
-        assertAllOrderedItemsExist(order);
-        publishCreationOfOrderItems(order);
-        return orderRepository.save(order);
+        assertAllOrderedItemsExist(order, orderedItems);
+        return saveAndPublishCreationOfOrderItems(order);
+    }
+
+    /**
+     * Creates a batch of orders, where every order succeeds or fails on its own. The orders are assembled by the
+     * provided suppliers (which may fail as well), all ordering customers are checked with a single query and all
+     * ordered items are checked using the provided (already resolved) items.
+     * <p>
+     * The orders are assembled one after the other, and every valid order takes its ordered stock from the provided
+     * items (see {@link ItemLookup#takeStockFor(Order)}), so the shipping dates of the later orders take the stock
+     * into account that the earlier orders of the batch ordered.
+     * <p>
+     * The valid orders are saved in chunks, one transaction per chunk. The orders of a chunk are flushed together
+     * (one JDBC batch per table) before the stock of their items is decremented and they're added to the reports of
+     * their customers, since those updates would otherwise flush the pending orders one by one. When a chunk fails
+     * (e.g. because the stock of an ordered item ran out), every order of that chunk is assembled again and
+     * created in its own transaction, so only the orders that are really at fault fail.
+     *
+     * @return per provided supplier (in the same order), the result of creating its order
+     */
+    @Timed(value = "order.orders.create-batch", description = "Creating a batch of orders")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<OrderCreationResult> createOrders(List<Supplier<Order>> orderAssemblers, ItemLookup orderedItems) {
+        assertBatchSizeIsValid(orderAssemblers.size());
+        OrderCreationResult[] results = new OrderCreationResult[orderAssemblers.size()];
+        Order[] orders = new Order[orderAssemblers.size()];
+        for (int index = 0; index < orderAssemblers.size(); index++) {
+            try {
+                Order order = orderAssemblers.get(index).get();
+                assertOrderIsValidForCreation(order);
+                assertAllOrderedItemsExist(order, orderedItems);
+                orderedItems.takeStockFor(order);
+                orders[index] = order;
+            } catch (RuntimeException exception) {
+                results[index] = OrderCreationResult.failed(exception.getMessage());
+            }
+        }
+        Set<UUID> existingCustomerIds = findExistingCustomerIds(orders);
+        List<Integer> indexesOfValidOrders = new ArrayList<>();
+        for (int index = 0; index < orders.length; index++) {
+            if (orders[index] == null) {
+                continue;
+            }
+            try {
+                assertOrderingCustomerExists(orders[index], existingCustomerIds);
+                indexesOfValidOrders.add(index);
+            } catch (RuntimeException exception) {
+                orderedItems.returnStockOf(orders[index]);
+                results[index] = OrderCreationResult.failed(exception.getMessage());
+            }
+        }
+        for (int fromIndex = 0; fromIndex < indexesOfValidOrders.size(); fromIndex += batchChunkSize) {
+            List<Integer> chunk = indexesOfValidOrders.subList(fromIndex,
+                    Math.min(fromIndex + batchChunkSize, indexesOfValidOrders.size()));
+            createChunkOfOrders(chunk, orders, orderAssemblers, orderedItems, results);
+        }
+        return Arrays.asList(results);
     }
 
+    @Transactional(readOnly = true)
     public List<Order> getOrdersForCustomer(UUID customerId) {
-        Customer customer = customerRepository.getOne(customerId);
-        return orderRepository.findAllByCustomer(customer);
+        return orderRepository.findAllWithCustomerAndOrderItemsByCustomerId(customerId);
     }
 
+    @Timed(value = "order.orders.reorder", description = "Reordering an order")
     public Order reorderOrder(UUID orderId) {
-        Order orderToReorder = orderRepository.getOne(orderId);
+        Order orderToReorder = orderRepository.findWithCustomerAndOrderItemsById(orderId)
+                .orElseThrow(() -> new EntityNotFoundException("reordering an order", Order.class, orderId));
         assertCustomerIsOwnerOfOrderToReorder(orderId, orderToReorder);
-        publishCreationOfOrderItems(orderToReorder);
-        return orderRepository.save(order()
+        return saveAndPublishCreationOfOrderItems(order()
                 .withCustomer(orderToReorder.getCustomer())
                 .withOrderItems(copyOrderItemsWithRecentPrice(orderToReorder.getOrderItems()))
                 .build());
     }
 
-    public List<Order> getAllOrders(boolean onlyIncludeShippableToday) {
-        if (onlyIncludeShippableToday) {
-            return getOrdersOnlyContainingOrderItemsShippingToday();
+    @Transactional(readOnly = true)
+    public List<Order> getAllOrders() {
+        return orderRepository.findAllWithCustomerAndOrderItems();
+    }
+
+    /**
+     * Returns (at most) the provided amount of orders, ordered by their id, that directly follow the order
+     * with the provided id. When no id is provided, the first page is returned.
+     */
+    @Transactional(readOnly = true)
+    public List<Order> getOrdersPage(UUID afterOrderId, int pageSize) {
+        assertPageSizeIsValid(pageSize);
+        List<UUID> orderIdsOfPage = afterOrderId == null
+                ? orderRepository.findFirstPageOfIds(PageRequest.of(0, pageSize))
+                : orderRepository.findPageOfIdsAfter(afterOrderId, PageRequest.of(0, pageSize));
+        if (orderIdsOfPage.isEmpty()) {
+            return Collections.emptyList();
         }
-        return orderRepository.findAll();
+        return orderRepository.findAllWithCustomerAndOrderItemsByIdIn(orderIdsOfPage);
     }
 
-    private void publishCreationOfOrderItems(Order order) {
-        order.getOrderItems().forEach(orderItem -> eventPublisher.publishEvent(new OrderItemCreatedEvent(orderItem)));
+    /**
+     * Passes all orders, one by one, to the provided consumer while they are read from the database.
+     * The order ids are read from a cursor, the orders (with their customer and order items) are fetched per chunk
+     * of {@link OrderRepository#STREAMING_FETCH_SIZE} ids. The persistence context is cleared after every chunk,
+     * so the memory in use doesn't grow with the amount of orders.
+     * The provided consumer should therefore not hold on to the orders it receives.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllOrders(Consumer<Order> orderConsumer) {
+        try (Stream<UUID> orderIds = orderRepository.streamAllIdsOrderedById()) {
+            Iterator<UUID> orderIdIterator = orderIds.iterator();
+            List<UUID> chunkOfOrderIds = new ArrayList<>(OrderRepository.STREAMING_FETCH_SIZE);
+            while (orderIdIterator.hasNext()) {
+                chunkOfOrderIds.add(orderIdIterator.next());
+                if (chunkOfOrderIds.size() == OrderRepository.STREAMING_FETCH_SIZE || !orderIdIterator.hasNext()) {
+                    orderRepository.findAllWithCustomerAndOrderItemsByIdIn(chunkOfOrderIds).forEach(orderConsumer);
+                    entityManager.clear();
+                    chunkOfOrderIds.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the orders of which the total price exceeds the provided amount, most expensive first
+     */
+    @Transactional(readOnly = true)
+    public List<Order> getOrdersWithTotalPriceOver(BigDecimal amount) {
+        return orderRepository.findAllWithTotalPriceOver(amount);
+    }
+
+    /**
+     * Stores the totals of orders that were created before the totals were stored with the order.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void storeMissingTotals() {
+        orderRepository.storeMissingTotals();
+    }
+
+    @Transactional(readOnly = true)
+    public List<ShippableOrderItem> getOrderItemsShippingToday() {
+        return getOrderItemsShippingOn(LocalDate.now());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ShippableOrderItem> getOrderItemsShippingOn(LocalDate shippingDate) {
+        return orderRepository.findAllOrderItemsShippingOn(shippingDate);
+    }
+
+    /**
+     * When the outbox is enabled, the events are stored in the outbox together with the order (to be published
+     * afterwards). Otherwise, they are published (and handled) before the order is saved.
+     * Either way, the saved order is added to the report of its customer.
+     */
+    private Order saveAndPublishCreationOfOrderItems(Order order) {
+        Order savedOrder;
+        if (orderEventOutbox.isEnabled()) {
+            savedOrder = orderRepository.save(order);
+            orderEventOutbox.addCreationOfOrderItems(savedOrder);
+        } else {
+            publishCreationOfOrderItems(order);
+            savedOrder = orderRepository.save(order);
+        }
+        customerOrderReportService.addOrder(savedOrder);
+        return savedOrder;
+    }
+
+    /**
+     * Like {@link #saveAndPublishCreationOfOrderItems(Order)}, for an order that's saved (and flushed) already.
+     */
+    private void publishCreationOfOrderItemsOfSavedOrder(Order savedOrder) {
+        if (orderEventOutbox.isEnabled()) {
+            orderEventOutbox.addCreationOfOrderItems(savedOrder);
+        } else {
+            publishCreationOfOrderItems(savedOrder);
+        }
+        customerOrderReportService.addOrder(savedOrder);
+    }
+
+    private void createChunkOfOrders(List<Integer> chunk, Order[] orders, List<Supplier<Order>> orderAssemblers,
+                                     ItemLookup orderedItems, OrderCreationResult[] results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                chunk.forEach(index -> orders[index] = orderRepository.save(orders[index]));
+                entityManager.flush();
+                chunk.forEach(index -> publishCreationOfOrderItemsOfSavedOrder(orders[index]));
+            });
+            chunk.forEach(index -> results[index] = OrderCreationResult.created(orders[index]));
+        } catch (RuntimeException chunkException) {
+            chunk.forEach(index -> orderedItems.returnStockOf(orders[index]));
+            chunk.forEach(index -> results[index] =
+                    createOrderInItsOwnTransaction(orderAssemblers.get(index), orderedItems));
+        }
+        entityManager.clear();
     }
 
-    private List<Order> getOrdersOnlyContainingOrderItemsShippingToday() {
-        return orderRepository.findAll().stream()
-                .map(order -> order()
-                        .withCustomer(order.getCustomer())
-                        .withId(order.getId())
-                        .withOrderItems(getOrderItemsShippingToday(order))
-                        .build())
-                .collect(Collectors.toList());
+    /**
+     * The order is assembled again, since the order of the failed chunk might still carry the ids it got
+     * assigned in the rolled back transaction.
+     */
+    private OrderCreationResult createOrderInItsOwnTransaction(Supplier<Order> orderAssembler,
+                                                               ItemLookup orderedItems) {
+        Order order;
+        try {
+            order = orderAssembler.get();
+        } catch (RuntimeException exception) {
+            return OrderCreationResult.failed(exception.getMessage());
+        }
+        orderedItems.takeStockFor(order);
+        try {
+            return OrderCreationResult.created(transactionTemplate.execute(status ->
+                    saveAndPublishCreationOfOrderItems(order)));
+        } catch (RuntimeException exception) {
+            orderedItems.returnStockOf(order);
+            return OrderCreationResult.failed(exception.getMessage());
+        }
     }
 
-    private List<OrderItem> getOrderItemsShippingToday(Order order) {
-        return order.getOrderItems().stream()
-                .filter(orderItem -> orderItem.getShippingDate().isEqual(LocalDate.now()))
-                .collect(Collectors.toList());
+    private Set<UUID> findExistingCustomerIds(Order[] orders) {
+        Set<UUID> referencedCustomerIds = Arrays.stream(orders)
+                .filter(Objects::nonNull)
+                .map(Order::getCustomer)
+                .filter(Objects::nonNull)
+                .map(Customer::getId)
+                .collect(Collectors.toSet());
+        if (referencedCustomerIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return customerRepository.findAllById(referencedCustomerIds).stream()
+                .map(Customer::getId)
+                .collect(Collectors.toSet());
     }
 
-    private void assertAllOrderedItemsExist(Order order) {
-        if (!doAllOrderItemsReferenceAnExistingItem(order.getOrderItems())) {
+    private void assertOrderingCustomerExists(Order order, Set<UUID> existingCustomerIds) {
+        if (!existingCustomerIds.contains(order.getCustomer().getId())) {
+            throw new EntityNotFoundException("creation of a new order when checking if the referenced customer exists",
+                    Customer.class, order.getCustomer().getId());
+        }
+    }
+
+    private void assertBatchSizeIsValid(int batchSize) {
+        if (batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch can contain at most " + MAX_BATCH_SIZE
+                    + " orders, but contained " + batchSize);
+        }
+    }
+
+    private void publishCreationOfOrderItems(Order order) {
+        order.getOrderItems().forEach(orderItem -> eventPublisher.publishEvent(new OrderItemCreatedEvent(orderItem)));
+    }
+
+    private ItemLookup lookupOrderedItems(Order order) {
+        return ItemLookup.of(itemRepository.findAllById(order.getOrderItems().stream()
+                .map(OrderItem::getItemId)
+                .collect(Collectors.toSet())));
+    }
+
+    private void assertAllOrderedItemsExist(Order order, ItemLookup orderedItems) {
+        if (!doAllOrderItemsReferenceAnExistingItem(order.getOrderItems(), orderedItems)) {
             throw new EntityNotValidException("creation of a new order when checking if all the ordered items exist",
                     order);
         }
     }
 
-    private boolean doAllOrderItemsReferenceAnExistingItem(List<OrderItem> orderItems) {
+    private boolean doAllOrderItemsReferenceAnExistingItem(List<OrderItem> orderItems, ItemLookup orderedItems) {
         return orderItems.stream()
-                .filter(orderItem -> !itemRepository.existsById(orderItem.getItemId()))
-                .map(nonExistingItem -> false)
-                .findFirst()
-                .orElse(true);
+                .allMatch(orderItem -> orderedItems.contains(orderItem.getItemId()));
     }
 
     private void assertOrderingCustomerExists(Order order) {
@@ -125,16 +379,33 @@ public class OrderService {
         return customerRepository.existsById(order.getCustomer().getId());
     }
 
+    private void assertPageSizeIsValid(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("The page size should be between 1 and " + MAX_PAGE_SIZE
+                    + ", but was " + pageSize);
+        }
+    }
+
     private void assertOrderIsValidForCreation(Order order) {
         if (!orderValidator.isValidForCreation(order)) {
             orderValidator.throwInvalidStateException(order, "creation");
         }
     }
 
+    /**
+     * Resolves all ordered items with one query, since their current price and stock are needed.
+     */
     private List<OrderItem> copyOrderItemsWithRecentPrice(List<OrderItem> orderItems) {
+        ItemLookup orderedItems = ItemLookup.of(itemRepository.findAllById(orderItems.stream()
+                .map(OrderItem::getItemId)
+                .collect(Collectors.toSet())));
         return orderItems.stream()
                 .map(orderItem -> {
-                            Item item = itemRepository.getOne(orderItem.getItemId());
+                            Item item = orderedItems.get(orderItem.getItemId());
+                            if (item == null) {
+                                throw new EntityNotFoundException("reordering an order", Item.class,
+                                        orderItem.getItemId());
+                            }
                             return OrderItem.OrderItemBuilder.orderItem()
                                     .withItemId(orderItem.getItemId())
                                     .withOrderedAmount(orderItem.getOrderedAmount())
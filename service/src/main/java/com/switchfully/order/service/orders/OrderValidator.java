@@ -4,6 +4,7 @@ import com.switchfully.order.domain.EntityValidator;
 import com.switchfully.order.domain.orders.Order;
 import com.switchfully.order.domain.orders.orderitems.OrderItem;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import java.util.List;
 
@@ -16,6 +17,13 @@ import java.util.List;
 @Named
 public class OrderValidator extends EntityValidator<Order> {
 
+    private final OrderAssemblyExecutor orderAssemblyExecutor;
+
+    @Inject
+    public OrderValidator(OrderAssemblyExecutor orderAssemblyExecutor) {
+        this.orderAssemblyExecutor = orderAssemblyExecutor;
+    }
+
     @Override
     protected boolean isAFieldEmptyOrNull(Order order) {
         return isNull(order)
@@ -25,16 +33,12 @@ public class OrderValidator extends EntityValidator<Order> {
     }
 
     private boolean isAnOrderItemInvalid(List<OrderItem> orderItems) {
-        return orderItems.stream()
-                .map(orderItem ->
-                        isNull(orderItem.getItemId())
-                                || isNull(orderItem.getItemPrice())
-                                || orderItem.getItemPrice().getAmountAsFloat() <= 0
-                                || orderItem.getOrderedAmount() <= 0
-                                || isNull(orderItem.getShippingDate()))
-                .filter(isInvalidOrderItem -> isInvalidOrderItem)
-                .findFirst()
-                .orElse(false);
+        return orderAssemblyExecutor.anyMatch(orderItems, orderItem ->
+                isNull(orderItem.getItemId())
+                        || isNull(orderItem.getItemPrice())
+                        || orderItem.getItemPrice().getAmountAsFloat() <= 0
+                        || orderItem.getOrderedAmount() <= 0
+                        || isNull(orderItem.getShippingDate()));
     }
 
 }
@@ -0,0 +1,146 @@
+package com.switchfully.order.service.orders.reports;
+
+import com.switchfully.order.domain.customers.CustomerRepository;
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.domain.orders.OrderRepository;
+import com.switchfully.order.domain.orders.orderitems.OrderItem;
+import com.switchfully.order.domain.orders.reports.CustomerOrderReportRepository;
+import com.switchfully.order.domain.orders.reports.OrderReportLine;
+import com.switchfully.order.domain.orders.reports.OrderReportLineRepository;
+import com.switchfully.order.service.items.ItemService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.switchfully.order.domain.orders.reports.CustomerOrderReport.CustomerOrderReportBuilder.customerOrderReport;
+import static com.switchfully.order.domain.orders.reports.OrderReportLine.OrderReportLineBuilder.orderReportLine;
+
+/**
+ * Maintains the report of every customer's orders as a read model: every created order is added to the report
+ * of its customer (in the transaction that creates the order), so reading a report is a lookup of the customer's
+ * running totals and report lines, instead of loading and summing all of their orders.
+ * <p>
+ * The report of a customer is stored with their first order (added to the read model), built from all their
+ * orders, which backfills the reports of orders created before the read model existed. Until then, reading the
+ * report builds it in memory (without storing it). The item names of such backfilled orders are the current names
+ * of the items.
+ */
+@Service
+@Transactional
+public class CustomerOrderReportService {
+
+    private final CustomerOrderReportRepository customerOrderReportRepository;
+    private final OrderReportLineRepository orderReportLineRepository;
+    private final OrderRepository orderRepository;
+    private final CustomerRepository customerRepository;
+    private final ItemService itemService;
+    private final Clock clock;
+
+    @Autowired
+    public CustomerOrderReportService(CustomerOrderReportRepository customerOrderReportRepository,
+                                      OrderReportLineRepository orderReportLineRepository,
+                                      OrderRepository orderRepository,
+                                      CustomerRepository customerRepository,
+                                      ItemService itemService) {
+        this(customerOrderReportRepository, orderReportLineRepository, orderRepository, customerRepository,
+                itemService, Clock.systemUTC());
+    }
+
+    CustomerOrderReportService(CustomerOrderReportRepository customerOrderReportRepository,
+                               OrderReportLineRepository orderReportLineRepository,
+                               OrderRepository orderRepository,
+                               CustomerRepository customerRepository,
+                               ItemService itemService,
+                               Clock clock) {
+        this.customerOrderReportRepository = customerOrderReportRepository;
+        this.orderReportLineRepository = orderReportLineRepository;
+        this.orderRepository = orderRepository;
+        this.customerRepository = customerRepository;
+        this.itemService = itemService;
+        this.clock = clock;
+    }
+
+    /**
+     * Adds the provided (already saved) order to the report of its customer.
+     * <p>
+     * When the customer has no report yet, the customer is locked before the report is stored, so concurrent first
+     * orders of the same customer don't both store a report: the later one waits until the earlier one commits and
+     * then adds its order to the stored report.
+     */
+    public void addOrder(Order savedOrder) {
+        UUID customerId = savedOrder.getCustomer().getId();
+        if (addOrderToTotals(savedOrder)) {
+            orderReportLineRepository.saveAll(toReportLines(List.of(savedOrder)));
+            return;
+        }
+        customerRepository.findWithLockById(customerId);
+        if (addOrderToTotals(savedOrder)) {
+            orderReportLineRepository.saveAll(toReportLines(List.of(savedOrder)));
+            return;
+        }
+        storeReport(customerId);
+    }
+
+    /**
+     * Returns the stored report of the customer or, when the customer has none (yet), builds it from their orders
+     * without storing it (which is an empty report for a customer without orders).
+     */
+    @Transactional(readOnly = true)
+    public OrdersReport getReport(UUID customerId) {
+        Optional<BigDecimal> totalPriceOfAllOrders =
+                customerOrderReportRepository.findTotalPriceOfAllOrdersByCustomerId(customerId);
+        if (totalPriceOfAllOrders.isEmpty()) {
+            List<Order> orders = orderRepository.findAllWithOrderItemsByCustomerId(customerId);
+            return new OrdersReport(Order.sumTotalPrices(orders).getAmount(), toReportLines(orders));
+        }
+        return new OrdersReport(totalPriceOfAllOrders.get(),
+                orderReportLineRepository.findAllByCustomerIdOrderByOrderedAtAscOrderIdAsc(customerId));
+    }
+
+    private boolean addOrderToTotals(Order savedOrder) {
+        return customerOrderReportRepository.addOrderToTotals(savedOrder.getCustomer().getId(),
+                savedOrder.getTotalPrice().getAmount()) == 1;
+    }
+
+    /**
+     * Stores the report of the customer, built from all their (saved) orders.
+     */
+    private void storeReport(UUID customerId) {
+        List<Order> orders = orderRepository.findAllWithOrderItemsByCustomerId(customerId);
+        orderReportLineRepository.saveAll(toReportLines(orders));
+        customerOrderReportRepository.save(customerOrderReport()
+                .withCustomerId(customerId)
+                .withAmountOfOrders(orders.size())
+                .withTotalPriceOfAllOrders(Order.sumTotalPrices(orders).getAmount())
+                .build());
+    }
+
+    private List<OrderReportLine> toReportLines(List<Order> orders) {
+        Map<UUID, Item> orderedItems = itemService.getCachedItems(orders.stream()
+                .flatMap(order -> order.getOrderItems().stream())
+                .map(OrderItem::getItemId)
+                .collect(Collectors.toSet()));
+        Instant orderedAt = Instant.now(clock);
+        return orders.stream()
+                .flatMap(order -> order.getOrderItems().stream()
+                        .map(orderItem -> orderReportLine(order, orderItem)
+                                .withOrderedAt(orderedAt)
+                                .withItemName(nameOf(orderedItems.get(orderItem.getItemId())))
+                                .build()))
+                .collect(Collectors.toList());
+    }
+
+    private String nameOf(Item item) {
+        return item == null ? null : item.getName();
+    }
+}
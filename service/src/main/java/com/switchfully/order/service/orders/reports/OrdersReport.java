@@ -0,0 +1,29 @@
+package com.switchfully.order.service.orders.reports;
+
+import com.switchfully.order.domain.orders.reports.OrderReportLine;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * The report of all orders of one customer: the running total of their orders, and one line per item group
+ * of those orders (lines of the same order next to each other).
+ */
+public final class OrdersReport {
+
+    private final BigDecimal totalPriceOfAllOrders;
+    private final List<OrderReportLine> lines;
+
+    public OrdersReport(BigDecimal totalPriceOfAllOrders, List<OrderReportLine> lines) {
+        this.totalPriceOfAllOrders = totalPriceOfAllOrders;
+        this.lines = lines;
+    }
+
+    public BigDecimal getTotalPriceOfAllOrders() {
+        return totalPriceOfAllOrders;
+    }
+
+    public List<OrderReportLine> getLines() {
+        return lines;
+    }
+}
@@ -0,0 +1,48 @@
+package com.switchfully.order.service.outbox;
+
+import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.domain.outbox.OutboxEvent;
+import com.switchfully.order.domain.outbox.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.time.Instant;
+import java.util.stream.Collectors;
+
+import static com.switchfully.order.domain.outbox.OutboxEvent.OutboxEventBuilder.orderItemCreated;
+
+/**
+ * When enabled (order.events.outbox.enabled), the events of an order are stored in the outbox,
+ * within the transaction that saves the order, instead of being published directly.
+ * The {@link OutboxRelay} publishes them afterwards.
+ */
+@Named
+public class OrderEventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final boolean enabled;
+
+    @Inject
+    public OrderEventOutbox(OutboxEventRepository outboxEventRepository,
+                            @Value("${order.events.outbox.enabled:false}") boolean enabled) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Stores the creation of every order item of the provided (saved) order in the outbox.
+     */
+    public void addCreationOfOrderItems(Order savedOrder) {
+        Instant createdAt = Instant.now();
+        outboxEventRepository.saveAll(savedOrder.getOrderItems().stream()
+                .map(orderItem -> orderItemCreated(savedOrder, orderItem)
+                        .withCreatedAt(createdAt)
+                        .build())
+                .collect(Collectors.toList()));
+    }
+}
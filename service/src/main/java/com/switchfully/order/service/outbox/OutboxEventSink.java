@@ -0,0 +1,17 @@
+package com.switchfully.order.service.outbox;
+
+import com.switchfully.order.domain.outbox.OutboxEvent;
+
+/**
+ * A destination (besides the in-JVM event listeners) to which the {@link OutboxRelay} dispatches outbox events,
+ * e.g. a message broker to fan the events out to other nodes. Every bean implementing this interface is used.
+ * <p>
+ * Events are delivered at least once: an event can be dispatched again (with the same id) when relaying it fails
+ * after it was dispatched to this sink (e.g. because a next sink fails, or marking it as processed fails).
+ * Sinks should therefore be idempotent.
+ */
+public interface OutboxEventSink {
+
+    void dispatch(OutboxEvent outboxEvent);
+
+}
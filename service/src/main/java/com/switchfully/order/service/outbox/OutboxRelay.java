@@ -0,0 +1,152 @@
+package com.switchfully.order.service.outbox;
+
+import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.domain.orders.OrderRepository;
+import com.switchfully.order.domain.orders.orderitems.OrderItem;
+import com.switchfully.order.domain.orders.orderitems.events.OrderItemCreatedEvent;
+import com.switchfully.order.domain.outbox.OutboxEvent;
+import com.switchfully.order.domain.outbox.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Polls the outbox for unprocessed events and dispatches them, in batches, to the in-JVM event listeners
+ * (such as the ItemEventHandler) and to every {@link OutboxEventSink}.
+ * <p>
+ * Every event is locked, dispatched and marked as processed in its own transaction, so a failing event doesn't hold
+ * back the rest of the batch, and an event is only marked as processed together with the effects of its listeners
+ * (like decrementing the stock): when that transaction fails, neither is committed and the event is relayed again.
+ * A failing event is retried during the next polls, until it failed order.events.outbox.max-attempts times:
+ * then it's dead-lettered, it stays in the outbox (counted by the order.events.outbox.dead-lettered metric) but isn't
+ * relayed anymore.
+ * <p>
+ * Note that the in-JVM listeners run after the order is committed, so the stock of the ordered items is decremented
+ * after the order was accepted: an order can't be refused for a lack of stock anymore. Decrementing more than the
+ * remaining stock fails on every attempt, so such an event ends up dead-lettered, with its order item accepted but
+ * its stock never decremented.
+ * Relays on multiple nodes skip each other's (locked) events, so the relaying can be scaled out.
+ */
+@Named
+public class OutboxRelay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<OutboxEventSink> outboxEventSinks;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    @Inject
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OrderRepository orderRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       ObjectProvider<OutboxEventSink> outboxEventSinks,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${order.events.outbox.enabled:false}") boolean enabled,
+                       @Value("${order.events.outbox.batch-size:100}") int batchSize,
+                       @Value("${order.events.outbox.max-attempts:5}") int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.orderRepository = orderRepository;
+        this.eventPublisher = eventPublisher;
+        this.outboxEventSinks = outboxEventSinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(fixedDelayString = "${order.events.outbox.relay-interval-ms:500}")
+    public void relayWhenEnabled() {
+        if (enabled) {
+            relay();
+        }
+    }
+
+    /**
+     * Relays one batch of unprocessed events.
+     *
+     * @return the amount of events in the batch that were relayed (or failed), so without the ones that were
+     * relayed by another node in the meantime
+     */
+    public int relay() {
+        List<OutboxEvent> outboxEvents = outboxEventRepository.findUnprocessed(PageRequest.of(0, batchSize));
+        if (outboxEvents.isEmpty()) {
+            return 0;
+        }
+        Map<UUID, Order> ordersById = orderRepository.findAllWithCustomerAndOrderItemsByIdIn(outboxEvents.stream()
+                .map(OutboxEvent::getOrderId)
+                .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        return (int) outboxEvents.stream()
+                .filter(outboxEvent -> relay(outboxEvent.getId(), ordersById.get(outboxEvent.getOrderId())))
+                .count();
+    }
+
+    /**
+     * @return false when the event was relayed (or is being relayed) by another node
+     */
+    private boolean relay(UUID outboxEventId, Order order) {
+        try {
+            return transactionTemplate.execute(status -> outboxEventRepository
+                    .findUnprocessedByIdSkippingLocked(outboxEventId)
+                    .map(outboxEvent -> {
+                        dispatch(outboxEvent, order);
+                        outboxEvent.markProcessed(Instant.now());
+                        outboxEventRepository.flush();
+                        return true;
+                    })
+                    .orElse(false));
+        } catch (RuntimeException exception) {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository
+                    .findUnprocessedByIdSkippingLocked(outboxEventId)
+                    .ifPresent(outboxEvent -> registerFailedAttempt(outboxEvent, exception)));
+            return true;
+        }
+    }
+
+    private void registerFailedAttempt(OutboxEvent outboxEvent, RuntimeException exception) {
+        outboxEvent.registerFailedAttempt();
+        if (outboxEvent.getFailedAttempts() >= maxAttempts) {
+            LOGGER.error("Relaying " + outboxEvent + " failed " + maxAttempts + " times, dead-lettering it",
+                    exception);
+            outboxEvent.markDeadLettered(Instant.now());
+        } else {
+            LOGGER.warn("Relaying " + outboxEvent + " failed, it will be retried", exception);
+        }
+    }
+
+    private void dispatch(OutboxEvent outboxEvent, Order order) {
+        eventPublisher.publishEvent(new OrderItemCreatedEvent(findOrderItem(outboxEvent, order)));
+        outboxEventSinks.orderedStream().forEach(outboxEventSink -> outboxEventSink.dispatch(outboxEvent));
+    }
+
+    private OrderItem findOrderItem(OutboxEvent outboxEvent, Order order) {
+        if (order == null) {
+            throw new IllegalStateException("The order of " + outboxEvent + " doesn't exist (anymore)");
+        }
+        return order.getOrderItems().stream()
+                .filter(orderItem -> orderItem.getId().equals(outboxEvent.getOrderItemId()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("The order item of " + outboxEvent + " doesn't exist (anymore)"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.switchfully.order.service.items;
+
+import com.switchfully.order.domain.items.Item;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.switchfully.order.domain.items.ItemTestBuilder.anItem;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemCacheTest {
+
+    private final ItemCache itemCache = new ItemCache(true, 100, 60000, true, "");
+
+    @AfterEach
+    void clearTransactionSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void put_givenATransaction_thenOnlyCacheTheItemOnceTheTransactionCommits() {
+        Item item = anItem().withId(UUID.randomUUID()).build();
+        TransactionSynchronizationManager.initSynchronization();
+
+        itemCache.put(item);
+
+        assertThat(itemCache.get(item.getId(), id -> null)).isNull();
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(itemCache.get(item.getId(), id -> null)).isSameAs(item);
+    }
+
+    @Test
+    void put_givenATransactionThatRollsBack_thenDoNotCacheTheItem() {
+        Item item = anItem().withId(UUID.randomUUID()).build();
+        TransactionSynchronizationManager.initSynchronization();
+
+        itemCache.put(item);
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(itemCache.get(item.getId(), id -> null)).isNull();
+    }
+
+    @Test
+    void put_givenAnItemWithoutId_thenDoNotCacheIt() {
+        itemCache.put(anItem().build());
+        itemCache.evict(null);
+
+        assertThat(itemCache.getSize()).isEqualTo(0);
+    }
+
+    @Test
+    void evict_givenATransaction_thenEvictAgainWhenTheTransactionCompletes() {
+        Item item = anItem().withId(UUID.randomUUID()).build();
+        itemCache.put(item);
+        TransactionSynchronizationManager.initSynchronization();
+
+        itemCache.evict(item.getId());
+        itemCache.get(item.getId(), id -> item);
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(itemCache.get(item.getId(), id -> null)).isNull();
+    }
+
+    @Test
+    void givenACacheThatIsDisabled_thenAlwaysUseTheLoader() {
+        ItemCache disabledItemCache = new ItemCache(false, 100, 60000, false, "");
+        Item item = anItem().withId(UUID.randomUUID()).build();
+
+        disabledItemCache.put(item);
+
+        assertThat(disabledItemCache.get(item.getId(), id -> null)).isNull();
+        assertThat(disabledItemCache.isStrictStockReads()).isTrue();
+        assertThat(disabledItemCache.getSize()).isEqualTo(0);
+    }
+
+    @Test
+    void get_givenAReplicaAndAReadOnlyTransaction_thenServeTheCachedItemsButDoNotCacheTheLoadedOnes() {
+        ItemCache itemCacheWithReplica = new ItemCache(true, 100, 60000, true, "jdbc:postgresql://replica/order");
+        Item cachedItem = anItem().withId(UUID.randomUUID()).build();
+        Item replicaItem = anItem().withId(UUID.randomUUID()).build();
+        itemCacheWithReplica.put(cachedItem);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(itemCacheWithReplica.get(cachedItem.getId(), id -> null)).isSameAs(cachedItem);
+        assertThat(itemCacheWithReplica.get(replicaItem.getId(), id -> replicaItem)).isSameAs(replicaItem);
+        assertThat(itemCacheWithReplica.getAll(List.of(cachedItem.getId(), replicaItem.getId()),
+                ids -> Map.of(replicaItem.getId(), replicaItem)))
+                .containsOnlyKeys(cachedItem.getId(), replicaItem.getId());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        assertThat(itemCacheWithReplica.get(replicaItem.getId(), id -> null)).isNull();
+    }
+
+    @Test
+    void get_givenNoReplicaAndAReadOnlyTransaction_thenCacheTheLoadedItems() {
+        Item item = anItem().withId(UUID.randomUUID()).build();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        itemCache.get(item.getId(), id -> item);
+
+        assertThat(itemCache.get(item.getId(), id -> null)).isSameAs(item);
+    }
+
+    private void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        });
+    }
+}
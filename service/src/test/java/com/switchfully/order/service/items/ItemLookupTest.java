@@ -0,0 +1,55 @@
+package com.switchfully.order.service.items;
+
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.domain.orders.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.switchfully.order.domain.items.ItemTestBuilder.anItem;
+import static com.switchfully.order.domain.orders.OrderTestBuilder.anOrder;
+import static com.switchfully.order.domain.orders.orderitems.OrderItemTestBuilder.anOrderItem;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemLookupTest {
+
+    @Test
+    void get_givenAResolvedItem_thenReturnThatItem() {
+        Item item = anItem().withId(UUID.randomUUID()).build();
+
+        ItemLookup itemLookup = ItemLookup.of(List.of(item));
+
+        assertThat(itemLookup.get(item.getId())).isSameAs(item);
+        assertThat(itemLookup.contains(item.getId())).isTrue();
+    }
+
+    @Test
+    void get_givenAnItemThatWasNotResolved_thenReturnNull() {
+        ItemLookup itemLookup = ItemLookup.of(List.of(anItem().withId(UUID.randomUUID()).build()));
+
+        UUID unknownItemId = UUID.randomUUID();
+
+        assertThat(itemLookup.get(unknownItemId)).isNull();
+        assertThat(itemLookup.contains(unknownItemId)).isFalse();
+    }
+
+    @Test
+    void getAvailableStock_givenStockTakenForOrders_thenSubtractThatStockUntilItIsReturned() {
+        Item item = anItem().withId(UUID.randomUUID()).withAmountOfStock(10).build();
+        ItemLookup itemLookup = ItemLookup.of(List.of(item));
+        Order order = anOrder().withOrderItems(anOrderItem().withItemId(item.getId()).withOrderedAmount(3).build())
+                .build();
+        Order otherOrder = anOrder().withOrderItems(anOrderItem().withItemId(item.getId()).withOrderedAmount(4).build())
+                .build();
+
+        itemLookup.takeStockFor(order);
+        itemLookup.takeStockFor(otherOrder);
+        assertThat(itemLookup.getAvailableStock(item.getId())).isEqualTo(10 - 3 - 4);
+
+        itemLookup.returnStockOf(order);
+        assertThat(itemLookup.getAvailableStock(item.getId())).isEqualTo(10 - 4);
+        assertThat(item.getAmountOfStock()).isEqualTo(10);
+    }
+
+}
@@ -2,11 +2,17 @@ package com.switchfully.order.service.items;
 
 import com.switchfully.order.domain.items.Item;
 import com.switchfully.order.domain.items.ItemRepository;
+import com.switchfully.order.infrastructure.exceptions.EntityNotFoundException;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
 import static com.switchfully.order.domain.items.ItemTestBuilder.anItem;
 
 class ItemServiceTest {
@@ -14,23 +20,29 @@ class ItemServiceTest {
     private ItemService itemService;
     private ItemValidator itemValidatorMock;
     private ItemRepository itemRepositoryMock;
+    private StockEngine stockEngineMock;
+    private ItemCache itemCache;
 
     @BeforeEach
     void setupService() {
         itemRepositoryMock = Mockito.mock(ItemRepository.class);
         itemValidatorMock = Mockito.mock(ItemValidator.class);
-        itemService = new ItemService(itemRepositoryMock, itemValidatorMock);
+        stockEngineMock = Mockito.mock(StockEngine.class);
+        itemCache = new ItemCache(true, 100, 60000, true, "");
+        itemService = new ItemService(itemRepositoryMock, itemValidatorMock, stockEngineMock, itemCache);
     }
 
     @Test
     void createItem_happyPath() {
         Item item = anItem().build();
+        Item savedItem = anItem().withId(UUID.randomUUID()).build();
         Mockito.when(itemValidatorMock.isValidForCreation(item)).thenReturn(true);
-        Mockito.when(itemRepositoryMock.save(item)).thenReturn(item);
+        Mockito.when(itemRepositoryMock.save(item)).thenReturn(savedItem);
 
         Item createdItem = itemService.createItem(item);
 
-        Assertions.assertThat(createdItem).isNotNull();
+        Assertions.assertThat(createdItem).isSameAs(savedItem);
+        Assertions.assertThat(itemCache.get(savedItem.getId(), id -> null)).isSameAs(savedItem);
     }
 
     @Test
@@ -46,8 +58,9 @@ class ItemServiceTest {
 
     @Test
     void updateItem_happyPath() {
-        Item item = anItem().build();
+        Item item = anItem().withId(UUID.randomUUID()).build();
         Mockito.when(itemValidatorMock.isValidForUpdating(item)).thenReturn(true);
+        Mockito.when(itemRepositoryMock.findById(item.getId())).thenReturn(Optional.empty());
         Mockito.when(itemRepositoryMock.save(item)).thenReturn(item);
 
         Item updatedItem = itemService.updateItem(item);
@@ -55,6 +68,22 @@ class ItemServiceTest {
         Assertions.assertThat(updatedItem).isNotNull();
     }
 
+    @Test
+    void updateItem_givenAnExistingItem_thenApplyTheChangesToTheExistingItem() {
+        UUID itemId = UUID.randomUUID();
+        Item existingItem = anItem().withId(itemId).withName("Old name").withAmountOfStock(3).build();
+        Item item = anItem().withId(itemId).withName("New name").withAmountOfStock(8).build();
+        Mockito.when(itemValidatorMock.isValidForUpdating(item)).thenReturn(true);
+        Mockito.when(itemRepositoryMock.findById(itemId)).thenReturn(Optional.of(existingItem));
+
+        Item updatedItem = itemService.updateItem(item);
+
+        Assertions.assertThat(updatedItem).isSameAs(existingItem);
+        Assertions.assertThat(updatedItem.getName()).isEqualTo("New name");
+        Assertions.assertThat(updatedItem.getAmountOfStock()).isEqualTo(8);
+        Mockito.verify(itemRepositoryMock, Mockito.never()).save(Mockito.any());
+    }
+
     @Test
     void updateItem_givenItemThatIsNotValidForUpdating_thenThrowException() {
         Item item = anItem().build();
@@ -66,4 +95,83 @@ class ItemServiceTest {
                 .isThrownBy(() -> itemService.updateItem(item));
     }
 
+    @Test
+    void decrementStockForItem_delegatesToTheStockEngine() {
+        UUID itemId = UUID.randomUUID();
+
+        itemService.decrementStockForItem(itemId, 4);
+
+        Mockito.verify(stockEngineMock).decrementStock(itemId, 4);
+        Mockito.verifyNoInteractions(itemRepositoryMock);
+    }
+
+    @Test
+    void getItems_resolvesAllItemsWithASingleQuery() {
+        Item item1 = anItem().withId(UUID.randomUUID()).build();
+        Item item2 = anItem().withId(UUID.randomUUID()).build();
+        Set<UUID> itemIds = Set.of(item1.getId(), item2.getId());
+        Mockito.when(itemRepositoryMock.findAllById(itemIds)).thenReturn(List.of(item1, item2));
+
+        ItemLookup itemLookup = itemService.getItems(itemIds);
+
+        Assertions.assertThat(itemLookup.get(item1.getId())).isSameAs(item1);
+        Assertions.assertThat(itemLookup.get(item2.getId())).isSameAs(item2);
+        Mockito.verify(itemRepositoryMock, Mockito.times(1)).findAllById(itemIds);
+    }
+
+    @Test
+    void getItem_givenAnItemThatWasAlreadyRead_thenServeItFromTheCache() {
+        Item item = anItem().withId(UUID.randomUUID()).build();
+        Mockito.when(itemRepositoryMock.findById(item.getId())).thenReturn(Optional.of(item));
+
+        itemService.getItem(item.getId());
+        Item itemFromCache = itemService.getItem(item.getId());
+
+        Assertions.assertThat(itemFromCache).isSameAs(item);
+        Mockito.verify(itemRepositoryMock, Mockito.times(1)).findById(item.getId());
+        Assertions.assertThat(itemCache.getStats().hitCount()).isEqualTo(1);
+        Assertions.assertThat(itemCache.getStats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getItem_givenAnUnknownItem_thenThrowException() {
+        UUID itemId = UUID.randomUUID();
+        Mockito.when(itemRepositoryMock.findById(itemId)).thenReturn(Optional.empty());
+
+        Assertions.assertThatExceptionOfType(EntityNotFoundException.class)
+                .isThrownBy(() -> itemService.getItem(itemId));
+    }
+
+    @Test
+    void updateItem_thenWriteTheUpdatedItemThroughToTheCache() {
+        UUID itemId = UUID.randomUUID();
+        Item existingItem = anItem().withId(itemId).withName("Old name").build();
+        Item item = anItem().withId(itemId).withName("New name").build();
+        Mockito.when(itemRepositoryMock.findById(itemId)).thenReturn(Optional.of(existingItem));
+        Mockito.when(itemValidatorMock.isValidForUpdating(item)).thenReturn(true);
+        itemService.getItem(itemId);
+
+        itemService.updateItem(item);
+
+        Assertions.assertThat(itemService.getItem(itemId).getName()).isEqualTo("New name");
+        Mockito.verify(itemRepositoryMock, Mockito.times(2)).findById(itemId);
+    }
+
+    @Test
+    void getItems_givenNonStrictStockReads_thenServeTheCachedItemsAndLoadOnlyTheMissingOnes() {
+        itemService = new ItemService(itemRepositoryMock, itemValidatorMock, stockEngineMock,
+                new ItemCache(true, 100, 60000, false, ""));
+        Item cachedItem = anItem().withId(UUID.randomUUID()).build();
+        Item otherItem = anItem().withId(UUID.randomUUID()).build();
+        Mockito.when(itemRepositoryMock.findById(cachedItem.getId())).thenReturn(Optional.of(cachedItem));
+        Mockito.when(itemRepositoryMock.findAllById(Mockito.anyCollection())).thenReturn(List.of(otherItem));
+        itemService.getItem(cachedItem.getId());
+
+        ItemLookup itemLookup = itemService.getItems(Set.of(cachedItem.getId(), otherItem.getId()));
+
+        Assertions.assertThat(itemLookup.get(cachedItem.getId())).isSameAs(cachedItem);
+        Assertions.assertThat(itemLookup.get(otherItem.getId())).isSameAs(otherItem);
+        Mockito.verify(itemRepositoryMock).findAllById(Set.of(otherItem.getId()));
+    }
+
 }
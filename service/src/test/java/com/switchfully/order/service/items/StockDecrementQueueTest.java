@@ -0,0 +1,213 @@
+package com.switchfully.order.service.items;
+
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.infrastructure.exceptions.EntityNotFoundException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockDecrementQueueTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private StockEngine stockEngineMock;
+    private PlatformTransactionManager transactionManagerMock;
+
+    @BeforeEach
+    void setupMocks() {
+        stockEngineMock = Mockito.mock(StockEngine.class);
+        transactionManagerMock = Mockito.mock(PlatformTransactionManager.class);
+    }
+
+    @AfterEach
+    void clearTransactionSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void processBatch_combinesTheDecrementsPerItemAndAppliesEveryItemInItsOwnTransaction() {
+        StockDecrementQueue queue = stockDecrementQueue(10);
+        UUID itemId1 = UUID.randomUUID();
+        UUID itemId2 = UUID.randomUUID();
+        queue.enqueue(itemId1, 2);
+        queue.enqueue(itemId2, 1);
+        queue.enqueue(itemId1, 3);
+
+        int processedDecrements = queue.processBatch();
+
+        assertThat(processedDecrements).isEqualTo(3);
+        assertThat(queue.getQueueSize()).isEqualTo(0);
+        assertThat(queue.getQueueLag()).isEqualTo(Duration.ZERO);
+        Mockito.verify(stockEngineMock).decrementStock(itemId1, 5);
+        Mockito.verify(stockEngineMock).decrementStock(itemId2, 1);
+        Mockito.verify(transactionManagerMock, Mockito.times(2)).commit(Mockito.any());
+    }
+
+    @Test
+    void enqueue_withinATransaction_thenOnlyQueueTheDecrementAfterTheCommit() {
+        StockDecrementQueue queue = stockDecrementQueue(10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        queue.enqueue(UUID.randomUUID(), 2);
+        assertThat(queue.getQueueSize()).isEqualTo(0);
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(queue.getQueueSize()).isEqualTo(1);
+    }
+
+    @Test
+    void enqueue_withinATransactionThatRollsBack_thenDropTheDecrementAndFreeItsCapacity() {
+        StockDecrementQueue queue = stockDecrementQueue(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        queue.enqueue(UUID.randomUUID(), 2);
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        queue.enqueue(UUID.randomUUID(), 2);
+
+        assertThat(queue.getQueueSize()).isEqualTo(1);
+    }
+
+    @Test
+    void enqueue_givenAFullQueue_thenRefuseTheDecrement() {
+        StockDecrementQueue queue = stockDecrementQueue(1);
+        queue.enqueue(UUID.randomUUID(), 2);
+
+        Assertions.assertThatIllegalStateException()
+                .isThrownBy(() -> queue.enqueue(UUID.randomUUID(), 2));
+
+        queue.processBatch();
+        queue.enqueue(UUID.randomUUID(), 2);
+        assertThat(queue.getQueueSize()).isEqualTo(1);
+    }
+
+    @Test
+    void processBatch_givenAnItemWithoutEnoughStock_thenSkipOnlyThatItem() {
+        StockDecrementQueue queue = stockDecrementQueue(10);
+        UUID itemWithoutEnoughStock = UUID.randomUUID();
+        UUID otherItem = UUID.randomUUID();
+        Mockito.doThrow(IllegalArgumentException.class).when(stockEngineMock).decrementStock(itemWithoutEnoughStock, 4);
+        queue.enqueue(itemWithoutEnoughStock, 4);
+        queue.enqueue(otherItem, 1);
+
+        queue.processBatch();
+
+        Mockito.verify(stockEngineMock).decrementStock(otherItem, 1);
+        assertThat(queue.getQueueSize()).isEqualTo(0);
+        assertThat(queue.getSkippedDecrements()).isEqualTo(1);
+    }
+
+    @Test
+    void processBatch_givenCombinedDecrementsThatDoNotFit_thenApplyThemOneByOneAndSkipTheOnesThatDoNotFit() {
+        StockDecrementQueue queue = stockDecrementQueue(3);
+        UUID itemId = UUID.randomUUID();
+        Mockito.doThrow(IllegalArgumentException.class).when(stockEngineMock).decrementStock(itemId, 7);
+        Mockito.doThrow(IllegalArgumentException.class).when(stockEngineMock).decrementStock(itemId, 3);
+        queue.enqueue(itemId, 2);
+        queue.enqueue(itemId, 2);
+        queue.enqueue(itemId, 3);
+
+        queue.processBatch();
+
+        Mockito.verify(stockEngineMock, Mockito.times(2)).decrementStock(itemId, 2);
+        Mockito.verify(stockEngineMock).decrementStock(itemId, 3);
+        assertThat(queue.getSkippedDecrements()).isEqualTo(1);
+        assertThat(queue.getQueueSize()).isEqualTo(0);
+        queue.enqueue(itemId, 1);
+        queue.enqueue(itemId, 1);
+        queue.enqueue(itemId, 1);
+        assertThat(queue.getQueueSize()).isEqualTo(3);
+    }
+
+    @Test
+    void processBatch_givenANonExistingItem_thenSkipTheDecrementAndFreeItsCapacity() {
+        StockDecrementQueue queue = stockDecrementQueue(1);
+        UUID nonExistingItem = UUID.randomUUID();
+        Mockito.doThrow(new EntityNotFoundException("decrementing the stock of an item", Item.class, nonExistingItem))
+                .when(stockEngineMock).decrementStock(nonExistingItem, 4);
+        queue.enqueue(nonExistingItem, 4);
+
+        queue.processBatch();
+
+        assertThat(queue.getQueueSize()).isEqualTo(0);
+        assertThat(queue.getSkippedDecrements()).isEqualTo(1);
+        queue.enqueue(UUID.randomUUID(), 2);
+        assertThat(queue.getQueueSize()).isEqualTo(1);
+    }
+
+    @Test
+    void processBatch_givenAFailingTransaction_thenQueueTheDecrementsAgain() {
+        StockDecrementQueue queue = stockDecrementQueue(10);
+        queue.enqueue(UUID.randomUUID(), 4);
+        Mockito.doThrow(new TransactionSystemException("Database unavailable"))
+                .when(transactionManagerMock).commit(Mockito.any());
+
+        queue.processBatch();
+
+        assertThat(queue.getQueueSize()).isEqualTo(1);
+        assertThat(queue.getDeadLetteredDecrements()).isEqualTo(0);
+    }
+
+    @Test
+    void processBatch_givenAFailingItem_thenStillApplyTheOtherItems() {
+        StockDecrementQueue queue = stockDecrementQueue(10);
+        UUID failingItem = UUID.randomUUID();
+        UUID otherItem = UUID.randomUUID();
+        Mockito.doThrow(new IllegalStateException("Concurrent updates"))
+                .when(stockEngineMock).decrementStock(failingItem, 4);
+        queue.enqueue(failingItem, 4);
+        queue.enqueue(otherItem, 1);
+
+        queue.processBatch();
+
+        Mockito.verify(stockEngineMock).decrementStock(otherItem, 1);
+        Mockito.verify(transactionManagerMock, Mockito.times(1)).commit(Mockito.any());
+        Mockito.verify(transactionManagerMock, Mockito.times(1)).rollback(Mockito.any());
+        assertThat(queue.getQueueSize()).isEqualTo(1);
+    }
+
+    @Test
+    void processBatch_givenADecrementThatKeepsFailing_thenDeadLetterItAfterTheMaximumAttemptsAndFreeItsCapacity() {
+        StockDecrementQueue queue = stockDecrementQueue(1);
+        UUID failingItem = UUID.randomUUID();
+        Mockito.doThrow(new IllegalStateException("Concurrent updates"))
+                .when(stockEngineMock).decrementStock(failingItem, 4);
+        queue.enqueue(failingItem, 4);
+
+        for (int attempt = 1; attempt < MAX_ATTEMPTS; attempt++) {
+            queue.processBatch();
+            assertThat(queue.getQueueSize()).isEqualTo(1);
+        }
+        queue.processBatch();
+
+        Mockito.verify(stockEngineMock, Mockito.times(MAX_ATTEMPTS)).decrementStock(failingItem, 4);
+        assertThat(queue.getQueueSize()).isEqualTo(0);
+        assertThat(queue.getDeadLetteredDecrements()).isEqualTo(1);
+        queue.enqueue(UUID.randomUUID(), 2);
+        assertThat(queue.getQueueSize()).isEqualTo(1);
+    }
+
+    private StockDecrementQueue stockDecrementQueue(int capacity) {
+        return new StockDecrementQueue(stockEngineMock, transactionManagerMock, true, capacity, 100, 0, MAX_ATTEMPTS);
+    }
+
+    private void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+}
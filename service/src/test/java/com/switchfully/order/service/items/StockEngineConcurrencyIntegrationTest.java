@@ -0,0 +1,243 @@
+package com.switchfully.order.service.items;
+
+import com.switchfully.order.IntegrationTest;
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.domain.items.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.switchfully.order.domain.items.ItemTestBuilder.anItem;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Hammers the stock engine with {@link #THREADS} concurrent threads, either all decrementing the stock of the same
+ * (hot) item, or each decrementing the stock of its own item. Besides checking that no decrement gets lost and no
+ * item gets oversold, the throughput of every scenario is logged, to compare the strategies under contention.
+ * Updating an item that was read before a concurrent decrement must not overwrite that decrement either.
+ */
+class StockEngineConcurrencyIntegrationTest extends IntegrationTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StockEngineConcurrencyIntegrationTest.class);
+    private static final int THREADS = 64;
+    private static final int DECREMENTS_PER_THREAD = 10;
+
+    @Inject
+    private StockEngine stockEngine;
+
+    @Inject
+    private StockReservationLedger stockReservationLedger;
+
+    @Inject
+    private ItemRepository itemRepository;
+
+    @Inject
+    private TransactionTemplate transactionTemplate;
+
+    @Inject
+    private EntityManager entityManager;
+
+    private final List<UUID> createdItemIds = new ArrayList<>();
+
+    @AfterEach
+    void removeCreatedItems() {
+        createdItemIds.forEach(itemRepository::deleteById);
+    }
+
+    @Test
+    void atomicStrategy_givenAllThreadsDecrementingTheSameItem_thenNoDecrementIsLost() throws InterruptedException {
+        Item hotItem = createItemWithStock(THREADS * DECREMENTS_PER_THREAD);
+
+        Result result = hammer("atomic, one hot item", threadIndex -> hotItem.getId(),
+                itemId -> stockEngine.decrementStockAtomically(itemId, 1));
+
+        assertThat(result.successfulDecrements).isEqualTo(THREADS * DECREMENTS_PER_THREAD);
+        assertThat(stockOf(hotItem)).isEqualTo(0);
+    }
+
+    @Test
+    void atomicStrategy_givenMoreDemandThanStock_thenNeverOversell() throws InterruptedException {
+        Item hotItem = createItemWithStock(100);
+
+        Result result = hammer("atomic, one hot item, not enough stock", threadIndex -> hotItem.getId(),
+                itemId -> stockEngine.decrementStockAtomically(itemId, 1));
+
+        assertThat(result.successfulDecrements).isEqualTo(100);
+        assertThat(result.failedDecrements).isEqualTo(THREADS * DECREMENTS_PER_THREAD - 100);
+        assertThat(stockOf(hotItem)).isEqualTo(0);
+    }
+
+    @Test
+    void atomicStrategy_givenEveryThreadDecrementingItsOwnItem() throws InterruptedException {
+        List<Item> items = createItemsWithStock(THREADS, DECREMENTS_PER_THREAD);
+
+        Result result = hammer("atomic, spread items", threadIndex -> items.get(threadIndex).getId(),
+                itemId -> stockEngine.decrementStockAtomically(itemId, 1));
+
+        assertThat(result.successfulDecrements).isEqualTo(THREADS * DECREMENTS_PER_THREAD);
+        items.forEach(item -> assertThat(stockOf(item)).isEqualTo(0));
+    }
+
+    @Test
+    void atomicStrategy_givenItemsInThePersistenceContext_thenOnlyDetachTheDecrementedItem() {
+        Item decrementedItem = createItemWithStock(10);
+        Item otherItem = createItemWithStock(10);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Item managedDecrementedItem = itemRepository.findById(decrementedItem.getId()).orElseThrow();
+            Item managedOtherItem = itemRepository.findById(otherItem.getId()).orElseThrow();
+
+            stockEngine.decrementStockAtomically(decrementedItem.getId(), 3);
+
+            assertThat(entityManager.contains(managedDecrementedItem)).isFalse();
+            assertThat(entityManager.contains(managedOtherItem)).isTrue();
+            assertThat(itemRepository.findById(decrementedItem.getId()).orElseThrow().getAmountOfStock()).isEqualTo(7);
+        });
+    }
+
+    @Test
+    void updatingAnItem_givenAConcurrentDecrementAfterItWasRead_thenFailInsteadOfOverwritingTheDecrement() {
+        Item item = createItemWithStock(10);
+
+        assertThatExceptionOfType(OptimisticLockingFailureException.class)
+                .isThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+                    Item loadedItem = itemRepository.findById(item.getId()).orElseThrow();
+                    CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                            concurrentStatus -> stockEngine.decrementStockAtomically(item.getId(), 3))).join();
+                    loadedItem.updateWith(anItem().withId(item.getId()).withAmountOfStock(20).build());
+                    itemRepository.flush();
+                }));
+
+        assertThat(stockOf(item)).isEqualTo(7);
+    }
+
+    @Test
+    void optimisticStrategy_givenAllThreadsDecrementingTheSameItem_thenEveryFailedDecrementLeavesTheStockUntouched()
+            throws InterruptedException {
+        Item hotItem = createItemWithStock(THREADS * DECREMENTS_PER_THREAD);
+
+        Result result = hammer("optimistic, one hot item", threadIndex -> hotItem.getId(),
+                itemId -> stockEngine.decrementStockOptimistically(itemId, 1));
+
+        assertThat(result.successfulDecrements).isPositive();
+        assertThat(stockOf(hotItem)).isEqualTo(THREADS * DECREMENTS_PER_THREAD - result.successfulDecrements);
+    }
+
+    @Test
+    void optimisticStrategy_givenEveryThreadDecrementingItsOwnItem() throws InterruptedException {
+        List<Item> items = createItemsWithStock(THREADS, DECREMENTS_PER_THREAD);
+
+        Result result = hammer("optimistic, spread items", threadIndex -> items.get(threadIndex).getId(),
+                itemId -> stockEngine.decrementStockOptimistically(itemId, 1));
+
+        assertThat(result.successfulDecrements).isEqualTo(THREADS * DECREMENTS_PER_THREAD);
+        items.forEach(item -> assertThat(stockOf(item)).isEqualTo(0));
+    }
+
+    @Test
+    void ledger_givenAllThreadsReservingTheSameItem_thenNeverOversellAndFlushTheNetDecrement()
+            throws InterruptedException {
+        Item hotItem = createItemWithStock(100);
+
+        Result result = hammer("ledger, one hot item, not enough stock", threadIndex -> hotItem.getId(),
+                itemId -> stockReservationLedger.reserve(itemId, 1));
+
+        assertThat(result.successfulDecrements).isEqualTo(100);
+        assertThat(stockReservationLedger.getUnflushedDecrements()).containsEntry(hotItem.getId(), 100);
+        assertThat(stockOf(hotItem)).isEqualTo(100);
+        stockReservationLedger.flush();
+        assertThat(stockReservationLedger.getUnflushedDecrements()).doesNotContainKey(hotItem.getId());
+        assertThat(stockOf(hotItem)).isEqualTo(0);
+    }
+
+    private Result hammer(String scenario, IntFunction<UUID> itemIdForThread, DecrementAction decrementAction)
+            throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        AtomicInteger successfulDecrements = new AtomicInteger();
+        AtomicInteger failedDecrements = new AtomicInteger();
+        for (int threadIndex = 0; threadIndex < THREADS; threadIndex++) {
+            UUID itemId = itemIdForThread.apply(threadIndex);
+            executorService.submit(() -> {
+                try {
+                    start.await();
+                    for (int decrement = 0; decrement < DECREMENTS_PER_THREAD; decrement++) {
+                        try {
+                            transactionTemplate.executeWithoutResult(status -> decrementAction.decrement(itemId));
+                            successfulDecrements.incrementAndGet();
+                        } catch (RuntimeException exception) {
+                            failedDecrements.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        long startTime = System.nanoTime();
+        start.countDown();
+        assertThat(done.await(2, TimeUnit.MINUTES)).isTrue();
+        long elapsedNanos = System.nanoTime() - startTime;
+        executorService.shutdown();
+        Result result = new Result(successfulDecrements.get(), failedDecrements.get());
+        LOGGER.info("{}: {} successful and {} failed decrements by {} threads in {} ms ({} successful decrements/s)",
+                scenario, result.successfulDecrements, result.failedDecrements, THREADS,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                result.successfulDecrements * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1));
+        return result;
+    }
+
+    private Item createItemWithStock(int amountOfStock) {
+        Item item = itemRepository.save(anItem().withAmountOfStock(amountOfStock).build());
+        createdItemIds.add(item.getId());
+        return item;
+    }
+
+    private List<Item> createItemsWithStock(int amountOfItems, int amountOfStock) {
+        return IntStream.range(0, amountOfItems)
+                .mapToObj(index -> createItemWithStock(amountOfStock))
+                .collect(Collectors.toList());
+    }
+
+    private int stockOf(Item item) {
+        return itemRepository.findById(item.getId()).orElseThrow().getAmountOfStock();
+    }
+
+    @FunctionalInterface
+    private interface DecrementAction {
+        void decrement(UUID itemId);
+    }
+
+    private static class Result {
+        private final int successfulDecrements;
+        private final int failedDecrements;
+
+        private Result(int successfulDecrements, int failedDecrements) {
+            this.successfulDecrements = successfulDecrements;
+            this.failedDecrements = failedDecrements;
+        }
+    }
+
+}
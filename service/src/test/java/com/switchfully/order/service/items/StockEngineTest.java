@@ -0,0 +1,167 @@
+package com.switchfully.order.service.items;
+
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.domain.items.ItemRepository;
+import com.switchfully.order.infrastructure.exceptions.EntityNotFoundException;
+import com.switchfully.order.service.items.StockEngine.DecrementStrategy;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.persistence.EntityManager;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.switchfully.order.domain.items.ItemTestBuilder.anItem;
+
+class StockEngineTest {
+
+    private ItemRepository itemRepositoryMock;
+    private StockReservationLedger stockReservationLedgerMock;
+    private ItemCache itemCacheMock;
+    private EntityManager entityManagerMock;
+
+    @BeforeEach
+    void setupMocks() {
+        itemRepositoryMock = Mockito.mock(ItemRepository.class);
+        stockReservationLedgerMock = Mockito.mock(StockReservationLedger.class);
+        itemCacheMock = Mockito.mock(ItemCache.class);
+        entityManagerMock = Mockito.mock(EntityManager.class);
+    }
+
+    @Test
+    void decrementStock_givenTheAtomicStrategy_thenUseTheConditionalUpdate() {
+        UUID itemId = UUID.randomUUID();
+        Mockito.when(itemRepositoryMock.decrementStockIfAvailable(itemId, 3)).thenReturn(1);
+
+        stockEngine(DecrementStrategy.ATOMIC).decrementStock(itemId, 3);
+
+        Mockito.verify(itemRepositoryMock).decrementStockIfAvailable(itemId, 3);
+    }
+
+    @Test
+    void decrementStock_givenTheAtomicStrategy_thenDetachOnlyTheDecrementedItem() {
+        UUID itemId = UUID.randomUUID();
+        Item managedItem = anItem().withId(itemId).withAmountOfStock(10).build();
+        Mockito.when(itemRepositoryMock.decrementStockIfAvailable(itemId, 3)).thenReturn(1);
+        Mockito.when(entityManagerMock.getReference(Item.class, itemId)).thenReturn(managedItem);
+
+        stockEngine(DecrementStrategy.ATOMIC).decrementStock(itemId, 3);
+
+        Mockito.verify(entityManagerMock).detach(managedItem);
+        Mockito.verify(entityManagerMock, Mockito.never()).clear();
+    }
+
+    @Test
+    void decrementStock_givenTheAtomicStrategyAndNotEnoughStock_thenThrowException() {
+        UUID itemId = UUID.randomUUID();
+        Mockito.when(itemRepositoryMock.decrementStockIfAvailable(itemId, 3)).thenReturn(0);
+        Mockito.when(itemRepositoryMock.existsById(itemId)).thenReturn(true);
+
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> stockEngine(DecrementStrategy.ATOMIC).decrementStock(itemId, 3))
+                .withMessage("Decrementing the stock amount of an item " + itemId.toString() + " below 0 is not allowed");
+    }
+
+    @Test
+    void decrementStock_givenTheAtomicStrategyAndANonExistingItem_thenThrowException() {
+        UUID itemId = UUID.randomUUID();
+        Mockito.when(itemRepositoryMock.decrementStockIfAvailable(itemId, 3)).thenReturn(0);
+        Mockito.when(itemRepositoryMock.existsById(itemId)).thenReturn(false);
+
+        Assertions.assertThatExceptionOfType(EntityNotFoundException.class)
+                .isThrownBy(() -> stockEngine(DecrementStrategy.ATOMIC).decrementStock(itemId, 3));
+    }
+
+    @Test
+    void decrementStock_givenTheOptimisticStrategy_thenWriteTheDecrementedStockOfTheLoadedVersion() {
+        UUID itemId = UUID.randomUUID();
+        Item item = anItem().withId(itemId).withAmountOfStock(10).build();
+        Mockito.when(itemRepositoryMock.findById(itemId)).thenReturn(Optional.of(item));
+        Mockito.when(itemRepositoryMock.updateStockIfVersionMatches(itemId, 6, item.getVersion())).thenReturn(1);
+
+        stockEngine(DecrementStrategy.OPTIMISTIC).decrementStock(itemId, 4);
+
+        Mockito.verify(itemRepositoryMock).updateStockIfVersionMatches(itemId, 6, item.getVersion());
+        Mockito.verify(itemRepositoryMock, Mockito.never()).decrementStockIfAvailable(Mockito.any(), Mockito.anyInt());
+    }
+
+    @Test
+    void decrementStock_givenTheOptimisticStrategyAndNotEnoughStock_thenThrowException() {
+        UUID itemId = UUID.randomUUID();
+        Item item = anItem().withId(itemId).withAmountOfStock(3).build();
+        Mockito.when(itemRepositoryMock.findById(itemId)).thenReturn(Optional.of(item));
+
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> stockEngine(DecrementStrategy.OPTIMISTIC).decrementStock(itemId, 4));
+        Mockito.verify(itemRepositoryMock, Mockito.never())
+                .updateStockIfVersionMatches(Mockito.any(), Mockito.anyInt(), Mockito.anyLong());
+    }
+
+    @Test
+    void decrementStock_givenTheOptimisticStrategyAndAConcurrentUpdate_thenRetry() {
+        UUID itemId = UUID.randomUUID();
+        Item item = anItem().withId(itemId).withAmountOfStock(10).build();
+        Mockito.when(itemRepositoryMock.findById(itemId)).thenReturn(Optional.of(item));
+        Mockito.when(itemRepositoryMock.updateStockIfVersionMatches(itemId, 6, item.getVersion()))
+                .thenReturn(0)
+                .thenReturn(1);
+        Mockito.when(entityManagerMock.getReference(Item.class, itemId)).thenReturn(item);
+
+        stockEngine(DecrementStrategy.OPTIMISTIC).decrementStock(itemId, 4);
+
+        Mockito.verify(itemRepositoryMock, Mockito.times(2)).findById(itemId);
+        Mockito.verify(itemRepositoryMock, Mockito.times(2)).updateStockIfVersionMatches(itemId, 6, item.getVersion());
+        Mockito.verify(entityManagerMock, Mockito.times(2)).detach(item);
+    }
+
+    @Test
+    void decrementStock_givenTheOptimisticStrategyAndOnlyConcurrentUpdates_thenGiveUpAfterTheMaximumAttempts() {
+        UUID itemId = UUID.randomUUID();
+        Item item = anItem().withId(itemId).withAmountOfStock(10).build();
+        Mockito.when(itemRepositoryMock.findById(itemId)).thenReturn(Optional.of(item));
+        Mockito.when(itemRepositoryMock.updateStockIfVersionMatches(itemId, 6, item.getVersion())).thenReturn(0);
+
+        Assertions.assertThatIllegalStateException()
+                .isThrownBy(() -> stockEngine(DecrementStrategy.OPTIMISTIC).decrementStock(itemId, 4));
+        Mockito.verify(itemRepositoryMock, Mockito.times(StockEngine.MAX_OPTIMISTIC_ATTEMPTS)).findById(itemId);
+    }
+
+    @Test
+    void decrementStock_givenTheLedgerStrategy_thenReserveTheStockInTheLedger() {
+        UUID itemId = UUID.randomUUID();
+
+        stockEngine(DecrementStrategy.LEDGER).decrementStock(itemId, 3);
+
+        Mockito.verify(stockReservationLedgerMock).reserve(itemId, 3);
+        Mockito.verifyNoInteractions(itemRepositoryMock);
+    }
+
+    @Test
+    void decrementStock_thenEvictTheItemFromTheCache() {
+        UUID itemId = UUID.randomUUID();
+        Mockito.when(itemRepositoryMock.decrementStockIfAvailable(itemId, 3)).thenReturn(1);
+
+        stockEngine(DecrementStrategy.ATOMIC).decrementStock(itemId, 3);
+
+        Mockito.verify(itemCacheMock).evict(itemId);
+    }
+
+    @Test
+    void stockOverwritten_givenTheLedgerStrategy_thenRefreshTheLedger() {
+        Item item = anItem().withId(UUID.randomUUID()).build();
+
+        stockEngine(DecrementStrategy.LEDGER).stockOverwritten(item);
+        stockEngine(DecrementStrategy.ATOMIC).stockOverwritten(item);
+
+        Mockito.verify(stockReservationLedgerMock, Mockito.times(1)).refresh(item);
+    }
+
+    private StockEngine stockEngine(DecrementStrategy decrementStrategy) {
+        return new StockEngine(itemRepositoryMock, stockReservationLedgerMock, itemCacheMock, entityManagerMock,
+                decrementStrategy);
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.switchfully.order.service.items;
+
+import com.switchfully.order.TestApplication;
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.domain.items.ItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static com.switchfully.order.domain.items.ItemTestBuilder.anItem;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts (and closes) its own application context, against its own in-memory database that outlives that context,
+ * so it can check what ended up in the item table after shutting down.
+ */
+class StockReservationLedgerIntegrationTest {
+
+    private static final String DATABASE_URL = "jdbc:h2:mem:stock-reservation-ledger;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void close_givenUnflushedReservations_thenFlushThemBeforeShuttingDown() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=" + DATABASE_URL,
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "order.stock.decrement-strategy=LEDGER",
+                        "order.stock.ledger.flush-interval-ms=3600000")
+                .run();
+        Item item = context.getBean(ItemRepository.class).save(anItem().withAmountOfStock(10).build());
+        StockReservationLedger stockReservationLedger = context.getBean(StockReservationLedger.class);
+        stockReservationLedger.reserve(item.getId(), 3);
+        stockReservationLedger.reserve(item.getId(), 2);
+        assertThat(stockReservationLedger.getUnflushedDecrements()).containsEntry(item.getId(), 5);
+
+        context.close();
+
+        JdbcTemplate database = new JdbcTemplate(new DriverManagerDataSource(DATABASE_URL, "sa", ""));
+        assertThat(database.queryForObject("select amount_of_stock from item", Integer.class)).isEqualTo(5);
+    }
+
+}
@@ -0,0 +1,224 @@
+package com.switchfully.order.service.items;
+
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.domain.items.ItemRepository;
+import com.switchfully.order.infrastructure.exceptions.EntityNotFoundException;
+import com.switchfully.order.service.items.StockEngine.DecrementStrategy;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.switchfully.order.domain.items.ItemTestBuilder.anItem;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockReservationLedgerTest {
+
+    private ItemRepository itemRepositoryMock;
+    private PlatformTransactionManager transactionManagerMock;
+    private StockReservationLedger ledger;
+
+    @BeforeEach
+    void setupLedger() {
+        itemRepositoryMock = Mockito.mock(ItemRepository.class);
+        transactionManagerMock = Mockito.mock(PlatformTransactionManager.class);
+        ledger = new StockReservationLedger(itemRepositoryMock, Mockito.mock(ItemCache.class), transactionManagerMock,
+                DecrementStrategy.LEDGER);
+    }
+
+    @AfterEach
+    void clearTransactionSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reserve_givenAnUnknownItem_thenLoadItsStockOnce() {
+        Item item = anExistingItemWithStock(10);
+
+        ledger.reserve(item.getId(), 3);
+        ledger.reserve(item.getId(), 2);
+
+        assertThat(ledger.getAvailableStock(item.getId())).isEqualTo(5);
+        assertThat(ledger.getUnflushedDecrements()).containsEntry(item.getId(), 5);
+        Mockito.verify(itemRepositoryMock, Mockito.times(1)).findById(item.getId());
+    }
+
+    @Test
+    void reserve_givenNotEnoughStock_thenThrowExceptionAndKeepTheStock() {
+        Item item = anExistingItemWithStock(2);
+
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> ledger.reserve(item.getId(), 3))
+                .withMessage("Decrementing the stock amount of an item " + item.getId().toString()
+                        + " below 0 is not allowed");
+        assertThat(ledger.getAvailableStock(item.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void reserve_givenANonExistingItem_thenThrowException() {
+        UUID itemId = UUID.randomUUID();
+        Mockito.when(itemRepositoryMock.findById(itemId)).thenReturn(Optional.empty());
+
+        Assertions.assertThatExceptionOfType(EntityNotFoundException.class)
+                .isThrownBy(() -> ledger.reserve(itemId, 1));
+    }
+
+    @Test
+    void reserve_withinATransactionThatRollsBack_thenReleaseTheReservation() {
+        Item item = anExistingItemWithStock(10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledger.reserve(item.getId(), 4);
+        assertThat(ledger.getAvailableStock(item.getId())).isEqualTo(6);
+        assertThat(ledger.getUnflushedDecrements()).isEmpty();
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(ledger.getAvailableStock(item.getId())).isEqualTo(10);
+        assertThat(ledger.getUnflushedDecrements()).isEmpty();
+    }
+
+    @Test
+    void reserve_withinATransactionThatCommits_thenConfirmTheReservation() {
+        Item item = anExistingItemWithStock(10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledger.reserve(item.getId(), 4);
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(ledger.getAvailableStock(item.getId())).isEqualTo(6);
+        assertThat(ledger.getUnflushedDecrements()).containsEntry(item.getId(), 4);
+    }
+
+    @Test
+    void flush_decrementsTheNetReservationsPerItemAtOnce() {
+        Item item = anExistingItemWithStock(10);
+        ledger.reserve(item.getId(), 3);
+        ledger.reserve(item.getId(), 4);
+        Mockito.when(itemRepositoryMock.decrementStockIfAvailable(item.getId(), 7)).thenReturn(1);
+
+        ledger.flush();
+
+        Mockito.verify(itemRepositoryMock).decrementStockIfAvailable(item.getId(), 7);
+        assertThat(ledger.getUnflushedDecrements()).isEmpty();
+        assertThat(ledger.getAvailableStock(item.getId())).isEqualTo(3);
+    }
+
+    @Test
+    void flush_givenAFailingTransaction_thenKeepTheReservationsForTheNextFlush() {
+        Item item = anExistingItemWithStock(10);
+        ledger.reserve(item.getId(), 3);
+        Mockito.when(itemRepositoryMock.decrementStockIfAvailable(item.getId(), 3)).thenReturn(1);
+        Mockito.doThrow(new TransactionSystemException("Database unavailable"))
+                .when(transactionManagerMock).commit(Mockito.any());
+
+        ledger.flush();
+
+        assertThat(ledger.getUnflushedDecrements()).containsEntry(item.getId(), 3);
+    }
+
+    @Test
+    void reconcile_loadsTheStockOfAllItems() {
+        Item item1 = anItem().withId(UUID.randomUUID()).withAmountOfStock(5).build();
+        Item item2 = anItem().withId(UUID.randomUUID()).withAmountOfStock(8).build();
+        Mockito.when(itemRepositoryMock.findAll()).thenReturn(List.of(item1, item2));
+
+        ledger.reconcile();
+
+        assertThat(ledger.getAvailableStock(item1.getId())).isEqualTo(5);
+        assertThat(ledger.getAvailableStock(item2.getId())).isEqualTo(8);
+        Mockito.verify(itemRepositoryMock, Mockito.never()).findById(Mockito.any());
+    }
+
+    @Test
+    void refresh_subtractsTheUnflushedReservationsFromTheNewStock() {
+        Item item = anExistingItemWithStock(10);
+        ledger.reserve(item.getId(), 4);
+
+        ledger.refresh(anItem().withId(item.getId()).withAmountOfStock(20).build());
+
+        assertThat(ledger.getAvailableStock(item.getId())).isEqualTo(16);
+    }
+
+    @Test
+    void refresh_subtractsThePendingAndInFlushReservationsFromTheNewStock() {
+        Item item = anExistingItemWithStock(10);
+        ledger.reserve(item.getId(), 3);
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.reserve(item.getId(), 2);
+        List<TransactionSynchronization> pendingReservation = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        Mockito.when(itemRepositoryMock.decrementStockIfAvailable(item.getId(), 3)).thenAnswer(invocation -> {
+            ledger.refresh(anItem().withId(item.getId()).withAmountOfStock(20).build());
+            return 1;
+        });
+
+        ledger.flush();
+        assertThat(ledger.getAvailableStock(item.getId())).isEqualTo(15);
+        pendingReservation.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThat(ledger.getAvailableStock(item.getId())).isEqualTo(15);
+        assertThat(ledger.getUnflushedDecrements()).containsEntry(item.getId(), 2);
+    }
+
+    @Test
+    void refresh_withinATransaction_thenOnlyRefreshAfterItCommits() {
+        Item item = anExistingItemWithStock(10);
+        ledger.reserve(item.getId(), 4);
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledger.refresh(anItem().withId(item.getId()).withAmountOfStock(20).build());
+        assertThat(ledger.getAvailableStock(item.getId())).isEqualTo(6);
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(ledger.getAvailableStock(item.getId())).isEqualTo(16);
+    }
+
+    @Test
+    void refresh_withinATransactionThatRollsBack_thenKeepTheStock() {
+        Item item = anExistingItemWithStock(10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledger.refresh(anItem().withId(item.getId()).withAmountOfStock(20).build());
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(ledger.getAvailableStock(item.getId())).isEqualTo(10);
+    }
+
+    @Test
+    void flush_givenADecrementThatNoLongerFits_thenDropItAndReloadTheStockAfterwards() {
+        Item item = anExistingItemWithStock(10);
+        ledger.reserve(item.getId(), 7);
+        item.updateWith(anItem().withId(item.getId()).withAmountOfStock(5).build());
+        Mockito.when(itemRepositoryMock.decrementStockIfAvailable(item.getId(), 7)).thenReturn(0);
+
+        ledger.flush();
+
+        assertThat(ledger.getUnflushedDecrements()).isEmpty();
+        assertThat(ledger.getAvailableStock(item.getId())).isEqualTo(5);
+    }
+
+    private Item anExistingItemWithStock(int amountOfStock) {
+        Item item = anItem().withId(UUID.randomUUID()).withAmountOfStock(amountOfStock).build();
+        Mockito.when(itemRepositoryMock.findById(item.getId())).thenReturn(Optional.of(item));
+        return item;
+    }
+
+    private void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.switchfully.order.service.metrics;
+
+import com.switchfully.order.domain.items.ItemRepository;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class RepositoryMetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemRepository itemRepositoryMock;
+    private ItemRepository timedItemRepository;
+
+    @BeforeEach
+    void setupTimedRepository() {
+        meterRegistry = new SimpleMeterRegistry();
+        itemRepositoryMock = Mockito.mock(ItemRepository.class);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(itemRepositoryMock);
+        proxyFactory.addInterface(ItemRepository.class);
+        proxyFactory.addAspect(new RepositoryMetricsAspect(meterRegistry));
+        timedItemRepository = proxyFactory.getProxy();
+    }
+
+    @Test
+    void givenACallToARepository_thenTimeItPerRepositoryAndMethod() {
+        when(itemRepositoryMock.findById(any())).thenReturn(Optional.empty());
+
+        timedItemRepository.findById(UUID.randomUUID());
+        timedItemRepository.findById(UUID.randomUUID());
+
+        Timer timer = meterRegistry.get(RepositoryMetricsAspect.TIMER_NAME)
+                .tag("repository", "ItemRepository")
+                .tag("method", "findById")
+                .tag("exception", "none")
+                .timer();
+        assertThat(timer.count()).isEqualTo(2);
+    }
+
+    @Test
+    void givenACallThatFails_thenTagItWithTheException() {
+        when(itemRepositoryMock.decrementStockIfAvailable(any(), Mockito.anyInt()))
+                .thenThrow(new IllegalStateException("Database down"));
+
+        assertThatThrownBy(() -> timedItemRepository.decrementStockIfAvailable(UUID.randomUUID(), 1))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get(RepositoryMetricsAspect.TIMER_NAME)
+                .tag("method", "decrementStockIfAvailable")
+                .tag("exception", "IllegalStateException")
+                .timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,72 @@
+package com.switchfully.order.service.orders;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderAssemblyExecutorTest {
+
+    private final OrderAssemblyExecutor orderAssemblyExecutor = new OrderAssemblyExecutor(100, 10, 4);
+
+    @AfterEach
+    void shutdownExecutor() {
+        orderAssemblyExecutor.destroy();
+    }
+
+    @Test
+    void map_givenFewerElementsThanTheThreshold_thenMapThemOnTheCallingThread() {
+        Set<Thread> mappingThreads = ConcurrentHashMap.newKeySet();
+
+        List<Integer> mappedElements = orderAssemblyExecutor.map(elements(99), element -> {
+            mappingThreads.add(Thread.currentThread());
+            return element * 2;
+        });
+
+        assertThat(mappedElements).isEqualTo(elements(99).stream().map(element -> element * 2).collect(Collectors.toList()));
+        assertThat(mappingThreads).containsExactly(Thread.currentThread());
+    }
+
+    @Test
+    void map_givenAsManyElementsAsTheThreshold_thenMapThemInParallelKeepingTheirOrder() {
+        Set<Thread> mappingThreads = ConcurrentHashMap.newKeySet();
+
+        List<Integer> mappedElements = orderAssemblyExecutor.map(elements(1000), element -> {
+            mappingThreads.add(Thread.currentThread());
+            return element * 2;
+        });
+
+        assertThat(mappedElements).isEqualTo(elements(1000).stream().map(element -> element * 2).collect(Collectors.toList()));
+        assertThat(mappingThreads).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void map_givenTheMapperFailsForAnElement_thenThrowTheExceptionOfTheMapper() {
+        assertThatThrownBy(() -> orderAssemblyExecutor.map(elements(1000), element -> {
+            if (element == 999) {
+                throw new IllegalArgumentException("Invalid element " + element);
+            }
+            return element;
+        }))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid element 999");
+    }
+
+    @Test
+    void anyMatch() {
+        assertThat(orderAssemblyExecutor.anyMatch(elements(1000), element -> element == 999)).isTrue();
+        assertThat(orderAssemblyExecutor.anyMatch(elements(1000), element -> element < 0)).isFalse();
+        assertThat(orderAssemblyExecutor.anyMatch(elements(10), element -> element == 9)).isTrue();
+    }
+
+    private static List<Integer> elements(int amountOfElements) {
+        return IntStream.range(0, amountOfElements).boxed().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,111 @@
+package com.switchfully.order.service.orders;
+
+import com.switchfully.order.IntegrationTest;
+import com.switchfully.order.domain.customers.Customer;
+import com.switchfully.order.domain.customers.CustomerRepository;
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.domain.items.ItemRepository;
+import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.domain.orders.orderitems.OrderItem;
+import com.switchfully.order.service.items.ItemLookup;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.switchfully.order.domain.customers.CustomerTestBuilder.aCustomer;
+import static com.switchfully.order.domain.items.ItemTestBuilder.anItem;
+import static com.switchfully.order.domain.orders.Order.OrderBuilder.order;
+import static com.switchfully.order.domain.orders.orderitems.OrderItem.OrderItemBuilder.orderItem;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements Hibernate prepares to create a chunk of orders: the orders of a chunk should be inserted
+ * with one (batched) insert per table, no matter how many orders the chunk contains.
+ */
+@TestPropertySource(properties = {
+        "order.orders.batch.chunk-size=100",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=100",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.switchfully.order.service.orders.OrderServiceBatchIntegrationTest$RecordingStatementInspector"
+})
+class OrderServiceBatchIntegrationTest extends IntegrationTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderServiceBatchIntegrationTest.class);
+
+    @Inject
+    private OrderService orderService;
+
+    @Inject
+    private CustomerRepository customerRepository;
+
+    @Inject
+    private ItemRepository itemRepository;
+
+    @Test
+    void createOrders_givenAChunkOfOrders_thenInsertTheOrdersOfTheChunkWithOneStatementPerTable() {
+        List<Customer> customers = customerRepository.saveAll(List.of(aCustomer().build(), aCustomer().build()));
+        Item item = itemRepository.save(anItem().withAmountOfStock(100).build());
+        Item otherItem = itemRepository.save(anItem().withAmountOfStock(100).build());
+        ItemLookup orderedItems = ItemLookup.of(List.of(item, otherItem));
+        List<Supplier<Order>> orderAssemblers = IntStream.range(0, 20)
+                .mapToObj(index -> (Supplier<Order>) () ->
+                        anOrderOf(customers.get(index % 2), item, otherItem, orderedItems))
+                .collect(Collectors.toList());
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        List<OrderCreationResult> results = orderService.createOrders(orderAssemblers, orderedItems);
+
+        List<String> statements = List.copyOf(RecordingStatementInspector.STATEMENTS);
+        LOGGER.info("Creating a chunk of {} orders took {} statements: {}", orderAssemblers.size(), statements.size(),
+                statements);
+        assertThat(results).allMatch(OrderCreationResult::isCreated);
+        assertThat(statements)
+                .filteredOn(statement -> statement.startsWith("insert into orders")).hasSize(1);
+        assertThat(statements)
+                .filteredOn(statement -> statement.startsWith("insert into order_item")).hasSize(1);
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getAmountOfStock()).isEqualTo(100 - 20);
+        assertThat(itemRepository.findById(otherItem.getId()).orElseThrow().getAmountOfStock()).isEqualTo(100 - 40);
+    }
+
+    /**
+     * Assembles an order (of one piece of the item and two of the other item) like the OrderMapper does.
+     */
+    private Order anOrderOf(Customer customer, Item item, Item otherItem, ItemLookup orderedItems) {
+        return order()
+                .withCustomer(customer)
+                .withOrderItems(List.of(
+                        anOrderItemOf(item, 1, orderedItems),
+                        anOrderItemOf(otherItem, 2, orderedItems)))
+                .build();
+    }
+
+    private OrderItem anOrderItemOf(Item item, int orderedAmount, ItemLookup orderedItems) {
+        return orderItem()
+                .withItemId(item.getId())
+                .withItemPrice(item.getPrice())
+                .withOrderedAmount(orderedAmount)
+                .withShippingDateBasedOnAvailableItemStock(orderedItems.getAvailableStock(item.getId()))
+                .build();
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.trim().toLowerCase());
+            return sql;
+        }
+    }
+}
@@ -65,23 +65,11 @@ class OrderServiceIntegrationTest extends IntegrationTest {
         Order order2 = orderRepository.save(anOrder().withOrderItems(anOrderItem().withItemId(item.getId()).build()).build());
         Order order3 = orderRepository.save(anOrder().withOrderItems(anOrderItem().withItemId(item.getId()).build()).build());
 
-        List<Order> allOrders = orderService.getAllOrders(false);
+        List<Order> allOrders = orderService.getAllOrders();
 
         assertThat(allOrders).containsExactlyInAnyOrder(order1, order2, order3);
     }
 
-    @Test
-    void getAllOrders_onlyIncludeShippableToday() {
-        Item item = itemRepository.save(anItem().build());
-        Order order1 = orderRepository.save(anOrder().withOrderItems(anOrderItem().withItemId(item.getId()).build()).build());
-
-        List<Order> allOrders = orderService.getAllOrders(true);
-
-        assertThat(allOrders).hasSize(1);
-        assertThat(allOrders.get(0)).isEqualToIgnoringGivenFields(order1, "orderItems");
-        assertThat(allOrders.get(0).getOrderItems()).isEmpty();
-    }
-
     @Test
     void getOrdersForCustomer(){
         Customer existingCustomer1 = customerRepository.save(aCustomer().build());
@@ -2,23 +2,43 @@ package com.switchfully.order.service.orders;
 
 import com.switchfully.order.domain.customers.Customer;
 import com.switchfully.order.domain.customers.CustomerRepository;
+import com.switchfully.order.domain.items.Item;
 import com.switchfully.order.domain.items.ItemRepository;
 import com.switchfully.order.domain.orders.Order;
 import com.switchfully.order.domain.orders.OrderRepository;
+import com.switchfully.order.domain.orders.orderitems.events.OrderItemCreatedEvent;
 import com.switchfully.order.infrastructure.exceptions.EntityNotFoundException;
 import com.switchfully.order.infrastructure.exceptions.EntityNotValidException;
 import com.switchfully.order.infrastructure.exceptions.NotAuthorizedException;
+import com.switchfully.order.service.items.ItemLookup;
+import com.switchfully.order.service.orders.reports.CustomerOrderReportService;
+import com.switchfully.order.service.outbox.OrderEventOutbox;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.switchfully.order.domain.customers.CustomerTestBuilder.aCustomer;
 import static com.switchfully.order.domain.items.ItemTestBuilder.anItem;
 import static com.switchfully.order.domain.orders.OrderTestBuilder.anOrder;
+import static com.switchfully.order.domain.orders.orderitems.OrderItem.OrderItemBuilder.orderItem;
 import static com.switchfully.order.domain.orders.orderitems.OrderItemTestBuilder.anOrderItem;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
@@ -31,6 +51,10 @@ class OrderServiceTest {
     private CustomerRepository customerRepositoryMock;
     private ItemRepository itemRepositoryMock;
     private ApplicationEventPublisher eventPublisherMock;
+    private EntityManager entityManagerMock;
+    private OrderEventOutbox orderEventOutboxMock;
+    private PlatformTransactionManager transactionManagerMock;
+    private CustomerOrderReportService customerOrderReportServiceMock;
 
     @BeforeEach
     void setupService() {
@@ -39,7 +63,11 @@ class OrderServiceTest {
         customerRepositoryMock = Mockito.mock(CustomerRepository.class);
         itemRepositoryMock = Mockito.mock(ItemRepository.class);
         eventPublisherMock = Mockito.mock(ApplicationEventPublisher.class);
-        orderService = new OrderService(customerRepositoryMock, itemRepositoryMock, orderRepositoryMock, orderValidatorMock, eventPublisherMock);
+        entityManagerMock = Mockito.mock(EntityManager.class);
+        orderEventOutboxMock = Mockito.mock(OrderEventOutbox.class);
+        transactionManagerMock = Mockito.mock(PlatformTransactionManager.class);
+        customerOrderReportServiceMock = Mockito.mock(CustomerOrderReportService.class);
+        orderService = new OrderService(customerRepositoryMock, itemRepositoryMock, orderRepositoryMock, orderValidatorMock, eventPublisherMock, entityManagerMock, orderEventOutboxMock, customerOrderReportServiceMock, transactionManagerMock, 100);
     }
 
     @Test
@@ -47,14 +75,70 @@ class OrderServiceTest {
         Order order = anOrder().build();
         Mockito.when(orderValidatorMock.isValidForCreation(order)).thenReturn(true);
         Mockito.when(orderRepositoryMock.save(order)).thenReturn(order);
-        Mockito.when(customerRepositoryMock.getOne(any(UUID.class))).thenReturn(aCustomer().build());
-        Mockito.when(itemRepositoryMock.getOne(any(UUID.class))).thenReturn(anItem().build());
+        Mockito.when(customerRepositoryMock.existsById(order.getCustomer().getId())).thenReturn(true);
+        Mockito.when(itemRepositoryMock.findAllById(any())).thenReturn(itemsReferencedBy(order));
 
         Order createdOrder = orderService.createOrder(order);
 
         assertThat(createdOrder).isNotNull();
     }
 
+    @Test
+    void createOrder_resolvesAllOrderedItemsWithASingleQuery() {
+        Order order = anOrder().build();
+        Mockito.when(orderValidatorMock.isValidForCreation(order)).thenReturn(true);
+        Mockito.when(orderRepositoryMock.save(order)).thenReturn(order);
+        Mockito.when(customerRepositoryMock.existsById(order.getCustomer().getId())).thenReturn(true);
+        Mockito.when(itemRepositoryMock.findAllById(any())).thenReturn(itemsReferencedBy(order));
+
+        orderService.createOrder(order);
+
+        Mockito.verify(itemRepositoryMock, Mockito.times(1)).findAllById(any());
+        Mockito.verify(itemRepositoryMock, Mockito.never()).existsById(any());
+    }
+
+    @Test
+    void createOrder_givenAnItemLookup_thenDoNotQueryTheItemsAgain() {
+        Order order = anOrder().build();
+        Mockito.when(orderValidatorMock.isValidForCreation(order)).thenReturn(true);
+        Mockito.when(orderRepositoryMock.save(order)).thenReturn(order);
+        Mockito.when(customerRepositoryMock.existsById(order.getCustomer().getId())).thenReturn(true);
+
+        Order createdOrder = orderService.createOrder(order, ItemLookup.of(itemsReferencedBy(order)));
+
+        assertThat(createdOrder).isNotNull();
+        Mockito.verifyNoInteractions(itemRepositoryMock);
+    }
+
+    @Test
+    void createOrder_publishesTheCreationOfEveryOrderItem() {
+        Order order = anOrder().build();
+        Mockito.when(orderValidatorMock.isValidForCreation(order)).thenReturn(true);
+        Mockito.when(orderRepositoryMock.save(order)).thenReturn(order);
+        Mockito.when(customerRepositoryMock.existsById(order.getCustomer().getId())).thenReturn(true);
+
+        orderService.createOrder(order, ItemLookup.of(itemsReferencedBy(order)));
+
+        Mockito.verify(eventPublisherMock, Mockito.times(order.getOrderItems().size())).publishEvent(any(OrderItemCreatedEvent.class));
+        Mockito.verify(orderEventOutboxMock, Mockito.never()).addCreationOfOrderItems(any());
+    }
+
+    @Test
+    void createOrder_givenTheOutboxIsEnabled_thenStoreTheEventsInTheOutboxInsteadOfPublishingThem() {
+        Order order = anOrder().build();
+        Order savedOrder = anOrder().withId(UUID.randomUUID()).build();
+        Mockito.when(orderEventOutboxMock.isEnabled()).thenReturn(true);
+        Mockito.when(orderValidatorMock.isValidForCreation(order)).thenReturn(true);
+        Mockito.when(orderRepositoryMock.save(order)).thenReturn(savedOrder);
+        Mockito.when(customerRepositoryMock.existsById(order.getCustomer().getId())).thenReturn(true);
+
+        Order createdOrder = orderService.createOrder(order, ItemLookup.of(itemsReferencedBy(order)));
+
+        assertThat(createdOrder).isSameAs(savedOrder);
+        Mockito.verify(orderEventOutboxMock).addCreationOfOrderItems(savedOrder);
+        Mockito.verifyNoInteractions(eventPublisherMock);
+    }
+
     @Test
     void createOrder_givenOrderThatIsNotValidForCreation_thenThrowException() {
         Order order = anOrder().build();
@@ -85,8 +169,8 @@ class OrderServiceTest {
         Order order = anOrder().withOrderItems(anOrderItem().withItemId(UUID.randomUUID()).build()).build();
         Mockito.when(orderValidatorMock.isValidForCreation(order)).thenReturn(true);
         Mockito.when(orderRepositoryMock.save(order)).thenReturn(order);
-        Mockito.when(customerRepositoryMock.getOne(any(UUID.class))).thenReturn(aCustomer().build());
-        Mockito.when(itemRepositoryMock.getOne(any(UUID.class))).thenReturn(null);
+        Mockito.when(customerRepositoryMock.existsById(order.getCustomer().getId())).thenReturn(true);
+        Mockito.when(itemRepositoryMock.findAllById(any())).thenReturn(List.of());
 
         Assertions.assertThatExceptionOfType(EntityNotValidException.class)
                 .isThrownBy(() -> orderService.createOrder(order))
@@ -99,15 +183,15 @@ class OrderServiceTest {
         UUID originalOrderId = UUID.randomUUID();
         Customer customer = aCustomer().build();
         UUID itemId = UUID.randomUUID();
-        Mockito.when(orderRepositoryMock.getOne(originalOrderId))
-                .thenReturn(anOrder()
+        Mockito.when(orderRepositoryMock.findWithCustomerAndOrderItemsById(originalOrderId))
+                .thenReturn(Optional.of(anOrder()
                         .withCustomer(customer)
                         .withOrderItems(anOrderItem()
                                 .withItemId(itemId)
                                 .build())
-                        .build());
-        Mockito.when(customerRepositoryMock.getOne(customer.getId())).thenReturn(aCustomer().build());
-        Mockito.when(itemRepositoryMock.getOne(itemId)).thenReturn(anItem().build());
+                        .build()));
+        Mockito.when(customerRepositoryMock.existsById(customer.getId())).thenReturn(true);
+        Mockito.when(itemRepositoryMock.findAllById(Set.of(itemId))).thenReturn(List.of(anItem().withId(itemId).build()));
         Order expectedOrder = anOrder().build();
         Mockito.when(orderRepositoryMock.save(any(Order.class))).thenReturn(expectedOrder);
 
@@ -116,13 +200,24 @@ class OrderServiceTest {
         assertThat(orderFromReorder).isEqualTo(expectedOrder);
     }
 
+    @Test
+    void reorderOrder_givenAnUnknownOrder_thenThrowException() {
+        UUID unknownOrderId = UUID.randomUUID();
+        Mockito.when(orderRepositoryMock.findWithCustomerAndOrderItemsById(unknownOrderId)).thenReturn(Optional.empty());
+
+        Assertions.assertThatExceptionOfType(EntityNotFoundException.class)
+                .isThrownBy(() -> orderService.reorderOrder(unknownOrderId))
+                .withMessage("During reordering an order, the following entity was not found: Order with id = "
+                        + unknownOrderId);
+    }
+
     @Test
     void reorderOrder_givenAnInvalidCustomer_thenThrowException() {
         UUID originalOrderId = UUID.randomUUID();
         Customer customer = aCustomer().build();
-        Mockito.when(orderRepositoryMock.getOne(originalOrderId))
-                .thenReturn(anOrder().withCustomer(customer).build());
-        Mockito.when(customerRepositoryMock.getOne(customer.getId())).thenReturn(null);
+        Mockito.when(orderRepositoryMock.findWithCustomerAndOrderItemsById(originalOrderId))
+                .thenReturn(Optional.of(anOrder().withCustomer(customer).build()));
+        Mockito.when(customerRepositoryMock.existsById(customer.getId())).thenReturn(false);
 
         Assertions.assertThatExceptionOfType(NotAuthorizedException.class)
                 .isThrownBy(() -> orderService.reorderOrder(originalOrderId))
@@ -130,4 +225,187 @@ class OrderServiceTest {
                         "Order " + originalOrderId + " because he's not the owner of that order!");
     }
 
+    @Test
+    void getOrdersPage_givenNoCursor_thenFetchTheFirstPage() {
+        Order order = anOrder().withId(UUID.randomUUID()).build();
+        Mockito.when(orderRepositoryMock.findFirstPageOfIds(PageRequest.of(0, 10))).thenReturn(List.of(order.getId()));
+        Mockito.when(orderRepositoryMock.findAllWithCustomerAndOrderItemsByIdIn(List.of(order.getId())))
+                .thenReturn(List.of(order));
+
+        List<Order> orders = orderService.getOrdersPage(null, 10);
+
+        assertThat(orders).containsExactly(order);
+        Mockito.verify(orderRepositoryMock, Mockito.never()).findPageOfIdsAfter(any(), any());
+    }
+
+    @Test
+    void getOrdersPage_givenACursor_thenFetchTheOrdersAfterTheCursor() {
+        UUID cursor = UUID.randomUUID();
+        Mockito.when(orderRepositoryMock.findPageOfIdsAfter(cursor, PageRequest.of(0, 10))).thenReturn(List.of());
+
+        List<Order> orders = orderService.getOrdersPage(cursor, 10);
+
+        assertThat(orders).isEmpty();
+        Mockito.verify(orderRepositoryMock, Mockito.never()).findAllWithCustomerAndOrderItemsByIdIn(any());
+    }
+
+    @Test
+    void getOrdersPage_givenAnInvalidPageSize_thenThrowException() {
+        Assertions.assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> orderService.getOrdersPage(null, OrderService.MAX_PAGE_SIZE + 1));
+        Assertions.assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> orderService.getOrdersPage(null, 0));
+    }
+
+    @Test
+    void streamAllOrders_fetchesTheOrdersPerChunkOfIdsAndClearsThePersistenceContextPerChunk() {
+        List<Order> orders = IntStream.range(0, OrderRepository.STREAMING_FETCH_SIZE * 2 + 1)
+                .mapToObj(index -> anOrder().withId(UUID.randomUUID()).build())
+                .collect(Collectors.toList());
+        Map<UUID, Order> ordersById = orders.stream().collect(Collectors.toMap(Order::getId, order -> order));
+        Mockito.when(orderRepositoryMock.streamAllIdsOrderedById()).thenReturn(orders.stream().map(Order::getId));
+        List<Integer> chunkSizes = new ArrayList<>();
+        Mockito.when(orderRepositoryMock.findAllWithCustomerAndOrderItemsByIdIn(any())).thenAnswer(invocation -> {
+            Collection<UUID> chunkOfOrderIds = invocation.getArgument(0);
+            chunkSizes.add(chunkOfOrderIds.size());
+            return chunkOfOrderIds.stream().map(ordersById::get).collect(Collectors.toList());
+        });
+        List<Order> streamedOrders = new ArrayList<>();
+
+        orderService.streamAllOrders(streamedOrders::add);
+
+        assertThat(streamedOrders).containsExactlyElementsOf(orders);
+        assertThat(chunkSizes)
+                .containsExactly(OrderRepository.STREAMING_FETCH_SIZE, OrderRepository.STREAMING_FETCH_SIZE, 1);
+        Mockito.verify(entityManagerMock, Mockito.times(3)).clear();
+    }
+
+    @Test
+    void createOrders_givenSomeInvalidOrders_thenOnlyCreateTheValidOnesAndReportPerOrder() {
+        Order validOrder = anOrder().build();
+        Order orderOfUnknownCustomer = anOrder().build();
+        Mockito.when(orderValidatorMock.isValidForCreation(any())).thenReturn(true);
+        Mockito.when(orderRepositoryMock.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(customerRepositoryMock.findAllById(any())).thenReturn(List.of(validOrder.getCustomer()));
+        List<Supplier<Order>> orderAssemblers = List.of(
+                () -> validOrder,
+                () -> { throw new IllegalArgumentException("Unknown item"); },
+                () -> orderOfUnknownCustomer);
+        List<Item> orderedItems = new ArrayList<>(itemsReferencedBy(validOrder));
+        orderedItems.addAll(itemsReferencedBy(orderOfUnknownCustomer));
+
+        List<OrderCreationResult> results = orderService.createOrders(orderAssemblers, ItemLookup.of(orderedItems));
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).getCreatedOrder()).isSameAs(validOrder);
+        assertThat(results.get(1).isCreated()).isFalse();
+        assertThat(results.get(1).getFailureReason()).isEqualTo("Unknown item");
+        assertThat(results.get(2).isCreated()).isFalse();
+        assertThat(results.get(2).getFailureReason()).contains(orderOfUnknownCustomer.getCustomer().getId().toString());
+        Mockito.verify(customerRepositoryMock, Mockito.times(1)).findAllById(any());
+        Mockito.verify(orderRepositoryMock, Mockito.times(1)).save(validOrder);
+        Mockito.verify(orderRepositoryMock, Mockito.never()).save(orderOfUnknownCustomer);
+    }
+
+    @Test
+    void createOrders_givenAChunkThatFails_thenCreateEveryOrderOfThatChunkInItsOwnTransaction() {
+        Customer customer = aCustomer().withId(UUID.randomUUID()).build();
+        Customer customerWithoutStock = aCustomer().withId(UUID.randomUUID()).build();
+        Item item = anItem().withId(UUID.randomUUID()).build();
+        Mockito.when(orderValidatorMock.isValidForCreation(any())).thenReturn(true);
+        Mockito.when(customerRepositoryMock.findAllById(any())).thenReturn(List.of(customer, customerWithoutStock));
+        Mockito.when(orderRepositoryMock.save(any())).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            if (order.getCustomer() == customerWithoutStock) {
+                throw new IllegalArgumentException("Not enough stock");
+            }
+            return order;
+        });
+        List<Supplier<Order>> orderAssemblers = List.of(
+                () -> anOrder().withCustomer(customer).withOrderItems(anOrderItem().withItemId(item.getId()).build()).build(),
+                () -> anOrder().withCustomer(customerWithoutStock).withOrderItems(anOrderItem().withItemId(item.getId()).build()).build());
+
+        List<OrderCreationResult> results = orderService.createOrders(orderAssemblers, ItemLookup.of(List.of(item)));
+
+        assertThat(results.get(0).isCreated()).isTrue();
+        assertThat(results.get(1).isCreated()).isFalse();
+        assertThat(results.get(1).getFailureReason()).isEqualTo("Not enough stock");
+        Mockito.verify(transactionManagerMock, Mockito.times(1 + 2)).getTransaction(any());
+    }
+
+    @Test
+    void createOrders_thenFlushTheOrdersOfAChunkBeforePublishingTheCreationOfTheirOrderItems() {
+        Order order = anOrder().build();
+        Order otherOrder = anOrder().build();
+        Mockito.when(orderValidatorMock.isValidForCreation(any())).thenReturn(true);
+        Mockito.when(orderRepositoryMock.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(customerRepositoryMock.findAllById(any()))
+                .thenReturn(List.of(order.getCustomer(), otherOrder.getCustomer()));
+        List<Item> orderedItems = new ArrayList<>(itemsReferencedBy(order));
+        orderedItems.addAll(itemsReferencedBy(otherOrder));
+
+        orderService.createOrders(List.of(() -> order, () -> otherOrder), ItemLookup.of(orderedItems));
+
+        InOrder inOrder = Mockito.inOrder(orderRepositoryMock, entityManagerMock, eventPublisherMock);
+        inOrder.verify(orderRepositoryMock).save(order);
+        inOrder.verify(orderRepositoryMock).save(otherOrder);
+        inOrder.verify(entityManagerMock).flush();
+        inOrder.verify(eventPublisherMock, Mockito.atLeastOnce()).publishEvent(any(OrderItemCreatedEvent.class));
+    }
+
+    @Test
+    void createOrders_givenOrdersOfTheSameItem_thenAssembleTheLaterOrdersWithTheStockTheEarlierOrdersLeft() {
+        Customer customer = aCustomer().withId(UUID.randomUUID()).build();
+        Item item = anItem().withId(UUID.randomUUID()).withAmountOfStock(3).build();
+        ItemLookup orderedItems = ItemLookup.of(List.of(item));
+        Mockito.when(orderValidatorMock.isValidForCreation(any())).thenReturn(true);
+        Mockito.when(orderRepositoryMock.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(customerRepositoryMock.findAllById(any())).thenReturn(List.of(customer));
+        Supplier<Order> orderAssembler = () -> anOrder()
+                .withCustomer(customer)
+                .withOrderItems(orderItem()
+                        .withItemId(item.getId())
+                        .withItemPrice(item.getPrice())
+                        .withOrderedAmount(2)
+                        .withShippingDateBasedOnAvailableItemStock(orderedItems.getAvailableStock(item.getId()))
+                        .build())
+                .build();
+
+        List<OrderCreationResult> results = orderService.createOrders(List.of(orderAssembler, orderAssembler),
+                orderedItems);
+
+        LocalDate shippingDateOfFirstOrder = results.get(0).getCreatedOrder().getOrderItems().get(0).getShippingDate();
+        LocalDate shippingDateOfSecondOrder = results.get(1).getCreatedOrder().getOrderItems().get(0).getShippingDate();
+        assertThat(shippingDateOfSecondOrder).isAfter(shippingDateOfFirstOrder);
+        assertThat(orderedItems.getAvailableStock(item.getId())).isEqualTo(3 - 2 - 2);
+    }
+
+    @Test
+    void createOrder_thenAddTheSavedOrderToTheReportOfItsCustomer() {
+        Order order = anOrder().build();
+        Mockito.when(orderValidatorMock.isValidForCreation(order)).thenReturn(true);
+        Mockito.when(orderRepositoryMock.save(order)).thenReturn(order);
+        Mockito.when(customerRepositoryMock.existsById(order.getCustomer().getId())).thenReturn(true);
+
+        orderService.createOrder(order, ItemLookup.of(itemsReferencedBy(order)));
+
+        Mockito.verify(customerOrderReportServiceMock).addOrder(order);
+    }
+
+    @Test
+    void createOrders_givenTooManyOrders_thenThrowException() {
+        List<Supplier<Order>> orderAssemblers = IntStream.range(0, OrderService.MAX_BATCH_SIZE + 1)
+                .mapToObj(index -> (Supplier<Order>) () -> anOrder().build())
+                .collect(Collectors.toList());
+
+        Assertions.assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> orderService.createOrders(orderAssemblers, ItemLookup.of(List.of())));
+    }
+
+    private List<Item> itemsReferencedBy(Order order) {
+        return order.getOrderItems().stream()
+                .map(orderItem -> anItem().withId(orderItem.getItemId()).build())
+                .collect(Collectors.toList());
+    }
+
 }
@@ -1,25 +1,29 @@
 package com.switchfully.order.service.orders;
 
+import com.switchfully.order.domain.orders.orderitems.OrderItem;
 import com.switchfully.order.domain.orders.orderitems.OrderItemTestBuilder;
 import org.junit.jupiter.api.Test;
 
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static com.switchfully.order.domain.orders.OrderTestBuilder.anOrder;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class OrderValidatorTest {
 
+    private final OrderValidator orderValidator = new OrderValidator(new OrderAssemblyExecutor(256, 64, 1));
+
     @Test
     void isValidForCreation_happyPath() {
-        assertThat(new OrderValidator()
+        assertThat(orderValidator
                 .isValidForCreation(anOrder().build()))
                 .isTrue();
     }
 
     @Test
     void isValidForCreation_givenAnId_thenNotValidForCreation() {
-        assertThat(new OrderValidator()
+        assertThat(orderValidator
                 .isValidForCreation(anOrder()
                         .withId(UUID.randomUUID())
                         .build()))
@@ -34,7 +38,7 @@ class OrderValidatorTest {
      */
     @Test
     void isValidForCreation_givenSomeMissingValues_thenNotValidForCreation() {
-        assertThat(new OrderValidator()
+        assertThat(orderValidator
                 .isValidForCreation(anOrder()
                         .withCustomer(null)
                         .withOrderItems(OrderItemTestBuilder.anOrderItem()
@@ -45,4 +49,20 @@ class OrderValidatorTest {
                 .isFalse();
     }
 
+    @Test
+    void isValidForCreation_givenALargeOrderWithOneInvalidOrderItem_thenNotValidForCreation() {
+        OrderValidator parallelOrderValidator = new OrderValidator(new OrderAssemblyExecutor(2, 1, 2));
+        OrderItem[] orderItems = IntStream.range(0, 10)
+                .mapToObj(index -> OrderItemTestBuilder.anOrderItem()
+                        .withOrderedAmount(index == 7 ? 0 : 1)
+                        .build())
+                .toArray(OrderItem[]::new);
+
+        assertThat(parallelOrderValidator
+                .isValidForCreation(anOrder()
+                        .withOrderItems(orderItems)
+                        .build()))
+                .isFalse();
+    }
+
 }
@@ -0,0 +1,175 @@
+package com.switchfully.order.service.orders.reports;
+
+import com.switchfully.order.IntegrationTest;
+import com.switchfully.order.domain.customers.Customer;
+import com.switchfully.order.domain.customers.CustomerRepository;
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.domain.items.ItemRepository;
+import com.switchfully.order.domain.items.prices.Price;
+import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.domain.orders.OrderRepository;
+import com.switchfully.order.domain.orders.reports.CustomerOrderReportRepository;
+import com.switchfully.order.domain.orders.reports.OrderReportLine;
+import com.switchfully.order.service.orders.OrderService;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.switchfully.order.domain.customers.CustomerTestBuilder.aCustomer;
+import static com.switchfully.order.domain.items.ItemTestBuilder.anItem;
+import static com.switchfully.order.domain.orders.OrderTestBuilder.anOrder;
+import static com.switchfully.order.domain.orders.orderitems.OrderItemTestBuilder.anOrderItem;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerOrderReportServiceIntegrationTest extends IntegrationTest {
+
+    @Autowired
+    private CustomerOrderReportService customerOrderReportService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CustomerOrderReportRepository customerOrderReportRepository;
+
+    @Test
+    void getReport_givenOrdersCreatedThroughTheOrderService_thenReportTheRunningTotalsAndDenormalizedLines() {
+        Customer customer = customerRepository.save(aCustomer().build());
+        Item book = itemRepository.save(anItem().withName("The Martian").withAmountOfStock(100).build());
+        Item pen = itemRepository.save(anItem().withName("Pen").withAmountOfStock(100).build());
+        Order firstOrder = orderService.createOrder(anOrder().withCustomer(customer)
+                .withOrderItems(anOrderItem().withItemId(book.getId()).withOrderedAmount(2)
+                        .withItemPrice(Price.create(BigDecimal.valueOf(10))).build())
+                .build());
+        Order secondOrder = orderService.createOrder(anOrder().withCustomer(customer)
+                .withOrderItems(anOrderItem().withItemId(book.getId()).withOrderedAmount(1)
+                                .withItemPrice(Price.create(BigDecimal.valueOf(10))).build(),
+                        anOrderItem().withItemId(pen.getId()).withOrderedAmount(3)
+                                .withItemPrice(Price.create(BigDecimal.valueOf(1.5))).build())
+                .build());
+
+        OrdersReport ordersReport = customerOrderReportService.getReport(customer.getId());
+
+        assertThat(ordersReport.getTotalPriceOfAllOrders()).isEqualByComparingTo(BigDecimal.valueOf(34.5));
+        assertThat(ordersReport.getLines()).hasSize(3);
+        assertThat(ordersReport.getLines())
+                .filteredOn(line -> line.getOrderId().equals(secondOrder.getId()))
+                .extracting(OrderReportLine::getItemName, OrderReportLine::getOrderedAmount)
+                .containsExactlyInAnyOrder(
+                        Tuple.tuple("The Martian", 1),
+                        Tuple.tuple("Pen", 3));
+        assertThat(ordersReport.getLines())
+                .filteredOn(line -> line.getOrderId().equals(firstOrder.getId()))
+                .allSatisfy(line -> assertThat(line.getOrderTotalPrice()).isEqualByComparingTo(BigDecimal.valueOf(20)));
+    }
+
+    @Test
+    void getReport_givenOrdersThatWereNotAddedToTheReport_thenBackfillTheReportFromTheOrders() {
+        Customer customer = customerRepository.save(aCustomer().build());
+        Item item = itemRepository.save(anItem().withName("Backfilled").build());
+        orderRepository.save(anOrder().withCustomer(customer)
+                .withOrderItems(anOrderItem().withItemId(item.getId()).withOrderedAmount(2)
+                        .withItemPrice(Price.create(BigDecimal.valueOf(5))).build())
+                .build());
+        orderRepository.save(anOrder().withCustomer(customer)
+                .withOrderItems(anOrderItem().withItemId(item.getId()).withOrderedAmount(1)
+                        .withItemPrice(Price.create(BigDecimal.valueOf(5))).build())
+                .build());
+
+        OrdersReport ordersReport = customerOrderReportService.getReport(customer.getId());
+
+        assertThat(ordersReport.getTotalPriceOfAllOrders()).isEqualByComparingTo(BigDecimal.valueOf(15));
+        assertThat(ordersReport.getLines()).hasSize(2)
+                .allSatisfy(line -> assertThat(line.getItemName()).isEqualTo("Backfilled"));
+        assertThat(customerOrderReportRepository.findTotalPriceOfAllOrdersByCustomerId(customer.getId())).isEmpty();
+    }
+
+    @Test
+    void addOrder_givenOrdersThatWereNotAddedToTheReport_thenStoreTheBackfilledReportWithTheNextOrder() {
+        Customer customer = customerRepository.save(aCustomer().build());
+        Item item = itemRepository.save(anItem().withName("Backfilled").withAmountOfStock(100).build());
+        orderRepository.save(anOrder().withCustomer(customer)
+                .withOrderItems(anOrderItem().withItemId(item.getId()).withOrderedAmount(2)
+                        .withItemPrice(Price.create(BigDecimal.valueOf(5))).build())
+                .build());
+
+        orderService.createOrder(anOrder().withCustomer(customer)
+                .withOrderItems(anOrderItem().withItemId(item.getId()).withOrderedAmount(1)
+                        .withItemPrice(Price.create(BigDecimal.valueOf(5))).build())
+                .build());
+
+        assertThat(customerOrderReportRepository.findTotalPriceOfAllOrdersByCustomerId(customer.getId()))
+                .hasValueSatisfying(total -> assertThat(total).isEqualByComparingTo(BigDecimal.valueOf(15)));
+        assertThat(customerOrderReportService.getReport(customer.getId()).getLines()).hasSize(2);
+    }
+
+    @Test
+    void addOrder_givenConcurrentFirstOrdersOfACustomer_thenStoreOneReportWithEveryOrder() throws Exception {
+        int amountOfOrders = 8;
+        Customer customer = customerRepository.save(aCustomer().build());
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(amountOfOrders);
+        List<Future<Order>> createdOrders = new ArrayList<>();
+        for (int order = 0; order < amountOfOrders; order++) {
+            // every order has its own item, so the orders don't wait for each other's stock decrement
+            Item item = itemRepository.save(anItem().withAmountOfStock(100).build());
+            createdOrders.add(executorService.submit(() -> {
+                start.await();
+                return orderService.createOrder(anOrder().withCustomer(customer)
+                        .withOrderItems(anOrderItem().withItemId(item.getId()).withOrderedAmount(1)
+                                .withItemPrice(Price.create(BigDecimal.valueOf(10))).build())
+                        .build());
+            }));
+        }
+        start.countDown();
+        for (Future<Order> createdOrder : createdOrders) {
+            createdOrder.get();
+        }
+        executorService.shutdown();
+
+        OrdersReport ordersReport = customerOrderReportService.getReport(customer.getId());
+
+        assertThat(ordersReport.getTotalPriceOfAllOrders()).isEqualByComparingTo(BigDecimal.valueOf(80));
+        assertThat(ordersReport.getLines()).hasSize(amountOfOrders);
+    }
+
+    @Test
+    void getReport_givenACustomerWithoutOrders_thenReturnAnEmptyReport() {
+        Customer customer = customerRepository.save(aCustomer().build());
+
+        OrdersReport ordersReport = customerOrderReportService.getReport(customer.getId());
+
+        assertThat(ordersReport.getTotalPriceOfAllOrders()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(ordersReport.getLines()).isEmpty();
+        assertThat(customerOrderReportRepository.findTotalPriceOfAllOrdersByCustomerId(customer.getId())).isEmpty();
+    }
+
+    @Test
+    void getReport_givenAnUnknownCustomer_thenReturnAnEmptyReportWithoutStoringIt() {
+        UUID unknownCustomerId = UUID.randomUUID();
+
+        OrdersReport ordersReport = customerOrderReportService.getReport(unknownCustomerId);
+
+        assertThat(ordersReport.getTotalPriceOfAllOrders()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(ordersReport.getLines()).isEmpty();
+        assertThat(customerOrderReportRepository.findTotalPriceOfAllOrdersByCustomerId(unknownCustomerId)).isEmpty();
+    }
+}
@@ -0,0 +1,130 @@
+package com.switchfully.order.service.outbox;
+
+import com.switchfully.order.IntegrationTest;
+import com.switchfully.order.domain.customers.Customer;
+import com.switchfully.order.domain.customers.CustomerRepository;
+import com.switchfully.order.domain.items.Item;
+import com.switchfully.order.domain.items.ItemRepository;
+import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.domain.outbox.OutboxEvent;
+import com.switchfully.order.domain.outbox.OutboxEventRepository;
+import com.switchfully.order.service.orders.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.inject.Inject;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.switchfully.order.domain.customers.CustomerTestBuilder.aCustomer;
+import static com.switchfully.order.domain.items.ItemTestBuilder.anItem;
+import static com.switchfully.order.domain.orders.OrderTestBuilder.anOrder;
+import static com.switchfully.order.domain.orders.orderitems.OrderItemTestBuilder.anOrderItem;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "order.events.outbox.enabled=true")
+@Import(OutboxRelayIntegrationTest.FailOnDemandOutboxEventSink.class)
+class OutboxRelayIntegrationTest extends IntegrationTest {
+
+    @Inject
+    private OrderService orderService;
+
+    @Inject
+    private OutboxRelay outboxRelay;
+
+    @Inject
+    private OutboxEventRepository outboxEventRepository;
+
+    @Inject
+    private CustomerRepository customerRepository;
+
+    @Inject
+    private ItemRepository itemRepository;
+
+    @Inject
+    private FailOnDemandOutboxEventSink failOnDemandOutboxEventSink;
+
+    @AfterEach
+    void cleanUpOutbox() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void createOrder_theStockIsOnlyDecrementedOnceTheOutboxIsRelayed() {
+        Item item = itemRepository.save(anItem().withAmountOfStock(10).build());
+        Customer customer = customerRepository.save(aCustomer().build());
+        Order order = orderService.createOrder(anOrder()
+                .withCustomer(customer)
+                .withOrderItems(anOrderItem().withItemId(item.getId()).withOrderedAmount(4).build())
+                .build());
+
+        assertThat(outboxEventRepository.countByProcessedAtIsNull()).isEqualTo(1);
+        assertThat(stockOf(item)).isEqualTo(10);
+
+        int relayedEvents = outboxRelay.relay();
+
+        assertThat(relayedEvents).isEqualTo(1);
+        assertThat(outboxEventRepository.countByProcessedAtIsNull()).isEqualTo(0);
+        assertThat(outboxEventRepository.findAll()).allSatisfy(outboxEvent -> {
+            assertThat(outboxEvent.getOrderId()).isEqualTo(order.getId());
+            assertThat(outboxEvent.getItemId()).isEqualTo(item.getId());
+            assertThat(outboxEvent.getOrderedAmount()).isEqualTo(4);
+        });
+        assertThat(stockOf(item)).isEqualTo(6);
+    }
+
+    @Test
+    void relay_givenTheTransactionFailsAfterTheStockWasDecremented_thenRelayTheEventAgainWithoutDecrementingTwice() {
+        Item item = itemRepository.save(anItem().withAmountOfStock(10).build());
+        Customer customer = customerRepository.save(aCustomer().build());
+        orderService.createOrder(anOrder()
+                .withCustomer(customer)
+                .withOrderItems(anOrderItem().withItemId(item.getId()).withOrderedAmount(4).build())
+                .build());
+        failOnDemandOutboxEventSink.failNextCommit();
+
+        outboxRelay.relay();
+
+        assertThat(stockOf(item)).isEqualTo(10);
+        assertThat(outboxEventRepository.countByProcessedAtIsNull()).isEqualTo(1);
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getFailedAttempts).containsExactly(1);
+
+        outboxRelay.relay();
+
+        assertThat(stockOf(item)).isEqualTo(6);
+        assertThat(outboxEventRepository.countByProcessedAtIsNull()).isEqualTo(0);
+    }
+
+    private int stockOf(Item item) {
+        return itemRepository.findById(item.getId()).orElseThrow().getAmountOfStock();
+    }
+
+    /**
+     * Dispatched to after the in-JVM listeners (which decrement the stock), within the same transaction.
+     * Can make that transaction fail when it commits, so after the event was marked as processed as well.
+     */
+    static class FailOnDemandOutboxEventSink implements OutboxEventSink {
+
+        private final AtomicBoolean failNextCommit = new AtomicBoolean();
+
+        void failNextCommit() {
+            failNextCommit.set(true);
+        }
+
+        @Override
+        public void dispatch(OutboxEvent outboxEvent) {
+            if (failNextCommit.getAndSet(false)) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        throw new IllegalStateException("Committing the relay of " + outboxEvent + " failed");
+                    }
+                });
+            }
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.switchfully.order.service.outbox;
+
+import com.switchfully.order.domain.orders.Order;
+import com.switchfully.order.domain.orders.OrderRepository;
+import com.switchfully.order.domain.orders.orderitems.OrderItem;
+import com.switchfully.order.domain.orders.orderitems.events.OrderItemCreatedEvent;
+import com.switchfully.order.domain.outbox.OutboxEvent;
+import com.switchfully.order.domain.outbox.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.switchfully.order.domain.orders.OrderTestBuilder.anOrder;
+import static com.switchfully.order.domain.outbox.OutboxEvent.OutboxEventBuilder.orderItemCreated;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+
+class OutboxRelayTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private OutboxEventRepository outboxEventRepositoryMock;
+    private OrderRepository orderRepositoryMock;
+    private ApplicationEventPublisher eventPublisherMock;
+    private OutboxEventSink outboxEventSinkMock;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setupRelay() {
+        outboxEventRepositoryMock = Mockito.mock(OutboxEventRepository.class);
+        orderRepositoryMock = Mockito.mock(OrderRepository.class);
+        eventPublisherMock = Mockito.mock(ApplicationEventPublisher.class);
+        outboxEventSinkMock = Mockito.mock(OutboxEventSink.class);
+        ObjectProvider<OutboxEventSink> outboxEventSinks = Mockito.mock(ObjectProvider.class);
+        Mockito.when(outboxEventSinks.orderedStream()).thenAnswer(invocation -> Stream.of(outboxEventSinkMock));
+        outboxRelay = new OutboxRelay(outboxEventRepositoryMock, orderRepositoryMock, eventPublisherMock,
+                outboxEventSinks, Mockito.mock(PlatformTransactionManager.class), true, 10, MAX_ATTEMPTS);
+    }
+
+    @Test
+    void relay_dispatchesEveryEventAndMarksItAsProcessed() {
+        Order order = anOrderWithPersistedOrderItems();
+        OrderItem orderItem = order.getOrderItems().get(0);
+        OutboxEvent outboxEvent = anOutboxEventOf(order, orderItem);
+        givenUnprocessed(outboxEvent);
+        Mockito.when(orderRepositoryMock.findAllWithCustomerAndOrderItemsByIdIn(any())).thenReturn(List.of(order));
+
+        int relayedEvents = outboxRelay.relay();
+
+        assertThat(relayedEvents).isEqualTo(1);
+        assertThat(outboxEvent.isProcessed()).isTrue();
+        assertThat(outboxEvent.isDeadLettered()).isFalse();
+        ArgumentCaptor<OrderItemCreatedEvent> publishedEvent = ArgumentCaptor.forClass(OrderItemCreatedEvent.class);
+        Mockito.verify(eventPublisherMock).publishEvent(publishedEvent.capture());
+        assertThat(publishedEvent.getValue().getOrderItem()).isSameAs(orderItem);
+        Mockito.verify(outboxEventSinkMock).dispatch(outboxEvent);
+        Mockito.verify(outboxEventRepositoryMock).flush();
+    }
+
+    @Test
+    void relay_givenAnEventRelayedByAnotherNodeInTheMeantime_thenSkipIt() {
+        Order order = anOrderWithPersistedOrderItems();
+        OutboxEvent outboxEvent = anOutboxEventOf(order, order.getOrderItems().get(0));
+        Mockito.when(outboxEventRepositoryMock.findUnprocessed(any())).thenReturn(List.of(outboxEvent));
+        Mockito.when(outboxEventRepositoryMock.findUnprocessedByIdSkippingLocked(outboxEvent.getId()))
+                .thenReturn(Optional.empty());
+        Mockito.when(orderRepositoryMock.findAllWithCustomerAndOrderItemsByIdIn(any())).thenReturn(List.of(order));
+
+        int relayedEvents = outboxRelay.relay();
+
+        assertThat(relayedEvents).isEqualTo(0);
+        assertThat(outboxEvent.getFailedAttempts()).isEqualTo(0);
+        Mockito.verifyNoInteractions(eventPublisherMock, outboxEventSinkMock);
+    }
+
+    @Test
+    void relay_givenAFailingEvent_thenRetryItUntilTheMaximumAttemptsAndDeadLetterIt() {
+        Order order = anOrderWithPersistedOrderItems();
+        OutboxEvent outboxEvent = anOutboxEventOf(order, order.getOrderItems().get(0));
+        givenUnprocessed(outboxEvent);
+        Mockito.when(orderRepositoryMock.findAllWithCustomerAndOrderItemsByIdIn(any())).thenReturn(List.of(order));
+        Mockito.doThrow(IllegalStateException.class).when(outboxEventSinkMock).dispatch(outboxEvent);
+
+        outboxRelay.relay();
+        assertThat(outboxEvent.isProcessed()).isFalse();
+        assertThat(outboxEvent.getFailedAttempts()).isEqualTo(1);
+
+        outboxRelay.relay();
+        assertThat(outboxEvent.isDeadLettered()).isFalse();
+        outboxRelay.relay();
+        assertThat(outboxEvent.getFailedAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(outboxEvent.isProcessed()).isTrue();
+        assertThat(outboxEvent.isDeadLettered()).isTrue();
+    }
+
+    @Test
+    void relay_givenAnEventOfAnOrderThatDoesNotExistAnymore_thenDoNotDispatchIt() {
+        Order order = anOrderWithPersistedOrderItems();
+        OutboxEvent outboxEvent = anOutboxEventOf(order, order.getOrderItems().get(0));
+        givenUnprocessed(outboxEvent);
+        Mockito.when(orderRepositoryMock.findAllWithCustomerAndOrderItemsByIdIn(any())).thenReturn(List.of());
+
+        outboxRelay.relay();
+
+        assertThat(outboxEvent.getFailedAttempts()).isEqualTo(1);
+        Mockito.verifyNoInteractions(eventPublisherMock, outboxEventSinkMock);
+    }
+
+    @Test
+    void relay_givenNoUnprocessedEvents_thenDoNothing() {
+        Mockito.when(outboxEventRepositoryMock.findUnprocessed(any())).thenReturn(List.of());
+
+        int relayedEvents = outboxRelay.relay();
+
+        assertThat(relayedEvents).isEqualTo(0);
+        Mockito.verifyNoInteractions(orderRepositoryMock, eventPublisherMock, outboxEventSinkMock);
+    }
+
+    private void givenUnprocessed(OutboxEvent outboxEvent) {
+        Mockito.when(outboxEventRepositoryMock.findUnprocessed(any())).thenReturn(List.of(outboxEvent));
+        Mockito.when(outboxEventRepositoryMock.findUnprocessedByIdSkippingLocked(outboxEvent.getId()))
+                .thenAnswer(invocation -> Optional.of(outboxEvent).filter(event -> !event.isProcessed()));
+    }
+
+    private OutboxEvent anOutboxEventOf(Order order, OrderItem orderItem) {
+        return orderItemCreated(order, orderItem).withId(UUID.randomUUID()).build();
+    }
+
+    private Order anOrderWithPersistedOrderItems() {
+        Order order = anOrder().withId(UUID.randomUUID()).build();
+        order.getOrderItems().forEach(orderItem -> ReflectionTestUtils.setField(orderItem, "id", UUID.randomUUID()));
+        return order;
+    }
+
+}